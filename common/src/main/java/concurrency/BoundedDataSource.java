@@ -0,0 +1,119 @@
+package concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+        BOUNDED CONNECTION ACCESS
+    with virtual threads there is no request thread pool limiting concurrency any more,
+    so thousands of requests can queue inside Hikari at once. Callers wait here on a fair
+    semaphore sized to the pool (virtual threads unmount while parked) and fail fast after
+    acquire-timeout; the permit is returned when the connection is closed
+ */
+public class BoundedDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+
+    private final Counter timeoutCounter;
+    private final Timer waitTimer;
+
+    public BoundedDataSource(DataSource target, int maxConnections, Duration acquireTimeout, MeterRegistry meterRegistry) {
+        super(target);
+        this.permits = new Semaphore(maxConnections, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+
+        this.timeoutCounter = meterRegistry.counter("db.connection.permits.timeouts");
+        this.waitTimer = meterRegistry.timer("db.connection.permits.wait");
+        Gauge.builder("db.connection.permits.waiting", permits, Semaphore::getQueueLength)
+                .register(meterRegistry);
+        Gauge.builder("db.connection.permits.available", permits, Semaphore::availablePermits)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquirePermit();
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquirePermit();
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // keeps the pool's shutdown working, Spring infers the destroy method from the wrapper
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private void acquirePermit() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                timeoutCounter.increment();
+                throw new SQLTransientConnectionException(
+                        "Timed out after " + Duration.ofNanos(acquireTimeoutNanos).toMillis() + "ms waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,80 @@
+package concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/*
+    a virtual thread blocking inside synchronized or native code keeps its carrier thread,
+    enough of those and the whole carrier pool stalls. JFR reports every such block longer
+    than the threshold, we log where it happened and count it
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final Duration threshold;
+    private final Counter pinnedCounter;
+    private final Timer pinnedTimer;
+
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration threshold) {
+        this.threshold = threshold;
+        this.pinnedCounter = meterRegistry.counter("jvm.threads.virtual.pinned");
+        this.pinnedTimer = meterRegistry.timer("jvm.threads.virtual.pinned.duration");
+    }
+
+    @Override
+    public synchronized void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.info("Virtual thread pinning monitor started, threshold={}ms", threshold.toMillis());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+            recordingStream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        pinnedTimer.record(event.getDuration());
+
+        log.warn("Virtual thread pinned for {}ms at:\n{}", event.getDuration().toMillis(), topFrames(event));
+    }
+
+    private static String topFrames(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "\t<no stack trace>";
+        }
+
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        return frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "\t" + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
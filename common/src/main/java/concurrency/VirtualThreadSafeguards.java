@@ -0,0 +1,53 @@
+package concurrency;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/*
+    safeguards shared by every service running with spring.threads.virtual.enabled=true,
+    imported by the service's own VirtualThreadsConfig: the pinning monitor, and a bounded
+    connection gate in front of Hikari when the service has a JDBC pool
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadSafeguards {
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry meterRegistry, Environment environment) {
+        return new VirtualThreadPinningMonitor(meterRegistry,
+                environment.getProperty("virtual-threads.pinning-threshold", Duration.class, Duration.ofMillis(20)));
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "com.zaxxer.hikari.HikariDataSource")
+    static class BoundedDataSourceConfig {
+
+        @Bean
+        public static BeanPostProcessor boundedDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                       Environment environment) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof HikariDataSource hikari) {
+                        Duration acquireTimeout = environment.getProperty(
+                                "virtual-threads.datasource-acquire-timeout", Duration.class, Duration.ofSeconds(5));
+
+                        return new BoundedDataSource(hikari, hikari.getMaximumPoolSize(), acquireTimeout,
+                                meterRegistry.getObject());
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
@@ -3,7 +3,9 @@ package task.kafka;
 import task.model.Priority;
 import task.model.TaskStatus;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 public record TaskEvent(
 
@@ -19,8 +21,13 @@ public record TaskEvent(
 
         Priority oldTaskPriority,
         Priority newTaskPriority,
+        LocalDate deadline,
 
         LocalDateTime timestamp,
-        TaskEventType eventType
+        TaskEventType eventType,
+
+        // event identity: unique id and per-task sequence (the task version), consumers use them to skip replays
+        UUID eventId,
+        Long sequence
 ) {
 }
@@ -0,0 +1,11 @@
+package user.kafka;
+
+import java.time.LocalDateTime;
+
+public record UserEvent(
+
+        Long userId,
+        UserEventType eventType,
+        LocalDateTime timestamp
+) {
+}
@@ -0,0 +1,8 @@
+package user.kafka;
+
+public enum UserEventType {
+    CREATED,
+    UPDATED,
+    BANNED,
+    DELETED
+}
@@ -0,0 +1,44 @@
+package com.project.notificationservice.api.mongodb;
+
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import task.kafka.TaskEvent;
+
+import java.time.Instant;
+
+// an event held back for the digest of its assignee, removed once the digest is handed to the pipeline
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "digest_entry")
+public class DigestEntry {
+
+    // the event id, so a redelivered record is not counted twice
+    @Id
+    private String id;
+
+    @Field(name = "recipient_id")
+    private Long recipientId;
+
+    @Field(name = "window_start")
+    private Instant windowStart;
+
+    @Field(name = "event")
+    private TaskEvent event;
+
+    // the instance that holds the entry in memory, it renews the lease while it runs
+    @Field(name = "owner")
+    private String owner;
+
+    // once this has passed the owner is gone and another instance may claim the entry
+    @Indexed
+    @Field(name = "leased_until")
+    private Instant leasedUntil;
+
+}
@@ -0,0 +1,49 @@
+package com.project.notificationservice.api.mongodb;
+
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import task.kafka.TaskEvent;
+
+import java.time.Instant;
+import java.util.List;
+
+// an event handed over by the Kafka listener, or a flushed digest, that is not sent yet. Removed once the email went out
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "pending_notification")
+public class PendingNotification {
+
+    // the event id, so a redelivered record does not create a second entry (digest-<user>-<window>-<entry set> for digests)
+    @Id
+    private String id;
+
+    @Field(name = "recipient_id")
+    private Long recipientId;
+
+    // set for a single notification
+    @Field(name = "event")
+    private TaskEvent event;
+
+    // set for a digest, the events of one recipient in one window
+    @Field(name = "digest")
+    private List<TaskEvent> digest;
+
+    @Field(name = "attempts")
+    private int attempts;
+
+    // the entry is picked up by the redrive once this has passed
+    @Indexed
+    @Field(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
+    @Field(name = "created_at")
+    private Instant createdAt;
+
+}
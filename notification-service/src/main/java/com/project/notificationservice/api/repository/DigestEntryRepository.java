@@ -0,0 +1,53 @@
+package com.project.notificationservice.api.repository;
+
+import com.project.notificationservice.api.mongodb.DigestEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class DigestEntryRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    // a redelivered event that is already held back is skipped and not returned
+    public List<DigestEntry> insertNew(List<DigestEntry> entries) {
+        return MongoBulkInserts.insertNew(mongoTemplate, DigestEntry.class, entries);
+    }
+
+    /*
+        takes over one entry whose owner stopped renewing, in one atomic step so two instances never claim the same one.
+        Entries of the caller itself are already held in its memory
+     */
+    public Optional<DigestEntry> claimExpired(String owner, Instant now, Instant leasedUntil) {
+        Query expired = Query.query(Criteria.where("leased_until").lte(now).and("owner").ne(owner));
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(expired,
+                Update.update("owner", owner).set("leased_until", leasedUntil),
+                FindAndModifyOptions.options().returnNew(true),
+                DigestEntry.class));
+    }
+
+    public void renewLeases(String owner, Instant leasedUntil) {
+        mongoTemplate.updateMulti(Query.query(Criteria.where("owner").is(owner)),
+                Update.update("leased_until", leasedUntil),
+                DigestEntry.class);
+    }
+
+    public void deleteAllById(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), DigestEntry.class);
+    }
+}
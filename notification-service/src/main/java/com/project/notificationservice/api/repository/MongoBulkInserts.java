@@ -0,0 +1,56 @@
+package com.project.notificationservice.api.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+    one unordered bulk insert. Documents whose id is already stored (a redelivered record) are left alone
+    and not returned, every other failure is thrown
+ */
+final class MongoBulkInserts {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private MongoBulkInserts() {
+    }
+
+    static <T> List<T> insertNew(MongoTemplate mongoTemplate, Class<T> type, List<T> documents) {
+        if (documents.isEmpty()) {
+            return documents;
+        }
+
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type)
+                    .insert(documents)
+                    .execute();
+            return documents;
+        } catch (BulkOperationException e) {
+            return withoutDuplicates(documents, e.getErrors());
+        }
+    }
+
+    private static <T> List<T> withoutDuplicates(List<T> documents, List<BulkWriteError> errors) {
+        Set<Integer> duplicates = new HashSet<>();
+        for (BulkWriteError error : errors) {
+            if (error.getCode() != DUPLICATE_KEY) {
+                throw new IllegalStateException("Failed to store documents: " + error.getMessage());
+            }
+            duplicates.add(error.getIndex());
+        }
+
+        List<T> inserted = new ArrayList<>(documents.size() - duplicates.size());
+        for (int i = 0; i < documents.size(); i++) {
+            if (!duplicates.contains(i)) {
+                inserted.add(documents.get(i));
+            }
+        }
+        return inserted;
+    }
+}
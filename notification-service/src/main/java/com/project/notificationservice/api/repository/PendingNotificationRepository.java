@@ -0,0 +1,48 @@
+package com.project.notificationservice.api.repository;
+
+import com.project.notificationservice.api.mongodb.PendingNotification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class PendingNotificationRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    // a redelivered event that is still pending is skipped and not returned
+    public List<PendingNotification> insertNew(List<PendingNotification> notifications) {
+        return MongoBulkInserts.insertNew(mongoTemplate, PendingNotification.class, notifications);
+    }
+
+    // moves the oldest due entry forward by the lease in one atomic step, so two instances never claim the same one
+    public Optional<PendingNotification> claimDue(Instant now, Instant leasedUntil) {
+        Query due = Query.query(Criteria.where("next_attempt_at").lte(now))
+                .with(Sort.by("next_attempt_at"));
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(due,
+                Update.update("next_attempt_at", leasedUntil),
+                FindAndModifyOptions.options().returnNew(true),
+                PendingNotification.class));
+    }
+
+    public void retryAt(String id, int attempts, Instant nextAttemptAt) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)),
+                Update.update("attempts", attempts).set("next_attempt_at", nextAttemptAt),
+                PendingNotification.class);
+    }
+
+    public void deleteById(String id) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(id)), PendingNotification.class);
+    }
+}
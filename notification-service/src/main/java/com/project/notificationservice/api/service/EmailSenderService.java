@@ -1,14 +1,25 @@
 package com.project.notificationservice.api.service;
 
 
+import com.project.notificationservice.mail.SmtpTransportPool;
+import com.project.notificationservice.template.DigestValues;
+import com.project.notificationservice.template.EmailTemplates;
+import com.project.notificationservice.template.RenderedEmail;
+import com.project.notificationservice.template.TaskEventValues;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import task.kafka.TaskEvent;
+import user.model.User;
+
+import java.util.List;
+import java.util.Objects;
 
 @Slf4j
 @Service
@@ -16,38 +27,44 @@ import org.springframework.stereotype.Service;
 public class EmailSenderService {
 
     private final JavaMailSender mailSender;
+    private final SmtpTransportPool transportPool;
+    private final EmailTemplates emailTemplates;
 
     @Value("${spring.mail.username}")
     private String sender;
 
-    public void sendTaskNotification(String to, Long id, String taskStatus) {
-        try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
-
-            helper.setFrom(sender);
-            helper.setTo(to);
-            helper.setSubject("Уведомление по задаче: №" + id);
-
-            String htmlBody = "<html>" +
-                    "<body style='font-family: Arial, sans-serif;'>" +
-                    "<h2 style='color: #004a99;'>Обновление в Task Management</h2>" +
-                    "<p>Привет! У нас есть новости по твоей задаче:</p>" +
-                    "<div style='background-color: #f4f4f4; padding: 15px; border-left: 4px solid #004a99;'>" +
-                    "<p><strong>Статус:</strong> <span style='color: green;'>" + taskStatus + "</span></p>" +
-                    "<p><strong>ID task:</strong> <span style='color: white;'>" + id + "</span></p>" +
-                    "</div>" +
-                    "<br>" +
-                    "</body>" +
-                    "</html>";
-
-            helper.setText(htmlBody, true);
-
-            mailSender.send(mimeMessage);
-            log.info("Email успешно отправлен на адрес: {}", to);
-
-        } catch (MessagingException e) {
-            log.error("Ошибка при формировании/отправке email: {}", e.getMessage());
-        }
+    // render stage of the pipeline: builds the message from the template of the event type, nothing is sent yet
+    public MimeMessage createTaskNotification(User recipient, TaskEvent event) throws MessagingException {
+        RenderedEmail email = emailTemplates.render(EmailTemplates.forEvent(event.eventType()),
+                new TaskEventValues(event, recipient.getUsername()));
+        return createMessage(recipient.getEmail(), email);
+    }
+
+    // render stage for a digest: one message listing every update of the window, oldest first
+    public MimeMessage createDigestNotification(User recipient, List<TaskEvent> events) throws MessagingException {
+        RenderedEmail email = emailTemplates.render(EmailTemplates.DIGEST,
+                new DigestValues(events, recipient.getUsername()));
+        return createMessage(recipient.getEmail(), email);
+    }
+
+    // send stage: the batch goes out over one pooled SMTP connection, returns the failure per message (null when sent)
+    public List<MailException> sendAll(List<MimeMessage> messages) throws InterruptedException {
+        List<MailException> failures = transportPool.sendAll(messages);
+
+        int sent = (int) failures.stream().filter(Objects::isNull).count();
+        log.info("Sent {} of {} email(s)", sent, messages.size());
+        return failures;
+    }
+
+    private MimeMessage createMessage(String to, RenderedEmail email) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+
+        helper.setFrom(sender);
+        helper.setTo(to);
+        helper.setSubject(email.subject());
+        helper.setText(email.html(), true);
+
+        return mimeMessage;
     }
 }
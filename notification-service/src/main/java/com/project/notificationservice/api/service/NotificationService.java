@@ -9,6 +9,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import task.kafka.TaskEvent;
 
+import java.util.List;
+
 @Slf4j
 @RequiredArgsConstructor
 @Service
@@ -23,4 +25,10 @@ public class NotificationService {
         log.info("Notification was saved: id={}", savedLog.getId());
     }
 
+    public void saveNotifications(List<TaskEvent> events) {
+        List<NotificationLog> savedLogs = notificationRepository.saveAll(events.stream().map(mapper::eventToEntity).toList());
+
+        log.info("{} notifications were saved", savedLogs.size());
+    }
+
 }
@@ -0,0 +1,256 @@
+package com.project.notificationservice.api.service.digest;
+
+import com.project.notificationservice.api.mongodb.DigestEntry;
+import com.project.notificationservice.api.mongodb.PendingNotification;
+import com.project.notificationservice.api.repository.DigestEntryRepository;
+import com.project.notificationservice.api.repository.PendingNotificationRepository;
+import com.project.notificationservice.api.service.pipeline.NotificationPipeline;
+import com.project.notificationservice.utils.NotificationMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import task.kafka.TaskEvent;
+import task.model.Priority;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/*
+        NOTIFICATION DIGESTS
+    with notification.digest.enabled only HIGH priority events are sent one by one. The others are stored
+    in digest_entry and held in memory in buckets of notification.digest.window (aligned to the epoch, by
+    arrival time), one list per assignee. Once a window has closed every assignee in it gets one digest:
+    it is stored as a pending notification, its entries are removed and it goes through the pipeline like
+    any other notification. The digest id is made of the assignee, the window and the ids of all its entries,
+    so flushing the same entries again after a crash does not send a second digest.
+    Every entry is owned by the instance that holds it and leased for notification.digest.lease, the owner
+    renews the lease with every flush. Entries whose lease ran out (a crash, a restart) are claimed by the next
+    flush of any instance, so no two running instances hold the same entry
+ */
+@Slf4j
+@Component
+public class NotificationDigests implements SmartLifecycle {
+
+    private final DigestEntryRepository digestRepository;
+    private final PendingNotificationRepository pendingRepository;
+    private final NotificationPipeline notificationPipeline;
+    private final NotificationMapper mapper;
+    private final boolean enabled;
+    private final long windowMillis;
+    private final Duration lease;
+    private final String owner = UUID.randomUUID().toString();
+
+    // window start (epoch millis) -> assignee -> entries in arrival order, guarded by this
+    private final NavigableMap<Long, Map<Long, List<DigestEntry>>> buckets = new TreeMap<>();
+    private int held;
+
+    private final Counter immediateCounter;
+    private final Counter flushedCounter;
+    private final Counter claimedCounter;
+    private final DistributionSummary eventsPerDigest;
+
+    private volatile boolean running;
+
+    public NotificationDigests(DigestEntryRepository digestRepository,
+                               PendingNotificationRepository pendingRepository,
+                               NotificationPipeline notificationPipeline,
+                               NotificationMapper mapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${notification.digest.enabled:false}") boolean enabled,
+                               @Value("${notification.digest.window:10m}") Duration window,
+                               @Value("${notification.digest.lease:2m}") Duration lease,
+                               @Value("${notification.digest.flush-interval:10s}") Duration flushInterval) {
+        if (window.toMillis() < 1) {
+            throw new IllegalArgumentException("notification.digest.window must be positive");
+        }
+        if (lease.compareTo(flushInterval) <= 0) {
+            throw new IllegalArgumentException("notification.digest.lease must be longer than the flush interval");
+        }
+
+        this.digestRepository = digestRepository;
+        this.pendingRepository = pendingRepository;
+        this.notificationPipeline = notificationPipeline;
+        this.mapper = mapper;
+        this.enabled = enabled;
+        this.windowMillis = window.toMillis();
+        this.lease = lease;
+
+        this.immediateCounter = meterRegistry.counter("notification.digest.immediate");
+        this.flushedCounter = meterRegistry.counter("notification.digest.flushed");
+        this.claimedCounter = meterRegistry.counter("notification.digest.claimed");
+        this.eventsPerDigest = DistributionSummary.builder("notification.digest.events")
+                .description("events summed up in one digest")
+                .register(meterRegistry);
+        Gauge.builder("notification.digest.held", this, NotificationDigests::heldCount)
+                .description("events waiting for their window to close")
+                .register(meterRegistry);
+    }
+
+    // consume stage: stores and holds back the events that go into a digest, returns the ones to send right away
+    public List<TaskEvent> holdBack(List<TaskEvent> events) {
+        if (!enabled) {
+            return events;
+        }
+
+        Instant now = Instant.now();
+        Instant windowStart = windowStart(now);
+        List<TaskEvent> immediate = new ArrayList<>();
+        List<DigestEntry> entries = new ArrayList<>();
+        for (TaskEvent event : events) {
+            if (event.newTaskPriority() == Priority.HIGH) {
+                immediate.add(event);
+            } else {
+                entries.add(mapper.eventToDigestEntry(event, windowStart, owner, now.plus(lease)));
+            }
+        }
+        immediateCounter.increment(immediate.size());
+
+        // a redelivered event that is already held back is not added twice
+        List<DigestEntry> stored = digestRepository.insertNew(entries);
+        synchronized (this) {
+            stored.forEach(this::hold);
+        }
+        return immediate;
+    }
+
+    @Scheduled(fixedDelayString = "${notification.digest.flush-interval:10s}")
+    public void flush() {
+        if (!enabled || !running) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        digestRepository.renewLeases(owner, now.plus(lease));
+        claimExpired(now);
+
+        NavigableMap<Long, Map<Long, List<DigestEntry>>> due = takeDue(now);
+        if (due.isEmpty()) {
+            return;
+        }
+
+        List<PendingNotification> digests;
+        try {
+            digests = store(due);
+        } catch (RuntimeException e) {
+            // the entries are still in digest_entry, they go back into memory for the next flush
+            restore(due);
+            log.error("Failed to flush {} digest window(s), retrying with the next flush", due.size(), e);
+            return;
+        }
+
+        // from here on the digests are pending notifications, what is not submitted comes back with the redrive
+        try {
+            for (PendingNotification digest : digests) {
+                notificationPipeline.submit(digest);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<PendingNotification> store(NavigableMap<Long, Map<Long, List<DigestEntry>>> due) {
+        Instant now = Instant.now();
+        Instant leasedUntil = notificationPipeline.leaseUntil(now);
+
+        List<PendingNotification> digests = new ArrayList<>();
+        List<String> entryIds = new ArrayList<>();
+        due.forEach((windowStart, recipients) -> recipients.forEach((recipientId, entries) -> {
+            digests.add(mapper.digestToPending(recipientId, Instant.ofEpochMilli(windowStart), entries, now, leasedUntil));
+            entries.forEach(entry -> entryIds.add(entry.getId()));
+        }));
+
+        /*
+            every digest is stored once this returns: inserted now, or skipped because the id is taken. The id is
+            derived from the full entry set, so a taken id means a digest with exactly these entries was stored by
+            an earlier flush that did not get to delete them. Either way its entries are in a stored digest
+         */
+        List<PendingNotification> stored = pendingRepository.insertNew(digests);
+        digestRepository.deleteAllById(entryIds);
+
+        flushedCounter.increment(stored.size());
+        stored.forEach(digest -> eventsPerDigest.record(digest.getDigest().size()));
+        log.info("Flushed {} digest(s) with {} event(s)", stored.size(), entryIds.size());
+        return stored;
+    }
+
+    // entries of instances that stopped renewing, held here until their window is flushed
+    private void claimExpired(Instant now) {
+        int claimed = 0;
+        Optional<DigestEntry> entry;
+        while ((entry = digestRepository.claimExpired(owner, now, now.plus(lease))).isPresent()) {
+            synchronized (this) {
+                hold(entry.get());
+            }
+            claimed++;
+        }
+
+        if (claimed > 0) {
+            claimedCounter.increment(claimed);
+            log.info("Claimed {} held event(s) of stopped instances", claimed);
+        }
+    }
+
+    private synchronized NavigableMap<Long, Map<Long, List<DigestEntry>>> takeDue(Instant now) {
+        NavigableMap<Long, Map<Long, List<DigestEntry>>> due = new TreeMap<>();
+        while (!buckets.isEmpty() && buckets.firstKey() + windowMillis <= now.toEpochMilli()) {
+            Map.Entry<Long, Map<Long, List<DigestEntry>>> bucket = buckets.pollFirstEntry();
+            due.put(bucket.getKey(), bucket.getValue());
+            bucket.getValue().values().forEach(entries -> held -= entries.size());
+        }
+        return due;
+    }
+
+    private synchronized void restore(NavigableMap<Long, Map<Long, List<DigestEntry>>> due) {
+        due.values().forEach(recipients -> recipients.values().forEach(entries -> entries.forEach(this::hold)));
+    }
+
+    // caller holds the lock
+    private void hold(DigestEntry entry) {
+        buckets.computeIfAbsent(entry.getWindowStart().toEpochMilli(), windowStart -> new LinkedHashMap<>())
+                .computeIfAbsent(entry.getRecipientId(), recipientId -> new ArrayList<>())
+                .add(entry);
+        held++;
+    }
+
+    private synchronized int heldCount() {
+        return held;
+    }
+
+    private Instant windowStart(Instant now) {
+        long millis = now.toEpochMilli();
+        return Instant.ofEpochMilli(millis - Math.floorMod(millis, windowMillis));
+    }
+
+    @Override
+    public void start() {
+        // entries of the previous run of this instance are claimed once their lease has run out
+        if (enabled) {
+            claimExpired(Instant.now());
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,35 @@
+package com.project.notificationservice.api.service.pipeline;
+
+import com.project.notificationservice.api.mongodb.PendingNotification;
+import jakarta.mail.internet.MimeMessage;
+import task.kafka.TaskEvent;
+import user.model.User;
+
+// one notification on its way through the stages, each stage fills in its part
+record NotificationJob(PendingNotification pending, User recipient, MimeMessage message, long acceptedNanos) {
+
+    static NotificationJob accepted(PendingNotification pending) {
+        return new NotificationJob(pending, null, null, System.nanoTime());
+    }
+
+    TaskEvent event() {
+        return pending.getEvent();
+    }
+
+    boolean isDigest() {
+        return pending.getDigest() != null;
+    }
+
+    // entries stored before recipient_id existed only carry the event
+    Long recipientId() {
+        return pending.getRecipientId() != null ? pending.getRecipientId() : pending.getEvent().assignedUserId();
+    }
+
+    NotificationJob withRecipient(User recipient) {
+        return new NotificationJob(pending, recipient, null, acceptedNanos);
+    }
+
+    NotificationJob withMessage(MimeMessage message) {
+        return new NotificationJob(pending, recipient, message, acceptedNanos);
+    }
+}
@@ -0,0 +1,314 @@
+package com.project.notificationservice.api.service.pipeline;
+
+import com.project.notificationservice.api.UserClient;
+import com.project.notificationservice.api.mongodb.PendingNotification;
+import com.project.notificationservice.api.repository.PendingNotificationRepository;
+import com.project.notificationservice.api.service.EmailSenderService;
+import com.project.notificationservice.api.service.NotificationService;
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import user.model.User;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+        NOTIFICATION PIPELINE
+    consume -> enrich -> render -> send -> log, every stage behind its own bounded queue with its own workers.
+    The Kafka listener is the consume stage: it stores the poll as pending_notification documents and only
+    then submits them, so the container commits offsets after a durable hand-off and a slow SMTP server no
+    longer holds up the consumer. Once the queues hold pause-at notifications the listener container is
+    paused until they drain to resume-at. Digests flushed by NotificationDigests enter at enrich the same way.
+    A pending entry is leased for notification.pipeline.lease from the moment it is stored. It is deleted
+    once the email went out, failed attempts are retried with backoff, and entries whose lease ran out
+    (a crash, a shutdown with full queues) are picked up again by the redrive. Delivery is at-least-once
+ */
+@Slf4j
+@Component
+public class NotificationPipeline implements SmartLifecycle {
+
+    // below the listener containers: workers run before the first poll and until the last submit has returned
+    public static final int PHASE = AbstractMessageListenerContainer.DEFAULT_PHASE - 100;
+
+    private static final String ENRICH = "enrich";
+    private static final String RENDER = "render";
+    private static final String SEND = "send";
+    private static final String LOG = "log";
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    private final UserClient userClient;
+    private final EmailSenderService emailSenderService;
+    private final NotificationService notificationService;
+    private final PendingNotificationRepository pendingRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final PipelineStage<NotificationJob> enrich;
+    private final PipelineStage<NotificationJob> render;
+    private final PipelineStage<NotificationJob> send;
+    private final PipelineStage<NotificationJob> logStage;
+    private final boolean virtualThreads;
+    private final int pauseAt;
+    private final int resumeAt;
+    private final Duration lease;
+    private final Duration retryBackoff;
+    private final int maxAttempts;
+    private final Duration shutdownTimeout;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Timer latencyTimer;
+    private final Counter redrivenCounter;
+
+    private volatile boolean running;
+
+    public NotificationPipeline(UserClient userClient,
+                                EmailSenderService emailSenderService,
+                                NotificationService notificationService,
+                                PendingNotificationRepository pendingRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${notification.pipeline.queue-capacity:256}") int queueCapacity,
+                                @Value("${notification.pipeline.workers.enrich:8}") int enrichWorkers,
+                                @Value("${notification.pipeline.workers.render:2}") int renderWorkers,
+                                @Value("${notification.pipeline.workers.send:4}") int sendWorkers,
+                                @Value("${notification.pipeline.send-batch:20}") int sendBatch,
+                                @Value("${notification.pipeline.workers.log:2}") int logWorkers,
+                                @Value("${notification.pipeline.pause-at:512}") int pauseAt,
+                                @Value("${notification.pipeline.resume-at:128}") int resumeAt,
+                                @Value("${notification.pipeline.lease:10m}") Duration lease,
+                                @Value("${notification.pipeline.retry-backoff:30s}") Duration retryBackoff,
+                                @Value("${notification.pipeline.max-attempts:5}") int maxAttempts,
+                                @Value("${notification.pipeline.shutdown-timeout:10s}") Duration shutdownTimeout,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (resumeAt < 0 || resumeAt >= pauseAt) {
+            throw new IllegalArgumentException("notification.pipeline.resume-at must be below pause-at");
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("notification.pipeline.max-attempts must be positive");
+        }
+
+        this.userClient = userClient;
+        this.emailSenderService = emailSenderService;
+        this.notificationService = notificationService;
+        this.pendingRepository = pendingRepository;
+        this.meterRegistry = meterRegistry;
+        this.virtualThreads = virtualThreads;
+        this.pauseAt = pauseAt;
+        this.resumeAt = resumeAt;
+        this.lease = lease;
+        this.retryBackoff = retryBackoff;
+        this.maxAttempts = maxAttempts;
+        this.shutdownTimeout = shutdownTimeout;
+
+        this.enrich = new PipelineStage<>(ENRICH, queueCapacity, enrichWorkers, this::enrich, this::failed, meterRegistry);
+        this.render = new PipelineStage<>(RENDER, queueCapacity, renderWorkers, this::render, this::failed, meterRegistry);
+        this.send = new PipelineStage<>(SEND, queueCapacity, sendWorkers, sendBatch, this::send, this::failed, meterRegistry);
+        this.logStage = new PipelineStage<>(LOG, queueCapacity, logWorkers, this::log, this::failed, meterRegistry);
+
+        Gauge.builder("notification.pipeline.in.flight", inFlight, AtomicInteger::get)
+                .description("notifications handed over and not finished yet")
+                .register(meterRegistry);
+        this.latencyTimer = Timer.builder("notification.pipeline.latency")
+                .description("from the hand-off by the listener (or the redrive) until the notification was logged")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.redrivenCounter = meterRegistry.counter("notification.pipeline.redriven");
+    }
+
+    // consume stage, called by the listener once the notifications are stored. Blocks while the first queue is full
+    public void submit(PendingNotification pending) throws InterruptedException {
+        inFlight.incrementAndGet();
+        try {
+            enrich.put(NotificationJob.accepted(pending));
+        } catch (InterruptedException e) {
+            inFlight.decrementAndGet();
+            throw e;
+        }
+    }
+
+    public Instant leaseUntil(Instant now) {
+        return now.plus(lease);
+    }
+
+    public boolean isSaturated() {
+        return inFlight.get() >= pauseAt;
+    }
+
+    public boolean hasDrained() {
+        return inFlight.get() <= resumeAt;
+    }
+
+    /*
+        picks up entries whose lease ran out or whose retry is due, only while the pipeline has room,
+        so the redrive never causes the listener to pause
+     */
+    @Scheduled(fixedDelayString = "${notification.pipeline.redrive-interval:30s}")
+    public void redrive() {
+        while (running && inFlight.get() < resumeAt) {
+            Instant now = Instant.now();
+            Optional<PendingNotification> due = pendingRepository.claimDue(now, leaseUntil(now));
+            if (due.isEmpty()) {
+                return;
+            }
+
+            inFlight.incrementAndGet();
+            if (!enrich.offer(NotificationJob.accepted(due.get()))) {
+                // keeps its lease and comes back with a later run
+                inFlight.decrementAndGet();
+                return;
+            }
+            redrivenCounter.increment();
+        }
+    }
+
+    private void enrich(NotificationJob job) throws InterruptedException {
+        User recipient = userClient.getUserById(job.recipientId());
+        render.put(job.withRecipient(recipient));
+    }
+
+    private void render(NotificationJob job) throws Exception {
+        MimeMessage message = job.isDigest()
+                ? emailSenderService.createDigestNotification(job.recipient(), job.pending().getDigest())
+                : emailSenderService.createTaskNotification(job.recipient(), job.event());
+        send.put(job.withMessage(message));
+    }
+
+    // whatever is queued for sending, up to send-batch, goes out over one SMTP connection
+    private void send(List<NotificationJob> jobs) throws InterruptedException {
+        List<MailException> failures = emailSenderService.sendAll(jobs.stream().map(NotificationJob::message).toList());
+
+        for (int i = 0; i < jobs.size(); i++) {
+            if (failures.get(i) != null) {
+                failed(SEND, jobs.get(i), failures.get(i));
+                continue;
+            }
+
+            try {
+                logStage.put(jobs.get(i));
+            } catch (InterruptedException e) {
+                // stopping: the jobs handed over so far are not failed again, the worker exits on the interrupt flag
+                for (int rest = i; rest < jobs.size(); rest++) {
+                    failed(SEND, jobs.get(rest), e);
+                }
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // the pending entry goes first: once the email is out a failed log write must not cause a second email
+    private void log(NotificationJob job) {
+        pendingRepository.deleteById(job.pending().getId());
+        if (job.isDigest()) {
+            notificationService.saveNotifications(job.pending().getDigest());
+        } else {
+            notificationService.saveNotification(job.event());
+        }
+
+        inFlight.decrementAndGet();
+        latencyTimer.record(System.nanoTime() - job.acceptedNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void failed(String stage, NotificationJob job, Exception e) {
+        inFlight.decrementAndGet();
+        if (e instanceof InterruptedException) {
+            return;
+        }
+
+        PendingNotification pending = job.pending();
+        if (LOG.equals(stage)) {
+            meterRegistry.counter("notification.pipeline.failures", "stage", stage, "result", "lost").increment();
+            log.error("Email for event {} was sent but could not be logged", pending.getId(), e);
+            return;
+        }
+
+        int attempts = pending.getAttempts() + 1;
+        try {
+            if (retryable(e) && attempts < maxAttempts) {
+                pendingRepository.retryAt(pending.getId(), attempts, Instant.now().plus(backoff(attempts)));
+                meterRegistry.counter("notification.pipeline.failures", "stage", stage, "result", "retry").increment();
+                log.warn("Notification {} failed in {} (attempt {}), retrying later: {}",
+                        pending.getId(), stage, attempts, e.getMessage());
+            } else {
+                pendingRepository.deleteById(pending.getId());
+                meterRegistry.counter("notification.pipeline.failures", "stage", stage, "result", "dropped").increment();
+                log.error("Notification {} for user {} dropped in {} after {} attempt(s)",
+                        pending.getId(), job.recipientId(), stage, attempts, e);
+            }
+        } catch (RuntimeException storeFailure) {
+            // the lease still runs out, so the redrive retries it anyway
+            log.error("Failed to record the failure of notification {}", pending.getId(), storeFailure);
+        }
+    }
+
+    // SMTP errors and unreachable or failing user-api are transient, a missing user or a bad event is not
+    private static boolean retryable(Exception e) {
+        if (e instanceof MailException) {
+            return !(e instanceof MailPreparationException);
+        }
+        return e instanceof FeignException feign && (feign.status() < 0 || feign.status() == 429 || feign.status() >= 500);
+    }
+
+    private Duration backoff(int attempts) {
+        long millis = retryBackoff.toMillis() << Math.min(attempts - 1, 20);
+        return millis > MAX_BACKOFF.toMillis() ? MAX_BACKOFF : Duration.ofMillis(millis);
+    }
+
+    @Override
+    public synchronized void start() {
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().factory()
+                : Thread.ofPlatform().daemon().factory();
+        for (PipelineStage<NotificationJob> stage : List.of(logStage, send, render, enrich)) {
+            stage.start(threadFactory);
+        }
+        running = true;
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (inFlight.get() > 0) {
+            log.warn("Stopping with {} notification(s) in flight, they stay pending", inFlight.get());
+        }
+
+        for (PipelineStage<NotificationJob> stage : List.of(enrich, render, send, logStage)) {
+            stage.stop();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
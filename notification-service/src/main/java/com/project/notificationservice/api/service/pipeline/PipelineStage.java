@@ -0,0 +1,134 @@
+package com.project.notificationservice.api.service.pipeline;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/*
+    a bounded queue drained by a fixed number of workers. A handler forwards its result with put()
+    on the next stage, so a full downstream queue blocks the workers here and this queue fills up in turn.
+    A batched stage hands its workers whatever is queued, up to maxBatch items at once
+ */
+final class PipelineStage<T> {
+
+    @FunctionalInterface
+    interface Handler<T> {
+        void handle(T item) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface BatchHandler<T> {
+        void handle(List<T> items) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface FailureHandler<T> {
+        void failed(String stage, T item, Exception e);
+    }
+
+    private final String name;
+    private final BlockingQueue<T> queue;
+    private final int workerCount;
+    private final int maxBatch;
+    private final BatchHandler<T> handler;
+    private final FailureHandler<T> failureHandler;
+    private final Timer timer;
+    private final List<Thread> workers = new ArrayList<>();
+
+    PipelineStage(String name, int capacity, int workerCount, Handler<T> handler, FailureHandler<T> failureHandler,
+                  MeterRegistry meterRegistry) {
+        this(name, capacity, workerCount, 1, items -> handler.handle(items.getFirst()), failureHandler, meterRegistry);
+    }
+
+    PipelineStage(String name, int capacity, int workerCount, int maxBatch, BatchHandler<T> handler,
+                  FailureHandler<T> failureHandler, MeterRegistry meterRegistry) {
+        if (capacity < 1 || workerCount < 1 || maxBatch < 1) {
+            throw new IllegalArgumentException("Stage " + name + " needs a positive queue capacity, worker count and batch size");
+        }
+
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.workerCount = workerCount;
+        this.maxBatch = maxBatch;
+        this.handler = handler;
+        this.failureHandler = failureHandler;
+
+        Gauge.builder("notification.pipeline.queue", queue, BlockingQueue::size)
+                .description("items waiting for the stage")
+                .tag("stage", name)
+                .register(meterRegistry);
+        this.timer = Timer.builder("notification.pipeline.stage")
+                .description("time a stage spends on one item (a batch divided over its items), hand-off to the next stage included")
+                .tag("stage", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    void put(T item) throws InterruptedException {
+        queue.put(item);
+    }
+
+    boolean offer(T item) {
+        return queue.offer(item);
+    }
+
+    synchronized void start(ThreadFactory threadFactory) {
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = threadFactory.newThread(this::work);
+            worker.setName("notification-" + name + "-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    synchronized void stop() {
+        workers.forEach(Thread::interrupt);
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+    }
+
+    private void work() {
+        List<T> batch = new ArrayList<>(maxBatch);
+        while (!Thread.currentThread().isInterrupted()) {
+            batch.clear();
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (maxBatch > 1) {
+                queue.drainTo(batch, maxBatch - 1);
+            }
+
+            long start = System.nanoTime();
+            try {
+                handler.handle(batch);
+            } catch (InterruptedException e) {
+                // stopping while handing over, the items are still pending in Mongo and come back with the redrive
+                batch.forEach(item -> failureHandler.failed(name, item, e));
+                return;
+            } catch (Exception e) {
+                batch.forEach(item -> failureHandler.failed(name, item, e));
+            } finally {
+                long perItem = (System.nanoTime() - start) / batch.size();
+                for (int i = 0; i < batch.size(); i++) {
+                    timer.record(perItem, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+    }
+}
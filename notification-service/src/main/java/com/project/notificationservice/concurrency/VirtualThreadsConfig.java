@@ -0,0 +1,18 @@
+package com.project.notificationservice.concurrency;
+
+import concurrency.VirtualThreadSafeguards;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/*
+    spring.threads.virtual.enabled=true already moves the @KafkaListener containers onto virtual threads,
+    so SMTP and Feign calls made by the listener block a virtual thread instead of a platform one.
+    There is no JDBC pool here, only the pinning monitor of the shared safeguards applies
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Import(VirtualThreadSafeguards.class)
+public class VirtualThreadsConfig {
+}
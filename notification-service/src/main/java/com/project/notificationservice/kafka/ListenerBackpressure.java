@@ -0,0 +1,58 @@
+package com.project.notificationservice.kafka;
+
+import com.project.notificationservice.api.service.pipeline.NotificationPipeline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+    pauses the listener container while the pipeline is saturated. A paused container keeps polling
+    (so the group does not rebalance) but gets no records until it is resumed
+ */
+@Slf4j
+@Component
+public class ListenerBackpressure {
+
+    private final KafkaListenerEndpointRegistry registry;
+    private final NotificationPipeline notificationPipeline;
+    private final AtomicBoolean paused = new AtomicBoolean();
+    private final Counter pausesCounter;
+
+    public ListenerBackpressure(KafkaListenerEndpointRegistry registry,
+                                NotificationPipeline notificationPipeline,
+                                MeterRegistry meterRegistry) {
+        this.registry = registry;
+        this.notificationPipeline = notificationPipeline;
+        this.pausesCounter = meterRegistry.counter("notification.consumer.pauses");
+        Gauge.builder("notification.consumer.paused", paused, value -> value.get() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    // consumer thread, after a poll has been handed over
+    public void afterPoll() {
+        if (notificationPipeline.isSaturated() && paused.compareAndSet(false, true)) {
+            container().pause();
+            pausesCounter.increment();
+            log.warn("Notification pipeline is full, pausing the consumer");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.pipeline.backpressure-check-interval:200ms}")
+    public void resumeWhenDrained() {
+        if (paused.get() && notificationPipeline.hasDrained() && paused.compareAndSet(true, false)) {
+            container().resume();
+            log.info("Notification pipeline drained, resuming the consumer");
+        }
+    }
+
+    private MessageListenerContainer container() {
+        return registry.getListenerContainer(NotificationKafkaListener.LISTENER_ID);
+    }
+}
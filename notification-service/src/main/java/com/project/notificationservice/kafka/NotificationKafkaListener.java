@@ -1,47 +1,66 @@
 package com.project.notificationservice.kafka;
 
-import com.project.notificationservice.api.UserClient;
-import com.project.notificationservice.api.service.EmailSenderService;
-import com.project.notificationservice.api.service.NotificationService;
+import com.project.notificationservice.api.mongodb.PendingNotification;
+import com.project.notificationservice.api.repository.PendingNotificationRepository;
+import com.project.notificationservice.api.service.digest.NotificationDigests;
+import com.project.notificationservice.api.service.pipeline.NotificationPipeline;
+import com.project.notificationservice.utils.NotificationMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 import task.kafka.TaskEvent;
-import user.model.User;
+
+import java.time.Instant;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationKafkaListener {
 
-    private final UserClient userClient;
-    private final EmailSenderService emailSenderService;
-    private final NotificationService notificationService;
+    public static final String LISTENER_ID = "notification-listener";
 
-    @KafkaListener(topics = "task-events", groupId = "notification-group")
-    public void handleStatusChange(TaskEvent event) {
-        log.info("Received event: {}", event);
+    private final PendingNotificationRepository pendingRepository;
+    private final NotificationPipeline notificationPipeline;
+    private final NotificationDigests notificationDigests;
+    private final NotificationMapper mapper;
+    private final ListenerBackpressure backpressure;
 
-        if (event.assignedUserId() == null) {
-            return;
-        }
+    /*
+        consume stage: events held back for a digest are stored in digest_entry, the rest of the poll is stored
+        as pending notifications in one bulk insert and handed to the pipeline.
+        The container commits the offsets when this returns, the Feign call, SMTP and the log write all happen
+        later on the pipeline workers
+     */
+    @KafkaListener(id = LISTENER_ID, topics = "task-events", groupId = "notification-group", batch = "true")
+    public void handleStatusChanges(List<TaskEvent> events) {
+        log.info("Received {} events", events.size());
 
-        try {
-            User assignedUser = userClient.getUserById(event.assignedUserId());
+        List<TaskEvent> assigned = events.stream()
+                .filter(event -> event != null && event.assignedUserId() != null)
+                .toList();
+        List<TaskEvent> immediate = notificationDigests.holdBack(assigned);
 
-            log.info("Preparing email for: {} ({})", assignedUser.getUsername(), assignedUser.getEmail());
-            log.info("Task {} changed status to {}", event.taskId(), event.newStatus());
+        Instant now = Instant.now();
+        Instant leasedUntil = notificationPipeline.leaseUntil(now);
+        List<PendingNotification> pending = immediate.stream()
+                .map(event -> mapper.eventToPending(event, now, leasedUntil))
+                .toList();
 
-            emailSenderService.sendTaskNotification(
-                    assignedUser.getEmail(),
-                    event.taskId(),
-                    event.newStatus().name()
-            );
+        // a redelivered event that is still pending is not submitted twice
+        List<PendingNotification> stored = pendingRepository.insertNew(pending);
 
-            notificationService.saveNotification(event);
-        } catch (Exception e) {
-            log.error("Failed to send notification for user {}", event.assignedUserId(), e);
+        try {
+            for (PendingNotification notification : stored) {
+                notificationPipeline.submit(notification);
+            }
+        } catch (InterruptedException e) {
+            // the rest is stored already and comes back with the redrive once its lease runs out
+            Thread.currentThread().interrupt();
+            return;
         }
+
+        backpressure.afterPoll();
     }
 }
@@ -0,0 +1,304 @@
+package com.project.notificationservice.mail;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+        SMTP TRANSPORT POOL
+    JavaMailSender.send opens a connection, runs STARTTLS and AUTH, sends and disconnects on every call.
+    Here up to pool-size authenticated connections stay open and every borrow sends a whole batch over one.
+    Idle connections are handed out most recently used first, so the surplus ages out and is closed after
+    max-idle. A connection idle for longer than validate-after is checked with a NOOP before it is used,
+    and after max-messages-per-connection it is closed, since providers cap messages per session.
+    The session, host and credentials are the ones Spring Boot configured from spring.mail.*
+ */
+@Slf4j
+@Component
+public class SmtpTransportPool implements DisposableBean {
+
+    private final JavaMailSenderImpl mailSender;
+    private final Semaphore permits;
+    private final BlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private final int maxMessagesPerConnection;
+    private final long validateAfterNanos;
+    private final long maxIdleNanos;
+    private final Duration borrowTimeout;
+
+    private final Timer handshakeTimer;
+    private final Timer sendTimer;
+    private final Counter sentOnNewCounter;
+    private final Counter sentOnReusedCounter;
+    private final Counter failedCounter;
+    private final Counter healthCheckFailures;
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender,
+                             MeterRegistry meterRegistry,
+                             @Value("${notification.smtp.pool.size:4}") int poolSize,
+                             @Value("${notification.smtp.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+                             @Value("${notification.smtp.pool.validate-after:5s}") Duration validateAfter,
+                             @Value("${notification.smtp.pool.max-idle:60s}") Duration maxIdle,
+                             @Value("${notification.smtp.pool.borrow-timeout:30s}") Duration borrowTimeout) {
+        if (poolSize < 1 || maxMessagesPerConnection < 1) {
+            throw new IllegalArgumentException("notification.smtp.pool.size and max-messages-per-connection must be positive");
+        }
+
+        this.mailSender = mailSender;
+        this.permits = new Semaphore(poolSize, true);
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.validateAfterNanos = validateAfter.toNanos();
+        this.maxIdleNanos = maxIdle.toNanos();
+        this.borrowTimeout = borrowTimeout;
+
+        this.handshakeTimer = Timer.builder("notification.smtp.handshake")
+                .description("connect, STARTTLS and AUTH of a new SMTP connection")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.sendTimer = Timer.builder("notification.smtp.send")
+                .description("one message over an open connection")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.sentOnNewCounter = meterRegistry.counter("notification.smtp.messages", "connection", "new");
+        this.sentOnReusedCounter = meterRegistry.counter("notification.smtp.messages", "connection", "reused");
+        this.failedCounter = meterRegistry.counter("notification.smtp.failures");
+        this.healthCheckFailures = meterRegistry.counter("notification.smtp.health.failures");
+        Gauge.builder("notification.smtp.connections", open, AtomicInteger::get)
+                .tag("state", "open")
+                .register(meterRegistry);
+        Gauge.builder("notification.smtp.connections", idle, BlockingDeque::size)
+                .tag("state", "idle")
+                .register(meterRegistry);
+    }
+
+    /*
+        sends the messages in order over one pooled connection. Returns the failure of each message, null where
+        it was sent. A message that fails because the connection broke is tried once more on a new connection;
+        if that cannot be opened, it and the rest of the batch fail with that error
+     */
+    public List<MailException> sendAll(List<MimeMessage> messages) throws InterruptedException {
+        List<MailException> failures = new ArrayList<>(Collections.nCopies(messages.size(), null));
+        if (messages.isEmpty()) {
+            return failures;
+        }
+
+        PooledTransport connection;
+        try {
+            connection = borrow();
+        } catch (MessagingException e) {
+            MailException failure = translate(e);
+            failedCounter.increment(messages.size());
+            Collections.fill(failures, failure);
+            return failures;
+        }
+
+        try {
+            for (int i = 0; i < messages.size(); i++) {
+                MimeMessage message = messages.get(i);
+                try {
+                    prepare(message);
+                } catch (MessagingException e) {
+                    failedCounter.increment();
+                    failures.set(i, new MailPreparationException(e));
+                    continue;
+                }
+
+                try {
+                    if (connection.sent >= maxMessagesPerConnection) {
+                        reconnect(connection);
+                    }
+                    transmit(connection, message);
+                } catch (SendFailedException e) {
+                    // rejected recipients, the connection itself is fine
+                    failedCounter.increment();
+                    failures.set(i, new MailSendException("Message rejected by the SMTP server", e));
+                } catch (MessagingException e) {
+                    if (!retryOnNewConnection(connection, message, e)) {
+                        connection.broken = true;
+                        MailException failure = translate(e);
+                        for (int rest = i; rest < messages.size(); rest++) {
+                            failures.set(rest, failure);
+                        }
+                        failedCounter.increment(messages.size() - i);
+                        break;
+                    }
+                }
+            }
+        } finally {
+            release(connection);
+        }
+        return failures;
+    }
+
+    // closes connections that were idle for longer than max-idle
+    @Scheduled(fixedDelayString = "${notification.smtp.pool.evict-interval:30s}")
+    public void evictIdle() {
+        for (PooledTransport connection : idle) {
+            if (idleFor(connection) > maxIdleNanos && idle.removeFirstOccurrence(connection)) {
+                close(connection);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        PooledTransport connection;
+        while ((connection = idle.pollFirst()) != null) {
+            close(connection);
+        }
+    }
+
+    private PooledTransport borrow() throws MessagingException, InterruptedException {
+        if (!permits.tryAcquire(borrowTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            throw new MessagingException("No SMTP connection available within " + borrowTimeout);
+        }
+
+        try {
+            PooledTransport connection = idle.pollFirst();
+            if (connection == null) {
+                connection = new PooledTransport();
+                connect(connection);
+                return connection;
+            }
+
+            long idleFor = idleFor(connection);
+            if (idleFor > maxIdleNanos) {
+                reconnect(connection);
+            } else if (idleFor > validateAfterNanos && !connection.transport.isConnected()) {
+                // isConnected() sends a NOOP, the server closed the connection or it went stale
+                healthCheckFailures.increment();
+                reconnect(connection);
+            }
+            return connection;
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void release(PooledTransport connection) {
+        try {
+            if (connection.broken || connection.sent >= maxMessagesPerConnection) {
+                close(connection);
+            } else {
+                connection.lastUsedNanos = System.nanoTime();
+                idle.offerFirst(connection);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean retryOnNewConnection(PooledTransport connection, MimeMessage message, MessagingException cause) {
+        log.warn("SMTP connection failed after {} message(s), reconnecting: {}", connection.sent, cause.getMessage());
+        try {
+            reconnect(connection);
+            transmit(connection, message);
+            return true;
+        } catch (MessagingException retryFailure) {
+            cause.addSuppressed(retryFailure);
+            return false;
+        }
+    }
+
+    private void transmit(PooledTransport connection, MimeMessage message) throws MessagingException {
+        long start = System.nanoTime();
+        connection.transport.sendMessage(message, message.getAllRecipients());
+        sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        (connection.sent == 0 ? sentOnNewCounter : sentOnReusedCounter).increment();
+        connection.sent++;
+    }
+
+    private void reconnect(PooledTransport connection) throws MessagingException {
+        close(connection);
+        connect(connection);
+    }
+
+    private void connect(PooledTransport connection) throws MessagingException {
+        Session session = mailSender.getSession();
+        Transport transport = session.getTransport(mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp");
+
+        long start = System.nanoTime();
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        handshakeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        connection.transport = transport;
+        connection.sent = 0;
+        connection.broken = false;
+        open.incrementAndGet();
+    }
+
+    private void close(PooledTransport connection) {
+        if (connection.transport == null) {
+            return;
+        }
+
+        try {
+            connection.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Failed to close SMTP connection: {}", e.getMessage());
+        } finally {
+            connection.transport = null;
+            open.decrementAndGet();
+        }
+    }
+
+    // what JavaMailSenderImpl does before sending: keep a given Message-ID, fill in the sent date
+    private static void prepare(MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        String messageId = message.getMessageID();
+        message.saveChanges();
+        if (messageId != null) {
+            message.setHeader("Message-ID", messageId);
+        }
+    }
+
+    private static MailException translate(MessagingException e) {
+        if (e instanceof AuthenticationFailedException) {
+            return new MailAuthenticationException(e);
+        }
+        return new MailSendException("SMTP send failed: " + e.getMessage(), e);
+    }
+
+    private static long idleFor(PooledTransport connection) {
+        return System.nanoTime() - connection.lastUsedNanos;
+    }
+
+    private static final class PooledTransport {
+        private Transport transport;
+        private int sent;
+        private boolean broken;
+        private long lastUsedNanos = System.nanoTime();
+    }
+}
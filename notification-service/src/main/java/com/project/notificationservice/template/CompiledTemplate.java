@@ -0,0 +1,23 @@
+package com.project.notificationservice.template;
+
+import java.util.List;
+
+// the render plan of one template and locale: subject and body, each a list of segments
+public final class CompiledTemplate {
+
+    private final List<Segment> subject;
+    private final List<Segment> body;
+
+    CompiledTemplate(List<Segment> subject, List<Segment> body) {
+        this.subject = subject;
+        this.body = body;
+    }
+
+    void renderSubject(TemplateValues values, StringBuilder out) {
+        Segment.renderAll(subject, values, out, false);
+    }
+
+    void renderBody(TemplateValues values, StringBuilder out) {
+        Segment.renderAll(body, values, out, true);
+    }
+}
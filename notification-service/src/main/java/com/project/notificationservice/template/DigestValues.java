@@ -0,0 +1,25 @@
+package com.project.notificationservice.template;
+
+import task.kafka.TaskEvent;
+
+import java.util.List;
+
+public record DigestValues(List<TaskEvent> events, String username) implements TemplateValues {
+
+    @Override
+    public Object value(String name) {
+        return switch (name) {
+            case "username" -> username;
+            case "count" -> events.size();
+            default -> null;
+        };
+    }
+
+    @Override
+    public List<? extends TemplateValues> section(String name) {
+        if (!"events".equals(name)) {
+            return List.of();
+        }
+        return events.stream().map(event -> new TaskEventValues(event, username)).toList();
+    }
+}
@@ -0,0 +1,102 @@
+package com.project.notificationservice.template;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import task.kafka.TaskEventType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/*
+        EMAIL TEMPLATES
+    templates live in classpath:templates/email/<id>_<language>.html, <id>.html is the fallback for other
+    languages. The first line of a file is the subject, the rest is the HTML body.
+    Each template is parsed once into a render plan and cached by id and locale, rendering only walks the
+    plan and appends into a pooled buffer
+ */
+@Component
+public class EmailTemplates {
+
+    public static final String TASK_CREATED = "task-created";
+    public static final String TASK_UPDATED = "task-updated";
+    public static final String TASK_DELETED = "task-deleted";
+    public static final String DIGEST = "digest";
+
+    private static final String LOCATION = "templates/email/";
+
+    private final ConcurrentMap<TemplateKey, CompiledTemplate> cache = new ConcurrentHashMap<>();
+    private final StringBuilderPool buffers;
+    private final Locale defaultLocale;
+
+    public EmailTemplates(@Value("${notification.templates.default-locale:ru}") Locale defaultLocale,
+                          @Value("${notification.templates.buffer-pool-size:64}") int bufferPoolSize) {
+        this.defaultLocale = defaultLocale;
+        this.buffers = new StringBuilderPool(bufferPoolSize, 2048, 64 * 1024);
+    }
+
+    public static String forEvent(TaskEventType eventType) {
+        if (eventType == null) {
+            return TASK_UPDATED;
+        }
+        return switch (eventType) {
+            case CREATED -> TASK_CREATED;
+            case UPDATED -> TASK_UPDATED;
+            case DELETED -> TASK_DELETED;
+        };
+    }
+
+    public RenderedEmail render(String templateId, TemplateValues values) {
+        return render(templateId, defaultLocale, values);
+    }
+
+    public RenderedEmail render(String templateId, Locale locale, TemplateValues values) {
+        CompiledTemplate template = cache.computeIfAbsent(new TemplateKey(templateId, locale), this::load);
+
+        StringBuilder buffer = buffers.acquire();
+        try {
+            template.renderSubject(values, buffer);
+            String subject = buffer.toString();
+
+            buffer.setLength(0);
+            template.renderBody(values, buffer);
+            return new RenderedEmail(subject, buffer.toString());
+        } finally {
+            buffers.release(buffer);
+        }
+    }
+
+    private CompiledTemplate load(TemplateKey key) {
+        String source = read(LOCATION + key.id() + "_" + key.locale().getLanguage() + ".html");
+        if (source == null) {
+            source = read(LOCATION + key.id() + ".html");
+        }
+        if (source == null) {
+            throw new IllegalArgumentException("Unknown email template: " + key.id());
+        }
+
+        int lineEnd = source.indexOf('\n');
+        if (lineEnd < 0) {
+            throw new IllegalArgumentException("Template " + key.id() + " has no body");
+        }
+        List<Segment> subject = TemplateCompiler.compile(key.id(), source.substring(0, lineEnd).strip());
+        List<Segment> body = TemplateCompiler.compile(key.id(), source.substring(lineEnd + 1));
+        return new CompiledTemplate(subject, body);
+    }
+
+    private static String read(String path) {
+        try (InputStream in = EmailTemplates.class.getClassLoader().getResourceAsStream(path)) {
+            return in != null ? new String(in.readAllBytes(), StandardCharsets.UTF_8) : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read template " + path, e);
+        }
+    }
+
+    private record TemplateKey(String id, Locale locale) {
+    }
+}
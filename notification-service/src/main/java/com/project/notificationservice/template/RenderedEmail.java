@@ -0,0 +1,4 @@
+package com.project.notificationservice.template;
+
+public record RenderedEmail(String subject, String html) {
+}
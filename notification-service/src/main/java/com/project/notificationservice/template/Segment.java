@@ -0,0 +1,94 @@
+package com.project.notificationservice.template;
+
+import java.util.List;
+
+/*
+    one step of a render plan. Each segment renders itself (a virtual call), a pattern switch over the
+    segment types costs a type-switch bootstrap lookup per segment on JDK 21
+ */
+sealed interface Segment {
+
+    // html = false for the subject, which is a header and not HTML, so its values are not escaped
+    void render(TemplateValues values, StringBuilder out, boolean html);
+
+    static void renderAll(List<Segment> segments, TemplateValues values, StringBuilder out, boolean html) {
+        for (int i = 0; i < segments.size(); i++) {
+            segments.get(i).render(values, out, html);
+        }
+    }
+
+    record Literal(String text) implements Segment {
+
+        @Override
+        public void render(TemplateValues values, StringBuilder out, boolean html) {
+            out.append(text);
+        }
+    }
+
+    // {{name}} is HTML-escaped, {{{name}}} is written as is
+    record Variable(String name, boolean escape) implements Segment {
+
+        @Override
+        public void render(TemplateValues values, StringBuilder out, boolean html) {
+            Object value = values.value(name);
+            if (value == null) {
+                return;
+            }
+
+            // numbers and enum names are appended without an intermediate String and never need escaping
+            if (value instanceof Long number) {
+                out.append(number.longValue());
+            } else if (value instanceof Integer number) {
+                out.append(number.intValue());
+            } else if (value instanceof Enum<?> constant) {
+                out.append(constant.name());
+            } else if (html && escape) {
+                escapeHtml(value.toString(), out);
+            } else {
+                out.append(value);
+            }
+        }
+
+        // most values need no escaping and are appended in one copy
+        private static void escapeHtml(String value, StringBuilder out) {
+            int first = firstToEscape(value);
+            if (first < 0) {
+                out.append(value);
+                return;
+            }
+
+            out.append(value, 0, first);
+            for (int i = first; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '<' -> out.append("&lt;");
+                    case '>' -> out.append("&gt;");
+                    case '&' -> out.append("&amp;");
+                    case '"' -> out.append("&quot;");
+                    case '\'' -> out.append("&#39;");
+                    default -> out.append(c);
+                }
+            }
+        }
+
+        private static int firstToEscape(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '<' || c == '>' || c == '&' || c == '"' || c == '\'') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    record Section(String name, List<Segment> body) implements Segment {
+
+        @Override
+        public void render(TemplateValues values, StringBuilder out, boolean html) {
+            for (TemplateValues item : values.section(name)) {
+                renderAll(body, item, out, html);
+            }
+        }
+    }
+}
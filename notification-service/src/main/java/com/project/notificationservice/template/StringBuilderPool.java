@@ -0,0 +1,52 @@
+package com.project.notificationservice.template;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+    render buffers are reused instead of growing a new StringBuilder per message. A plain pool rather than
+    a ThreadLocal: the render workers are virtual threads, which are not reused, so a ThreadLocal buffer
+    would be allocated per message anyway. Slots are scanned from the first one and taken or filled with an
+    atomic swap, so neither side takes a lock or allocates, and with few renders in flight the first slots
+    are hit right away. Buffers that grew past maxRetainedCapacity are dropped
+ */
+final class StringBuilderPool {
+
+    private final AtomicReferenceArray<StringBuilder> slots;
+    private final int initialCapacity;
+    private final int maxRetainedCapacity;
+
+    StringBuilderPool(int size, int initialCapacity, int maxRetainedCapacity) {
+        if (size < 1) {
+            throw new IllegalArgumentException("buffer pool size must be positive");
+        }
+
+        this.slots = new AtomicReferenceArray<>(size);
+        this.initialCapacity = initialCapacity;
+        this.maxRetainedCapacity = maxRetainedCapacity;
+    }
+
+    StringBuilder acquire() {
+        for (int slot = 0; slot < slots.length(); slot++) {
+            if (slots.getPlain(slot) != null) {
+                StringBuilder buffer = slots.getAndSet(slot, null);
+                if (buffer != null) {
+                    return buffer;
+                }
+            }
+        }
+        return new StringBuilder(initialCapacity);
+    }
+
+    void release(StringBuilder buffer) {
+        if (buffer.capacity() > maxRetainedCapacity) {
+            return;
+        }
+        buffer.setLength(0);
+
+        for (int slot = 0; slot < slots.length(); slot++) {
+            if (slots.getPlain(slot) == null && slots.compareAndSet(slot, null, buffer)) {
+                return;
+            }
+        }
+    }
+}
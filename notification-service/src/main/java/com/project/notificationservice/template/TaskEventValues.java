@@ -0,0 +1,21 @@
+package com.project.notificationservice.template;
+
+import task.kafka.TaskEvent;
+
+// one task event as seen by the task-* templates and by each row of the digest
+public record TaskEventValues(TaskEvent event, String username) implements TemplateValues {
+
+    @Override
+    public Object value(String name) {
+        return switch (name) {
+            case "username" -> username;
+            case "taskId" -> event.taskId();
+            case "eventType" -> event.eventType();
+            case "status" -> event.newStatus();
+            case "oldStatus" -> event.oldStatus();
+            case "priority" -> event.newTaskPriority();
+            case "deadline" -> event.deadline();
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.project.notificationservice.template;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/*
+    parses the {{...}} syntax into a list of segments, once per template:
+    {{name}} escaped value, {{{name}}} raw value, {{#name}}...{{/name}} repeated for each item of a section.
+    Neighbouring text is merged into one literal, so rendering only appends whole strings
+ */
+final class TemplateCompiler {
+
+    private static final String OPEN = "{{";
+
+    private TemplateCompiler() {
+    }
+
+    static List<Segment> compile(String templateId, String source) {
+        Deque<List<Segment>> bodies = new ArrayDeque<>();
+        Deque<String> sections = new ArrayDeque<>();
+        List<Segment> current = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+
+        int position = 0;
+        while (position < source.length()) {
+            int open = source.indexOf(OPEN, position);
+            if (open < 0) {
+                literal.append(source, position, source.length());
+                break;
+            }
+            literal.append(source, position, open);
+
+            boolean raw = source.startsWith("{{{", open);
+            String close = raw ? "}}}" : "}}";
+            int tagStart = open + (raw ? 3 : 2);
+            int tagEnd = source.indexOf(close, tagStart);
+            if (tagEnd < 0) {
+                throw new IllegalArgumentException("Template " + templateId + ": unclosed tag at " + open);
+            }
+            String tag = source.substring(tagStart, tagEnd).trim();
+            position = tagEnd + close.length();
+
+            flush(literal, current);
+            if (!raw && tag.startsWith("#")) {
+                bodies.push(current);
+                sections.push(tag.substring(1).trim());
+                current = new ArrayList<>();
+            } else if (!raw && tag.startsWith("/")) {
+                String name = tag.substring(1).trim();
+                if (sections.isEmpty() || !sections.peek().equals(name)) {
+                    throw new IllegalArgumentException("Template " + templateId + ": unexpected {{/" + name + "}}");
+                }
+                Segment section = new Segment.Section(sections.pop(), List.copyOf(current));
+                current = bodies.pop();
+                current.add(section);
+            } else {
+                if (tag.isEmpty()) {
+                    throw new IllegalArgumentException("Template " + templateId + ": empty tag at " + open);
+                }
+                current.add(new Segment.Variable(tag, !raw));
+            }
+        }
+
+        if (!sections.isEmpty()) {
+            throw new IllegalArgumentException("Template " + templateId + ": unclosed section {{#" + sections.peek() + "}}");
+        }
+        flush(literal, current);
+        return List.copyOf(current);
+    }
+
+    private static void flush(StringBuilder literal, List<Segment> segments) {
+        if (!literal.isEmpty()) {
+            segments.add(new Segment.Literal(literal.toString()));
+            literal.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.project.notificationservice.template;
+
+import java.util.List;
+
+// what a template reads while rendering, looked up by the names used in {{...}}
+public interface TemplateValues {
+
+    // null renders as an empty string
+    Object value(String name);
+
+    // the items of a {{#name}}...{{/name}} section, empty when there is nothing to repeat
+    default List<? extends TemplateValues> section(String name) {
+        return List.of();
+    }
+}
@@ -1,10 +1,18 @@
 package com.project.notificationservice.utils;
 
 
+import com.project.notificationservice.api.mongodb.DigestEntry;
 import com.project.notificationservice.api.mongodb.NotificationLog;
+import com.project.notificationservice.api.mongodb.PendingNotification;
 import org.springframework.stereotype.Component;
 import task.kafka.TaskEvent;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
 @Component
 public class NotificationMapper {
 
@@ -18,4 +26,48 @@ public class NotificationMapper {
                 .timestamp(event.timestamp())
                 .build();
     }
+
+    public PendingNotification eventToPending(TaskEvent event, Instant now, Instant leasedUntil) {
+        return PendingNotification.builder()
+                .id(eventId(event))
+                .recipientId(event.assignedUserId())
+                .event(event)
+                .attempts(0)
+                .nextAttemptAt(leasedUntil)
+                .createdAt(now)
+                .build();
+    }
+
+    public PendingNotification digestToPending(Long recipientId, Instant windowStart, List<DigestEntry> entries,
+                                               Instant now, Instant leasedUntil) {
+        return PendingNotification.builder()
+                .id("digest-" + recipientId + "-" + windowStart.getEpochSecond() + "-" + entrySetKey(entries))
+                .recipientId(recipientId)
+                .digest(entries.stream().map(DigestEntry::getEvent).toList())
+                .attempts(0)
+                .nextAttemptAt(leasedUntil)
+                .createdAt(now)
+                .build();
+    }
+
+    public DigestEntry eventToDigestEntry(TaskEvent event, Instant windowStart, String owner, Instant leasedUntil) {
+        return DigestEntry.builder()
+                .id(eventId(event))
+                .recipientId(event.assignedUserId())
+                .windowStart(windowStart)
+                .event(event)
+                .owner(owner)
+                .leasedUntil(leasedUntil)
+                .build();
+    }
+
+    // the same entries always give the same key, different entries never share one
+    private static String entrySetKey(List<DigestEntry> entries) {
+        String ids = entries.stream().map(DigestEntry::getId).sorted().collect(Collectors.joining(","));
+        return UUID.nameUUIDFromBytes(ids.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    private static String eventId(TaskEvent event) {
+        return event.eventId() != null ? event.eventId().toString() : UUID.randomUUID().toString();
+    }
 }
@@ -0,0 +1,80 @@
+package com.project.notificationservice.api.service.pipeline;
+
+import com.project.notificationservice.api.UserClient;
+import com.project.notificationservice.api.repository.PendingNotificationRepository;
+import com.project.notificationservice.api.service.EmailSenderService;
+import com.project.notificationservice.api.service.NotificationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class NotificationPipelineLifecycleTest {
+
+    @Test
+    void runsWhileTheListenerContainersRun() {
+        assertThat(NotificationPipeline.PHASE).isLessThan(new KafkaListenerEndpointRegistry().getPhase());
+
+        NotificationPipeline pipeline = pipeline();
+        ListenerStandIn listener = new ListenerStandIn(pipeline);
+
+        try (GenericApplicationContext context = new GenericApplicationContext()) {
+            context.registerBean("listener", ListenerStandIn.class, () -> listener);
+            context.registerBean("pipeline", NotificationPipeline.class, () -> pipeline);
+            context.refresh();
+
+            assertThat(pipeline.isRunning()).isTrue();
+        }
+
+        assertThat(pipeline.isRunning()).isFalse();
+        assertThat(listener.pipelineRunning).containsExactly("start: true", "stop: true");
+    }
+
+    private static NotificationPipeline pipeline() {
+        return new NotificationPipeline(mock(UserClient.class), mock(EmailSenderService.class),
+                mock(NotificationService.class), mock(PendingNotificationRepository.class), new SimpleMeterRegistry(),
+                4, 1, 1, 1, 1, 1, 8, 2, Duration.ofMinutes(1), Duration.ofSeconds(1), 1, Duration.ofMillis(100), true);
+    }
+
+    // sits in the phase of the Kafka listener containers and records whether the pipeline runs around it
+    private static class ListenerStandIn implements SmartLifecycle {
+
+        private final NotificationPipeline pipeline;
+        private final List<String> pipelineRunning = new ArrayList<>();
+        private boolean running;
+
+        ListenerStandIn(NotificationPipeline pipeline) {
+            this.pipeline = pipeline;
+        }
+
+        @Override
+        public void start() {
+            pipelineRunning.add("start: " + pipeline.isRunning());
+            running = true;
+        }
+
+        @Override
+        public void stop() {
+            pipelineRunning.add("stop: " + pipeline.isRunning());
+            running = false;
+        }
+
+        @Override
+        public boolean isRunning() {
+            return running;
+        }
+
+        @Override
+        public int getPhase() {
+            return new KafkaListenerEndpointRegistry().getPhase();
+        }
+    }
+}
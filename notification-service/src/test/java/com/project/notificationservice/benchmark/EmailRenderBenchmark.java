@@ -0,0 +1,146 @@
+package com.project.notificationservice.benchmark;
+
+import com.project.notificationservice.template.DigestValues;
+import com.project.notificationservice.template.EmailTemplates;
+import com.project.notificationservice.template.RenderedEmail;
+import com.project.notificationservice.template.TaskEventValues;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import task.kafka.TaskEvent;
+import task.kafka.TaskEventType;
+import task.model.Priority;
+import task.model.TaskStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/*
+        EMAIL RENDER BENCHMARK
+    the string concatenation EmailSenderService used before the templates against the compiled templates,
+    for one task notification and for a digest. Throughput per thread, the GC profiler adds the allocation
+    per message (gc.alloc.rate.norm).
+
+    -Dbench.threads=1 -Dbench.digestSize=20 -Dbench.forks=1 -Dbench.iterations=5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+public class EmailRenderBenchmark {
+
+    private static final Locale LOCALE = Locale.forLanguageTag("ru");
+    private static final String USERNAME = "ivan.petrov";
+
+    private EmailTemplates templates;
+    private TaskEvent event;
+    private List<TaskEvent> digest;
+
+    @Setup
+    public void setUp() {
+        templates = new EmailTemplates(LOCALE, 64);
+        event = event(42_317L, TaskStatus.IN_PROGRESS);
+
+        digest = new ArrayList<>();
+        for (int i = 0; i < Integer.getInteger("bench.digestSize", 20); i++) {
+            digest.add(event(42_000L + i, i % 2 == 0 ? TaskStatus.IN_PROGRESS : TaskStatus.DONE));
+        }
+    }
+
+    @Benchmark
+    public RenderedEmail taskConcatenation() {
+        Long id = event.taskId();
+        String taskStatus = event.newStatus().name();
+
+        String subject = "Уведомление по задаче: №" + id;
+        String htmlBody = "<html>" +
+                "<body style='font-family: Arial, sans-serif;'>" +
+                "<h2 style='color: #004a99;'>Обновление в Task Management</h2>" +
+                "<p>Привет! У нас есть новости по твоей задаче:</p>" +
+                "<div style='background-color: #f4f4f4; padding: 15px; border-left: 4px solid #004a99;'>" +
+                "<p><strong>Статус:</strong> <span style='color: green;'>" + taskStatus + "</span></p>" +
+                "<p><strong>ID task:</strong> <span style='color: white;'>" + id + "</span></p>" +
+                "</div>" +
+                "<br>" +
+                "</body>" +
+                "</html>";
+        return new RenderedEmail(subject, htmlBody);
+    }
+
+    @Benchmark
+    public RenderedEmail taskTemplate() {
+        return templates.render(EmailTemplates.TASK_UPDATED, LOCALE, new TaskEventValues(event, USERNAME));
+    }
+
+    @Benchmark
+    public RenderedEmail digestConcatenation() {
+        StringBuilder rows = new StringBuilder();
+        for (TaskEvent row : digest) {
+            rows.append("<tr>")
+                    .append("<td style='padding: 4px 8px;'>").append(row.taskId()).append("</td>")
+                    .append("<td style='padding: 4px 8px;'>").append(row.eventType()).append("</td>")
+                    .append("<td style='padding: 4px 8px; color: green;'>").append(row.newStatus()).append("</td>")
+                    .append("<td style='padding: 4px 8px;'>").append(row.newTaskPriority()).append("</td>")
+                    .append("</tr>");
+        }
+
+        String subject = "Сводка по задачам: обновлений " + digest.size();
+        String htmlBody = "<html>" +
+                "<body style='font-family: Arial, sans-serif;'>" +
+                "<h2 style='color: #004a99;'>Обновления в Task Management</h2>" +
+                "<p>Привет! Вот что произошло с твоими задачами:</p>" +
+                "<table style='background-color: #f4f4f4; border-left: 4px solid #004a99; border-collapse: collapse;'>" +
+                "<tr><th>ID task</th><th>Событие</th><th>Статус</th><th>Приоритет</th></tr>" +
+                rows +
+                "</table>" +
+                "<br>" +
+                "</body>" +
+                "</html>";
+        return new RenderedEmail(subject, htmlBody);
+    }
+
+    @Benchmark
+    public RenderedEmail digestTemplate() {
+        return templates.render(EmailTemplates.DIGEST, LOCALE, new DigestValues(digest, USERNAME));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(EmailRenderBenchmark.class.getSimpleName())
+                .threads(Integer.getInteger("bench.threads", 1))
+                .forks(Integer.getInteger("bench.forks", 1))
+                .measurementIterations(Integer.getInteger("bench.iterations", 5))
+                .measurementTime(TimeValue.seconds(1))
+                .jvmArgsAppend("-Dbench.digestSize=" + Integer.getInteger("bench.digestSize", 20))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+    private static TaskEvent event(long taskId, TaskStatus status) {
+        return new TaskEvent(taskId, 7L, 11L, TaskStatus.CREATED, status, Priority.MEDIUM, Priority.MEDIUM,
+                LocalDate.now().plusDays(3), LocalDateTime.now(), TaskEventType.UPDATED, UUID.randomUUID(), 3L);
+    }
+}
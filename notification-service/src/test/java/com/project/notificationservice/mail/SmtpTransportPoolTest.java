@@ -0,0 +1,149 @@
+package com.project.notificationservice.mail;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SmtpTransportPoolTest {
+
+    private static final String USER = "sender@localhost";
+    private static final String PASSWORD = "secret";
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withUser(USER, PASSWORD));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JavaMailSenderImpl mailSender = mailSender();
+    private SmtpTransportPool pool;
+
+    @AfterEach
+    void closePool() {
+        if (pool != null) {
+            pool.destroy();
+        }
+    }
+
+    @Test
+    void sendsBatchOverOneConnection() throws Exception {
+        pool = pool(100, Duration.ofSeconds(5));
+
+        List<MailException> failures = pool.sendAll(messages(10));
+
+        assertThat(failures).hasSize(10).allMatch(Objects::isNull);
+        assertThat(greenMail.getReceivedMessages()).hasSize(10);
+        assertThat(handshakes()).isEqualTo(1);
+        assertThat(sent("new")).isEqualTo(1);
+        assertThat(sent("reused")).isEqualTo(9);
+    }
+
+    @Test
+    void reusesIdleConnectionForNextBatch() throws Exception {
+        pool = pool(100, Duration.ofSeconds(5));
+
+        pool.sendAll(messages(3));
+        pool.sendAll(messages(3));
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(6);
+        assertThat(handshakes()).isEqualTo(1);
+        assertThat(openConnections()).isEqualTo(1);
+    }
+
+    @Test
+    void reconnectsAfterMaxMessagesPerConnection() throws Exception {
+        pool = pool(3, Duration.ofSeconds(5));
+
+        List<MailException> failures = pool.sendAll(messages(7));
+
+        assertThat(failures).allMatch(Objects::isNull);
+        assertThat(greenMail.getReceivedMessages()).hasSize(7);
+        assertThat(handshakes()).isEqualTo(3);
+        assertThat(openConnections()).isEqualTo(1);
+    }
+
+    @Test
+    void replacesConnectionClosedByServer() throws Exception {
+        pool = pool(100, Duration.ZERO);
+        pool.sendAll(messages(1));
+
+        greenMail.stop();
+        greenMail.start();
+        List<MailException> failures = pool.sendAll(messages(2));
+
+        assertThat(failures).allMatch(Objects::isNull);
+        assertThat(greenMail.getReceivedMessages()).hasSize(2);
+        assertThat(handshakes()).isEqualTo(2);
+        assertThat(meterRegistry.get("notification.smtp.health.failures").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void failsWholeBatchWhenServerIsDown() throws Exception {
+        pool = pool(100, Duration.ofSeconds(5));
+        greenMail.stop();
+
+        List<MailException> failures = pool.sendAll(messages(3));
+
+        assertThat(failures).hasSize(3).allMatch(Objects::nonNull);
+        assertThat(meterRegistry.get("notification.smtp.failures").counter().count()).isEqualTo(3);
+        assertThat(openConnections()).isZero();
+    }
+
+    private SmtpTransportPool pool(int maxMessagesPerConnection, Duration validateAfter) {
+        return new SmtpTransportPool(mailSender, meterRegistry, 2, maxMessagesPerConnection, validateAfter,
+                Duration.ofMinutes(1), Duration.ofSeconds(5));
+    }
+
+    private List<MimeMessage> messages(int count) throws MessagingException {
+        List<MimeMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+            helper.setFrom(USER);
+            helper.setTo("user" + i + "@localhost");
+            helper.setSubject("task " + i);
+            helper.setText("<p>" + i + "</p>", true);
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    private long handshakes() {
+        return meterRegistry.get("notification.smtp.handshake").timer().count();
+    }
+
+    private double sent(String connection) {
+        return meterRegistry.get("notification.smtp.messages").tag("connection", connection).counter().count();
+    }
+
+    private double openConnections() {
+        return meterRegistry.get("notification.smtp.connections").tag("state", "open").gauge().value();
+    }
+
+    private static JavaMailSenderImpl mailSender() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        mailSender.setUsername(USER);
+        mailSender.setPassword(PASSWORD);
+        mailSender.getJavaMailProperties().put("mail.smtp.auth", "true");
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+        mailSender.getJavaMailProperties().put("mail.smtp.timeout", "2000");
+        return mailSender;
+    }
+}
@@ -0,0 +1,38 @@
+package com.project.statisticsservice.api.controller;
+
+import com.project.statisticsservice.api.dto.leaderboard.LeaderboardEntryDto;
+import com.project.statisticsservice.api.service.leaderboard.Leaderboards;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/stats/leaderboard")
+@Profile("!streams")
+public class LeaderboardController {
+
+    private final Leaderboards leaderboards;
+
+    @GetMapping("/done-this-week")
+    public List<LeaderboardEntryDto> getDoneThisWeek(@RequestParam(defaultValue = "20") int limit) {
+        return leaderboards.doneThisWeek(validateLimit(limit));
+    }
+
+    @GetMapping("/overdue")
+    public List<LeaderboardEntryDto> getOverdue(@RequestParam(defaultValue = "20") int limit) {
+        return leaderboards.overdue(validateLimit(limit));
+    }
+
+    private int validateLimit(int limit) {
+        if (limit < 1 || limit > leaderboards.getSize()) {
+            throw new IllegalArgumentException("limit must be between 1 and " + leaderboards.getSize());
+        }
+        return limit;
+    }
+}
@@ -0,0 +1,43 @@
+package com.project.statisticsservice.api.controller;
+
+import com.project.statisticsservice.api.dto.series.Granularity;
+import com.project.statisticsservice.api.dto.series.LeadTimeSummaryDto;
+import com.project.statisticsservice.api.dto.series.StatsSeriesPointDto;
+import com.project.statisticsservice.api.service.series.StatsSeriesService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/stats/series")
+@Profile("!streams")
+public class StatsSeriesController {
+
+    private final StatsSeriesService statsSeriesService;
+
+    @GetMapping
+    public List<StatsSeriesPointDto> getSeries(
+            @RequestParam(defaultValue = "DAY") Granularity granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        return statsSeriesService.getSeries(granularity, from, to);
+    }
+
+    @GetMapping("/lead-time")
+    public LeadTimeSummaryDto getLeadTime(
+            @RequestParam(defaultValue = "DAY") Granularity granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        return statsSeriesService.getLeadTime(granularity, from, to);
+    }
+}
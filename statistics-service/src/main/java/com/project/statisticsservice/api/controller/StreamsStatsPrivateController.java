@@ -0,0 +1,25 @@
+package com.project.statisticsservice.api.controller;
+
+import com.project.statisticsservice.api.service.streams.StatsCounters;
+import com.project.statisticsservice.api.service.streams.StreamsStatsQueries;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// instance to instance: raw counters from this instance's store, for keys whose partition it owns
+@Profile("streams")
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/stats/private/counters")
+public class StreamsStatsPrivateController {
+
+    private final StreamsStatsQueries streamsStatsQueries;
+
+    @GetMapping("/{key}")
+    public StatsCounters getLocalCounters(@PathVariable long key) {
+        return streamsStatsQueries.localCounters(key);
+    }
+}
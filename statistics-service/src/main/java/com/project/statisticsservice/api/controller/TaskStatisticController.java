@@ -1,11 +1,14 @@
 package com.project.statisticsservice.api.controller;
 
 import com.project.statisticsservice.api.dto.task.TaskStatsDto;
+import com.project.statisticsservice.api.service.readmodel.StatsView;
 import com.project.statisticsservice.api.service.taskapi.TaskStatisticService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RequiredArgsConstructor
 @RestController
@@ -14,8 +17,13 @@ public class TaskStatisticController {
 
     private final TaskStatisticService statisticService;
 
+    // 304 Not Modified while the ETag sent in If-None-Match is still current
     @GetMapping()
-    public TaskStatsDto getAllTaskStatistic() {
-        return statisticService.getAllTaskStatistic();
+    public ResponseEntity<TaskStatsDto> getAllTaskStatistic(WebRequest request) {
+        StatsView<TaskStatsDto> stats = statisticService.getAllTaskStatistic();
+        if (request.checkNotModified(stats.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(stats.etag()).body(stats.body());
     }
 }
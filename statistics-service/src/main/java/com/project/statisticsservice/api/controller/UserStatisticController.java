@@ -2,12 +2,15 @@ package com.project.statisticsservice.api.controller;
 
 
 import com.project.statisticsservice.api.dto.user.UserStatsDto;
+import com.project.statisticsservice.api.service.readmodel.StatsView;
 import com.project.statisticsservice.api.service.userapi.UserStatisticService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RequiredArgsConstructor
 @RestController
@@ -17,8 +20,12 @@ public class UserStatisticController {
     private final UserStatisticService userStatisticService;
 
     @GetMapping("/{userId}")
-    public UserStatsDto getUserStatsById(@PathVariable Long userId){
-        return userStatisticService.getUserStatsById(userId);
+    public ResponseEntity<UserStatsDto> getUserStatsById(@PathVariable Long userId, WebRequest request){
+        StatsView<UserStatsDto> stats = userStatisticService.getUserStatsById(userId);
+        if (request.checkNotModified(stats.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(stats.etag()).body(stats.body());
     }
 
 }
@@ -0,0 +1,10 @@
+package com.project.statisticsservice.api.dto.cycle;
+
+// quantiles in seconds, null while no task went through the phase
+public record CycleTimeDto(
+        long count,
+        Double p50Seconds,
+        Double p90Seconds,
+        Double p99Seconds
+) {
+}
@@ -0,0 +1,8 @@
+package com.project.statisticsservice.api.dto.leaderboard;
+
+public record LeaderboardEntryDto(
+        int rank,
+        long userId,
+        long score
+) {
+}
@@ -0,0 +1,26 @@
+package com.project.statisticsservice.api.dto.series;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum Granularity {
+    HOUR,
+    DAY,
+    MONTH;
+
+    public LocalDateTime truncate(LocalDateTime time) {
+        return switch (this) {
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+            case MONTH -> time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        };
+    }
+
+    public LocalDateTime next(LocalDateTime bucketStart) {
+        return switch (this) {
+            case HOUR -> bucketStart.plusHours(1);
+            case DAY -> bucketStart.plusDays(1);
+            case MONTH -> bucketStart.plusMonths(1);
+        };
+    }
+}
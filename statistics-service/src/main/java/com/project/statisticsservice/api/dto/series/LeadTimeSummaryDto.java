@@ -0,0 +1,15 @@
+package com.project.statisticsservice.api.dto.series;
+
+import java.time.LocalDateTime;
+
+// lead time of all tasks completed in [from, to), merged from precomputed buckets
+public record LeadTimeSummaryDto(
+        LocalDateTime from,
+        LocalDateTime to,
+        long count,
+        Double avgSeconds,
+        Double p50Seconds,
+        Double p90Seconds,
+        Double p99Seconds
+) {
+}
@@ -0,0 +1,16 @@
+package com.project.statisticsservice.api.dto.series;
+
+import java.time.LocalDateTime;
+
+// one time bucket, lead time = seconds from CREATED to DONE of the tasks completed in the bucket
+public record StatsSeriesPointDto(
+        LocalDateTime bucketStart,
+        long created,
+        long started,
+        long done,
+        long leadTimeCount,
+        Double leadTimeAvgSeconds,
+        Double leadTimeP50Seconds,
+        Double leadTimeP90Seconds
+) {
+}
@@ -1,5 +1,6 @@
 package com.project.statisticsservice.api.dto.task;
 
+import com.project.statisticsservice.api.dto.cycle.CycleTimeDto;
 import lombok.*;
 
 @NoArgsConstructor
@@ -15,4 +16,8 @@ public class TaskStatsDto {
     private long lowPriorityCount;
     private long mediumPriorityCount;
     private long highPriorityCount;
+
+    // CREATED -> first IN_PROGRESS and last IN_PROGRESS -> DONE
+    private CycleTimeDto timeToStart;
+    private CycleTimeDto timeToDone;
 }
@@ -1,6 +1,7 @@
 package com.project.statisticsservice.api.dto.user;
 
 
+import com.project.statisticsservice.api.dto.cycle.CycleTimeDto;
 import lombok.*;
 
 @AllArgsConstructor
@@ -23,4 +24,8 @@ public class UserStatsDto {
     private int mediumPriorityCount;
     private int highPriorityCount;
 
+    // CREATED -> first IN_PROGRESS and last IN_PROGRESS -> DONE
+    private CycleTimeDto timeToStart;
+    private CycleTimeDto timeToDone;
+
 }
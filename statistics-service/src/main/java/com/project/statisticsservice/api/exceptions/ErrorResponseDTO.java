@@ -0,0 +1,10 @@
+package com.project.statisticsservice.api.exceptions;
+
+import java.time.LocalDateTime;
+
+public record ErrorResponseDTO(
+        String message,
+        String detailedMessage,
+        LocalDateTime errorTime
+) {
+}
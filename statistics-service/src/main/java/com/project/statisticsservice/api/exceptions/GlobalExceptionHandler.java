@@ -0,0 +1,50 @@
+package com.project.statisticsservice.api.exceptions;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+import java.time.LocalDateTime;
+
+@ControllerAdvice
+@Slf4j
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler(exception = {
+            IllegalArgumentException.class,
+            MethodArgumentTypeMismatchException.class
+    })
+    public ResponseEntity<ErrorResponseDTO> handleBadRequest(Exception e) {
+        log.warn("Handle badRequest: {}", e.getMessage());
+
+        var errorResponseDTO = new ErrorResponseDTO(
+                "Bad request",
+                e.getMessage(),
+                LocalDateTime.now()
+        );
+
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(errorResponseDTO);
+    }
+
+    // streams profile: the counter store is restoring or migrating between instances, the client may retry
+    @ExceptionHandler(InvalidStateStoreException.class)
+    public ResponseEntity<ErrorResponseDTO> handleStoreUnavailable(InvalidStateStoreException e) {
+        log.warn("Handle store unavailable: {}", e.getMessage());
+
+        var errorResponseDTO = new ErrorResponseDTO(
+                "Statistics temporarily unavailable",
+                e.getMessage(),
+                LocalDateTime.now()
+        );
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(errorResponseDTO);
+    }
+}
@@ -0,0 +1,8 @@
+package com.project.statisticsservice.api.service.cycle;
+
+public enum CyclePhase {
+    // creation until the first start
+    CREATED_TO_IN_PROGRESS,
+    // last start until done
+    IN_PROGRESS_TO_DONE
+}
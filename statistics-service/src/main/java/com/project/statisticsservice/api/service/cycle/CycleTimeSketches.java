@@ -0,0 +1,63 @@
+package com.project.statisticsservice.api.service.cycle;
+
+import com.project.statisticsservice.api.dto.cycle.CycleTimeDto;
+import org.HdrHistogram.Histogram;
+
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+
+/*
+        CYCLE TIME SKETCHES
+    HdrHistogram in seconds with a fixed range (1s .. 10 years) and 2 significant digits,
+    so every sketch has the same bounded size whatever the number of tasks recorded,
+    and sketches of several users or stripes merge by adding them.
+    Stored in Postgres in the compressed HdrHistogram encoding, a few hundred bytes in practice
+ */
+public final class CycleTimeSketches {
+
+    private static final long HIGHEST_SECONDS = 10L * 365 * 24 * 3600;
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private CycleTimeSketches() {
+    }
+
+    public static Histogram empty() {
+        return new Histogram(1, HIGHEST_SECONDS, SIGNIFICANT_DIGITS);
+    }
+
+    // out of range durations are clamped instead of failing the batch
+    public static void record(Histogram sketch, long seconds) {
+        sketch.recordValue(Math.clamp(seconds, 1, HIGHEST_SECONDS));
+    }
+
+    public static byte[] encode(Histogram sketch) {
+        ByteBuffer buffer = ByteBuffer.allocate(sketch.getNeededByteBufferCapacity());
+        int length = sketch.encodeIntoCompressedByteBuffer(buffer);
+        byte[] bytes = new byte[length];
+        buffer.flip();
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    public static Histogram decode(byte[] bytes) {
+        if (bytes == null) {
+            return empty();
+        }
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(bytes), HIGHEST_SECONDS);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt cycle time sketch", e);
+        }
+    }
+
+    public static CycleTimeDto toDto(Histogram sketch) {
+        long count = sketch.getTotalCount();
+        if (count == 0) {
+            return new CycleTimeDto(0, null, null, null);
+        }
+        return new CycleTimeDto(count,
+                (double) sketch.getValueAtPercentile(50),
+                (double) sketch.getValueAtPercentile(90),
+                (double) sketch.getValueAtPercentile(99));
+    }
+}
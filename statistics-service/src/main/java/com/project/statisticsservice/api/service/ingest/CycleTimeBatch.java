@@ -0,0 +1,74 @@
+package com.project.statisticsservice.api.service.ingest;
+
+import com.project.statisticsservice.api.service.cycle.CyclePhase;
+import com.project.statisticsservice.api.service.cycle.CycleTimeSketches;
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+import task.kafka.TaskEvent;
+import task.kafka.TaskEventType;
+import task.model.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/*
+    cycle time samples of one batch, per assignee and per global stripe (owner -stripe),
+    merged into the stored sketches in one write per touched row.
+    Must see an event before TaskLifecycles.apply moves the task lifecycle forward
+ */
+@Getter
+public class CycleTimeBatch {
+
+    private final Map<SketchKey, Histogram> sketches = new TreeMap<>();
+
+    public void apply(TaskEvent event, TaskLifecycles lifecycles, int stripe) {
+        if (event.eventType() != TaskEventType.UPDATED || event.timestamp() == null || event.taskId() == null
+                || Objects.equals(event.oldStatus(), event.newStatus())) {
+            return;
+        }
+
+        TaskLifecycles.Lifecycle lifecycle = lifecycles.get(event.taskId());
+        if (lifecycle == null) {
+            return;
+        }
+
+        if (event.newStatus() == TaskStatus.IN_PROGRESS && lifecycle.getStartedAt() == null) {
+            record(CyclePhase.CREATED_TO_IN_PROGRESS, lifecycle.getCreatedAt(), event, stripe);
+        } else if (event.newStatus() == TaskStatus.DONE && event.oldStatus() == TaskStatus.IN_PROGRESS) {
+            record(CyclePhase.IN_PROGRESS_TO_DONE, lifecycle.getStartedAt(), event, stripe);
+        }
+    }
+
+    private void record(CyclePhase phase, LocalDateTime since, TaskEvent event, int stripe) {
+        if (since == null) {
+            return;
+        }
+
+        long seconds = Duration.between(since, event.timestamp()).toSeconds();
+        CycleTimeSketches.record(sketchOf(new SketchKey(-stripe, phase)), seconds);
+        if (event.assignedUserId() != null) {
+            CycleTimeSketches.record(sketchOf(new SketchKey(event.assignedUserId(), phase)), seconds);
+        }
+    }
+
+    private Histogram sketchOf(SketchKey key) {
+        return sketches.computeIfAbsent(key, k -> CycleTimeSketches.empty());
+    }
+
+    // owner is the assignee id, or -stripe for the global sketches
+    public record SketchKey(long owner, CyclePhase phase) implements Comparable<SketchKey> {
+
+        private static final Comparator<SketchKey> ORDER = Comparator
+                .comparingLong(SketchKey::owner)
+                .thenComparing(SketchKey::phase);
+
+        @Override
+        public int compareTo(SketchKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.project.statisticsservice.api.service.ingest;
+
+import lombok.Getter;
+import task.kafka.TaskEvent;
+import task.model.Priority;
+import task.model.TaskStatus;
+
+// change of global_task_stats folded from many events
+@Getter
+public class GlobalStatsDelta {
+
+    private long totalCreated;
+    private long totalInProgress;
+    private long totalDone;
+
+    private long lowPriorityCount;
+    private long mediumPriorityCount;
+    private long highPriorityCount;
+
+    public void apply(TaskEvent event) {
+        switch (event.eventType()) {
+            case DELETED -> {
+                totalCreated--;
+                addStatus(event.oldStatus(), -1);
+                addPriority(event.oldTaskPriority(), -1);
+            }
+
+            case CREATED -> {
+                totalCreated++;
+                changePriority(event.oldTaskPriority(), event.newTaskPriority());
+            }
+
+            case UPDATED -> {
+                changeStatus(event.oldStatus(), event.newStatus());
+                changePriority(event.oldTaskPriority(), event.newTaskPriority());
+            }
+        }
+    }
+
+    public void add(GlobalStatsDelta other) {
+        totalCreated += other.totalCreated;
+        totalInProgress += other.totalInProgress;
+        totalDone += other.totalDone;
+        lowPriorityCount += other.lowPriorityCount;
+        mediumPriorityCount += other.mediumPriorityCount;
+        highPriorityCount += other.highPriorityCount;
+    }
+
+    public boolean isEmpty() {
+        return totalCreated == 0 && totalInProgress == 0 && totalDone == 0
+                && lowPriorityCount == 0 && mediumPriorityCount == 0 && highPriorityCount == 0;
+    }
+
+    private void changeStatus(TaskStatus oldStatus, TaskStatus newStatus) {
+        if (oldStatus != null && !oldStatus.equals(newStatus)) {
+            addStatus(oldStatus, -1);
+        }
+        if (oldStatus == null || !oldStatus.equals(newStatus)) {
+            addStatus(newStatus, 1);
+        }
+    }
+
+    private void changePriority(Priority oldPriority, Priority newPriority) {
+        if (oldPriority != null && !oldPriority.equals(newPriority)) {
+            addPriority(oldPriority, -1);
+        }
+        if (oldPriority == null || !oldPriority.equals(newPriority)) {
+            addPriority(newPriority, 1);
+        }
+    }
+
+    // global stats count only started and finished tasks
+    private void addStatus(TaskStatus status, int delta) {
+        if (status == null) return;
+        switch (status) {
+            case IN_PROGRESS -> totalInProgress += delta;
+            case DONE -> totalDone += delta;
+        }
+    }
+
+    private void addPriority(Priority priority, int delta) {
+        if (priority == null) return;
+        switch (priority) {
+            case LOW -> lowPriorityCount += delta;
+            case MEDIUM -> mediumPriorityCount += delta;
+            case HIGH -> highPriorityCount += delta;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.project.statisticsservice.api.service.ingest;
+
+import lombok.Getter;
+import task.kafka.TaskEvent;
+import task.kafka.TaskEventType;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+        DELTA FOLDING
+    a poll's worth of events is folded in memory into one global delta per stripe and one delta per user,
+    with the same rules the per-event updates used. Stripes and users are kept sorted by id, so concurrent
+    flushes lock rows in the same order
+ */
+@Getter
+public class StatsBatch {
+
+    private final Map<Integer, GlobalStatsDelta> globals = new TreeMap<>();
+    private final Map<Long, UserStatsDelta> users = new TreeMap<>();
+    private int eventCount;
+
+    public static StatsBatch fold(List<TaskEvent> events, int stripe) {
+        StatsBatch batch = new StatsBatch();
+        for (TaskEvent event : events) {
+            if (event != null) {
+                batch.apply(event, stripe);
+            }
+        }
+        return batch;
+    }
+
+    public void apply(TaskEvent event, int stripe) {
+        eventCount++;
+        globals.computeIfAbsent(stripe, s -> new GlobalStatsDelta()).apply(event);
+        applyCreator(event);
+        applyAssignee(event);
+    }
+
+    public Collection<UserStatsDelta> getUserDeltas() {
+        return users.values();
+    }
+
+    private void applyCreator(TaskEvent event) {
+        if (event.creatorId() == null) {
+            return;
+        }
+
+        UserStatsDelta creator = user(event.creatorId());
+        if (event.eventType() == TaskEventType.CREATED) {
+            creator.addCreated(1);
+        } else if (event.eventType() == TaskEventType.DELETED) {
+            creator.addCreated(-1);
+        }
+    }
+
+    private void applyAssignee(TaskEvent event) {
+        if (event.assignedUserId() == null) {
+            return;
+        }
+
+        UserStatsDelta assignee = user(event.assignedUserId());
+        switch (event.eventType()) {
+            case CREATED -> {
+                assignee.addAssigned(1);
+                assignee.addStatus(event.newStatus(), 1);
+                assignee.addPriority(event.newTaskPriority(), 1);
+            }
+
+            case UPDATED -> {
+                if (event.oldStatus() != null && !event.oldStatus().equals(event.newStatus())) {
+                    assignee.addStatus(event.newStatus(), 1);
+                    assignee.addStatus(event.oldStatus(), -1);
+                }
+
+                if (event.oldTaskPriority() != null && !event.oldTaskPriority().equals(event.newTaskPriority())) {
+                    assignee.addPriority(event.newTaskPriority(), 1);
+                    assignee.addPriority(event.oldTaskPriority(), -1);
+                }
+            }
+
+            case DELETED -> {
+                assignee.addAssigned(-1);
+                assignee.addStatus(event.newStatus(), -1);
+            }
+        }
+    }
+
+    private UserStatsDelta user(Long userId) {
+        return users.computeIfAbsent(userId, UserStatsDelta::new);
+    }
+}
@@ -0,0 +1,185 @@
+package com.project.statisticsservice.api.service.ingest;
+
+import com.project.statisticsservice.api.service.readmodel.StatsChanges;
+import com.project.statisticsservice.metrics.StatementCountingDataSource;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import task.kafka.TaskEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+        INGEST LANES
+    a poll is split over stats.ingest.lanes single-threaded lanes by task id (the record key),
+    each lane applies its share in its own transaction, so throughput is no longer bounded by
+    the partition count and one consumer thread waiting on DB round-trips.
+    All events of a task go through one lane in poll order, which keeps the per-task ledger and
+    lifecycle ordered; user counters are additive deltas and do not depend on the order.
+    The call returns only when every lane is done, so the container commits the poll's offsets
+    after all of it is applied. If a lane fails the whole poll is redelivered and the lanes that
+    had already committed skip their events through the ledger
+ */
+@Component
+@Profile("!streams")
+public class StatsIngestLanes {
+
+    private final StatsIngestService statsIngestService;
+    private final ThreadPoolExecutor[] lanes;
+    private final Timer fanOutTimer;
+    private final Timer eventProcessingTimer;
+    private final Timer eventLatencyTimer;
+    private final DistributionSummary statementsPerEventSummary;
+
+    public StatsIngestLanes(StatsIngestService statsIngestService,
+                            MeterRegistry meterRegistry,
+                            @Value("${stats.ingest.lanes:4}") int laneCount) {
+        if (laneCount < 1) {
+            throw new IllegalArgumentException("stats.ingest.lanes must be positive");
+        }
+
+        this.statsIngestService = statsIngestService;
+        this.lanes = new ThreadPoolExecutor[laneCount];
+        for (int lane = 0; lane < laneCount; lane++) {
+            lanes[lane] = newLane(lane);
+            Gauge.builder("stats.ingest.lane.queue", lanes[lane], executor -> executor.getQueue().size())
+                    .tag("lane", String.valueOf(lane))
+                    .register(meterRegistry);
+        }
+
+        this.fanOutTimer = Timer.builder("stats.ingest.fanout")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.eventProcessingTimer = Timer.builder("stats.event.processing")
+                .description("lane transaction time including commit, divided over its events")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.eventLatencyTimer = Timer.builder("stats.event.latency")
+                .description("from the event timestamp in task-service until its lane committed")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.statementsPerEventSummary = DistributionSummary.builder("stats.ingest.statements.per.event")
+                .register(meterRegistry);
+    }
+
+    public StatsChanges ingest(List<ConsumerRecord<Long, TaskEvent>> records) {
+        List<List<ConsumerRecord<Long, TaskEvent>>> shares = split(records);
+
+        long start = System.nanoTime();
+        List<CompletableFuture<StatsChanges>> pending = new ArrayList<>(lanes.length);
+        for (int lane = 0; lane < lanes.length; lane++) {
+            if (shares.get(lane).isEmpty()) {
+                continue;
+            }
+            int laneIndex = lane;
+            pending.add(CompletableFuture.supplyAsync(
+                    () -> ingestLane(shares.get(laneIndex), laneIndex), lanes[lane]));
+        }
+
+        try {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        } finally {
+            fanOutTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        return merge(pending.stream().map(CompletableFuture::join).toList());
+    }
+
+    // the transactional call returns after the commit, so the measured time and statements include it
+    private StatsChanges ingestLane(List<ConsumerRecord<Long, TaskEvent>> share, int lane) {
+        long statementsBefore = StatementCountingDataSource.statementsOnThisThread();
+        long start = System.nanoTime();
+
+        StatsChanges changes = statsIngestService.ingest(share, lane);
+
+        long perEvent = (System.nanoTime() - start) / share.size();
+        long statements = StatementCountingDataSource.statementsOnThisThread() - statementsBefore;
+        statementsPerEventSummary.record((double) statements / share.size());
+
+        LocalDateTime committedAt = LocalDateTime.now();
+        for (ConsumerRecord<Long, TaskEvent> record : share) {
+            eventProcessingTimer.record(perEvent, TimeUnit.NANOSECONDS);
+            if (record.value() != null && record.value().timestamp() != null) {
+                eventLatencyTimer.record(Duration.between(record.value().timestamp(), committedAt));
+            }
+        }
+        return changes;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+    }
+
+    private List<List<ConsumerRecord<Long, TaskEvent>>> split(List<ConsumerRecord<Long, TaskEvent>> records) {
+        List<List<ConsumerRecord<Long, TaskEvent>>> shares = new ArrayList<>(lanes.length);
+        for (int lane = 0; lane < lanes.length; lane++) {
+            shares.add(new ArrayList<>());
+        }
+
+        for (ConsumerRecord<Long, TaskEvent> record : records) {
+            shares.get(laneOf(record)).add(record);
+        }
+        return shares;
+    }
+
+    // events without a task id have no per-key order to keep and go to lane 0
+    private int laneOf(ConsumerRecord<Long, TaskEvent> record) {
+        Long taskId = record.value() != null && record.value().taskId() != null
+                ? record.value().taskId()
+                : record.key();
+        if (taskId == null) {
+            return 0;
+        }
+        return Math.floorMod(Long.hashCode(taskId * 0x9E3779B97F4A7C15L), lanes.length);
+    }
+
+    private static StatsChanges merge(List<StatsChanges> changes) {
+        if (changes.size() == 1) {
+            return changes.getFirst();
+        }
+
+        StatsChanges merged = new StatsChanges(new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
+                new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        for (StatsChanges change : changes) {
+            merged.stripes().addAll(change.stripes());
+            merged.users().addAll(change.users());
+            merged.sketches().addAll(change.sketches());
+            merged.weeklyDone().addAll(change.weeklyDone());
+            merged.tasks().addAll(change.tasks());
+            merged.deletedTasks().addAll(change.deletedTasks());
+        }
+        return merged;
+    }
+
+    private static ThreadPoolExecutor newLane(int lane) {
+        AtomicInteger threads = new AtomicInteger();
+        return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "stats-lane-" + lane + "-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
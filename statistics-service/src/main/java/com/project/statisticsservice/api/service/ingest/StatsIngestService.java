@@ -0,0 +1,200 @@
+package com.project.statisticsservice.api.service.ingest;
+
+import com.project.statisticsservice.api.service.readmodel.SketchRow;
+import com.project.statisticsservice.api.service.readmodel.StatsChanges;
+import com.project.statisticsservice.api.service.readmodel.StripeCounters;
+import com.project.statisticsservice.api.service.readmodel.TaskStateRow;
+import com.project.statisticsservice.api.service.readmodel.UserCounters;
+import com.project.statisticsservice.api.service.readmodel.WeeklyDoneRow;
+import com.project.statisticsservice.repository.CycleTimeSketchRepository;
+import com.project.statisticsservice.repository.StatsBatchRepository;
+import com.project.statisticsservice.repository.StatsSeriesRepository;
+import com.project.statisticsservice.repository.TaskEventLedgerRepository;
+import com.project.statisticsservice.repository.TaskLifecycleRepository;
+import com.project.statisticsservice.repository.UserWeeklyStatsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import it.unimi.dsi.fastutil.longs.LongAVLTreeSet;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongSortedSet;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import task.kafka.TaskEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+    one transaction per lane of a Kafka poll writes:
+      - the ledger of processed events; events already in it (redelivery, rebalance) are skipped,
+        so a replayed batch changes nothing
+      - task lifecycles
+      - user rows, as one multi-row upsert
+      - one upsert per touched global stripe
+      - hour/day/month time series buckets
+      - cycle time sketches
+      - weekly completions
+    The written rows are returned for the read model, which the caller updates once the transaction has committed
+ */
+@Service
+public class StatsIngestService {
+
+    private final StatsBatchRepository statsBatchRepository;
+    private final TaskEventLedgerRepository taskEventLedgerRepository;
+    private final TaskLifecycleRepository taskLifecycleRepository;
+    private final StatsSeriesRepository statsSeriesRepository;
+    private final CycleTimeSketchRepository cycleTimeSketchRepository;
+    private final UserWeeklyStatsRepository userWeeklyStatsRepository;
+    private final int globalStripes;
+    private final int lanes;
+
+    private final Counter duplicateCounter;
+
+    private final DistributionSummary batchSizeSummary;
+    private final DistributionSummary rowsPerEventSummary;
+    private final DistributionSummary sketchBytesSummary;
+    private final Timer flushTimer;
+
+    public StatsIngestService(StatsBatchRepository statsBatchRepository,
+                              TaskEventLedgerRepository taskEventLedgerRepository,
+                              TaskLifecycleRepository taskLifecycleRepository,
+                              StatsSeriesRepository statsSeriesRepository,
+                              CycleTimeSketchRepository cycleTimeSketchRepository,
+                              UserWeeklyStatsRepository userWeeklyStatsRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${stats.global.stripes:8}") int globalStripes,
+                              @Value("${stats.ingest.lanes:4}") int lanes) {
+        if (globalStripes < 1) {
+            throw new IllegalArgumentException("stats.global.stripes must be positive");
+        }
+        if (lanes < 1) {
+            throw new IllegalArgumentException("stats.ingest.lanes must be positive");
+        }
+
+        this.statsBatchRepository = statsBatchRepository;
+        this.taskEventLedgerRepository = taskEventLedgerRepository;
+        this.taskLifecycleRepository = taskLifecycleRepository;
+        this.statsSeriesRepository = statsSeriesRepository;
+        this.cycleTimeSketchRepository = cycleTimeSketchRepository;
+        this.userWeeklyStatsRepository = userWeeklyStatsRepository;
+        this.globalStripes = globalStripes;
+        this.lanes = lanes;
+
+        this.duplicateCounter = meterRegistry.counter("stats.ingest.duplicates");
+
+        this.batchSizeSummary = DistributionSummary.builder("stats.ingest.batch.size")
+                .baseUnit("events")
+                .register(meterRegistry);
+        this.rowsPerEventSummary = DistributionSummary.builder("stats.ingest.rows.per.event")
+                .register(meterRegistry);
+        this.sketchBytesSummary = DistributionSummary.builder("stats.cycle.sketch.bytes")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("stats.ingest.flush")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // records of one lane (see StatsIngestLanes), all events of a task always come through the same lane
+    @Transactional
+    public StatsChanges ingest(List<ConsumerRecord<Long, TaskEvent>> records, int lane) {
+        TaskEventLedger ledger = taskEventLedgerRepository.lockAndLoad(new LongArrayList(identifiedTasks(records)));
+        TaskLifecycles lifecycles = taskLifecycleRepository.load(tasksOf(records));
+
+        StatsBatch batch = new StatsBatch();
+        TimeSeriesBatch series = new TimeSeriesBatch();
+        CycleTimeBatch cycleTimes = new CycleTimeBatch();
+        WeeklyDoneBatch weeklyDone = new WeeklyDoneBatch();
+        for (ConsumerRecord<Long, TaskEvent> record : records) {
+            TaskEvent event = record.value();
+            if (event == null) {
+                continue;
+            }
+
+            if (isIdentified(event) && !ledger.markApplied(event.taskId(), event.sequence())) {
+                duplicateCounter.increment();
+                continue;
+            }
+            int stripe = stripeOf(record, lane);
+            batch.apply(event, stripe);
+            cycleTimes.apply(event, lifecycles, stripe);
+            series.apply(event, lifecycles, stripe);
+            weeklyDone.apply(event);
+            lifecycles.apply(event);
+        }
+
+        taskEventLedgerRepository.save(ledger);
+        List<TaskStateRow> tasks = taskLifecycleRepository.save(lifecycles);
+        List<Long> deletedTasks = new ArrayList<>(lifecycles.getDeletedTasks());
+
+        if (batch.getEventCount() == 0) {
+            return StatsChanges.empty();
+        }
+
+        /*
+            every lane writes the tables in this order and the rows of a table in key order, so concurrent
+            lanes cannot deadlock. Striped rows (time buckets, global stripes) come last, a lane shares
+            them only with the lanes that map to the same stripe and holds their locks until the commit right after
+         */
+        long start = System.nanoTime();
+        List<UserCounters> users = statsBatchRepository.applyUsers(batch.getUserDeltas());
+        List<SketchRow> sketches = cycleTimeSketchRepository.merge(cycleTimes.getSketches());
+        List<WeeklyDoneRow> weeklyDoneRows = userWeeklyStatsRepository.applyDone(weeklyDone.getDoneCounts());
+        int seriesRows = statsSeriesRepository.apply(series.getBuckets());
+        List<StripeCounters> stripes = new ArrayList<>();
+        for (Map.Entry<Integer, GlobalStatsDelta> stripe : batch.getGlobals().entrySet()) {
+            statsBatchRepository.applyGlobal(stripe.getKey(), stripe.getValue()).ifPresent(stripes::add);
+        }
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        for (SketchRow sketch : sketches) {
+            sketchBytesSummary.record(sketch.encoded().length);
+        }
+
+        int rows = stripes.size() + batch.getUserDeltas().size() + seriesRows + sketches.size()
+                + weeklyDoneRows.size() + tasks.size() + deletedTasks.size();
+        batchSizeSummary.record(batch.getEventCount());
+        rowsPerEventSummary.record((double) rows / batch.getEventCount());
+
+        return new StatsChanges(stripes, users, sketches, weeklyDoneRows, tasks, deletedTasks);
+    }
+
+    // events published before event ids were introduced are applied without dedup
+    private static boolean isIdentified(TaskEvent event) {
+        return event.taskId() != null && event.sequence() != null;
+    }
+
+    private static LongSortedSet identifiedTasks(List<ConsumerRecord<Long, TaskEvent>> records) {
+        LongSortedSet taskIds = new LongAVLTreeSet();
+        for (ConsumerRecord<Long, TaskEvent> record : records) {
+            if (record.value() != null && isIdentified(record.value())) {
+                taskIds.add(record.value().taskId().longValue());
+            }
+        }
+        return taskIds;
+    }
+
+    private static LongSortedSet tasksOf(List<ConsumerRecord<Long, TaskEvent>> records) {
+        LongSortedSet taskIds = new LongAVLTreeSet();
+        for (ConsumerRecord<Long, TaskEvent> record : records) {
+            if (record.value() != null && record.value().taskId() != null) {
+                taskIds.add(record.value().taskId().longValue());
+            }
+        }
+        return taskIds;
+    }
+
+    /*
+        the stripe follows the event key through its partition (the producer hashes the task id) and lane,
+        so every consumer lane keeps writing its own global row instead of all of them queuing on one
+     */
+    private int stripeOf(ConsumerRecord<Long, TaskEvent> record, int lane) {
+        return (record.partition() * lanes + lane) % globalStripes + 1;
+    }
+}
@@ -0,0 +1,81 @@
+package com.project.statisticsservice.api.service.ingest;
+
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongAVLTreeSet;
+import it.unimi.dsi.fastutil.longs.LongSortedSet;
+
+/*
+        DEDUP LEDGER
+    an event is identified by (taskId, sequence). Per task we keep two longs:
+    watermark - every sequence <= watermark was applied,
+    seenMask  - bit i set = sequence watermark + 1 + i was applied.
+    Events of one task may come a little out of order: concurrent transactions can commit, and so become
+    visible to the outbox relay, in a different order than their ids were taken.
+    The mask covers that for up to 64 sequences ahead of the watermark.
+    Loaded for the tasks of one batch and written back in the same transaction as the counters
+ */
+public class TaskEventLedger {
+
+    public static final long NO_WATERMARK = -1;
+    private static final int WINDOW = 64;
+
+    private final Long2LongOpenHashMap watermarks = new Long2LongOpenHashMap();
+    private final Long2LongOpenHashMap seenMasks = new Long2LongOpenHashMap();
+    private final LongSortedSet changedTasks = new LongAVLTreeSet();
+
+    public TaskEventLedger() {
+        watermarks.defaultReturnValue(NO_WATERMARK);
+        seenMasks.defaultReturnValue(0L);
+    }
+
+    public void load(long taskId, long watermark, long seenMask) {
+        watermarks.put(taskId, watermark);
+        seenMasks.put(taskId, seenMask);
+    }
+
+    // false when the event was already applied
+    public boolean markApplied(long taskId, long sequence) {
+        long watermark = watermarks.get(taskId);
+        if (sequence <= watermark) {
+            return false;
+        }
+
+        long mask = seenMasks.get(taskId);
+        long offset = sequence - watermark - 1;
+
+        // far ahead of the window: everything below the new window counts as applied
+        if (offset >= WINDOW) {
+            long shift = offset - (WINDOW - 1);
+            mask = shift >= WINDOW ? 0 : mask >>> shift;
+            watermark += shift;
+            offset = WINDOW - 1;
+        }
+
+        if ((mask >>> offset & 1L) != 0) {
+            return false;
+        }
+        mask |= 1L << offset;
+
+        while ((mask & 1L) != 0) {
+            mask >>>= 1;
+            watermark++;
+        }
+
+        watermarks.put(taskId, watermark);
+        seenMasks.put(taskId, mask);
+        changedTasks.add(taskId);
+        return true;
+    }
+
+    public LongSortedSet getChangedTasks() {
+        return changedTasks;
+    }
+
+    public long getWatermark(long taskId) {
+        return watermarks.get(taskId);
+    }
+
+    public long getSeenMask(long taskId) {
+        return seenMasks.get(taskId);
+    }
+}
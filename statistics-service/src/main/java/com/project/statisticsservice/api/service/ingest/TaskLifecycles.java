@@ -0,0 +1,90 @@
+package com.project.statisticsservice.api.service.ingest;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongAVLTreeSet;
+import it.unimi.dsi.fastutil.longs.LongSortedSet;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import task.kafka.TaskEvent;
+import task.kafka.TaskEventType;
+import task.model.TaskStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/*
+    when the tasks of one batch were created and last started, and their current assignee, status
+    and deadline, loaded from task_lifecycle and changed in memory while the batch is applied,
+    then written back in the same transaction
+ */
+public class TaskLifecycles {
+
+    private final Long2ObjectOpenHashMap<Lifecycle> lifecycles = new Long2ObjectOpenHashMap<>();
+    private final LongSortedSet changedTasks = new LongAVLTreeSet();
+    private final LongSortedSet deletedTasks = new LongAVLTreeSet();
+
+    public void load(long taskId, Lifecycle lifecycle) {
+        lifecycles.put(taskId, lifecycle);
+    }
+
+    public Lifecycle get(long taskId) {
+        return lifecycles.get(taskId);
+    }
+
+    // moves the task forward, readers of the previous state (cycle times, time series) must see the event first
+    public void apply(TaskEvent event) {
+        if (event.taskId() == null) {
+            return;
+        }
+        long taskId = event.taskId();
+
+        // deleted tasks leave the table, it only holds live tasks
+        if (event.eventType() == TaskEventType.DELETED) {
+            lifecycles.remove(taskId);
+            changedTasks.remove(taskId);
+            deletedTasks.add(taskId);
+            return;
+        }
+
+        Lifecycle lifecycle = lifecycles.get(taskId);
+        if (lifecycle == null) {
+            lifecycle = new Lifecycle(null, null, null, null, null, 0);
+            lifecycles.put(taskId, lifecycle);
+        }
+
+        if (event.eventType() == TaskEventType.CREATED) {
+            lifecycle.createdAt = event.timestamp();
+            lifecycle.startedAt = null;
+        } else if (event.newStatus() == TaskStatus.IN_PROGRESS && !Objects.equals(event.oldStatus(), event.newStatus())) {
+            lifecycle.startedAt = event.timestamp();
+        }
+
+        lifecycle.assignedUserId = event.assignedUserId();
+        lifecycle.status = event.newStatus();
+        lifecycle.deadline = event.deadline();
+
+        deletedTasks.remove(taskId);
+        changedTasks.add(taskId);
+    }
+
+    public LongSortedSet getChangedTasks() {
+        return changedTasks;
+    }
+
+    public LongSortedSet getDeletedTasks() {
+        return deletedTasks;
+    }
+
+    // revision is the stored one, bumped by every write of the row
+    @Getter
+    @AllArgsConstructor
+    public static class Lifecycle {
+        private LocalDateTime createdAt;
+        private LocalDateTime startedAt;
+        private Long assignedUserId;
+        private TaskStatus status;
+        private LocalDate deadline;
+        private long revision;
+    }
+}
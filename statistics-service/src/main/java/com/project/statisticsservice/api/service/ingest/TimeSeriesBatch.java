@@ -0,0 +1,113 @@
+package com.project.statisticsservice.api.service.ingest;
+
+import com.project.statisticsservice.api.dto.series.Granularity;
+import com.project.statisticsservice.api.service.series.LeadTimeHistogram;
+import it.unimi.dsi.fastutil.ints.Int2LongAVLTreeMap;
+import it.unimi.dsi.fastutil.ints.Int2LongSortedMap;
+import lombok.Getter;
+import task.kafka.TaskEvent;
+import task.kafka.TaskEventType;
+import task.model.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/*
+        TIME BUCKET ROLLUP
+    every event is counted in its hour, day and month bucket at once (rollup on write),
+    so a range read never aggregates more than the buckets it returns.
+    Buckets are keyed by TaskEvent.timestamp and striped like the global counters, so concurrent
+    lanes do not all wait on the current hour, day and month rows. Lead time is read from the lifecycle
+    before TaskLifecycles.apply moves it forward
+ */
+@Getter
+public class TimeSeriesBatch {
+
+    private final Map<BucketKey, BucketDelta> buckets = new TreeMap<>();
+
+    public void apply(TaskEvent event, TaskLifecycles lifecycles, int stripe) {
+        if (event.timestamp() == null || event.taskId() == null) {
+            return;
+        }
+
+        LocalDateTime time = event.timestamp();
+
+        if (event.eventType() == TaskEventType.DELETED) {
+            return;
+        }
+
+        if (event.eventType() == TaskEventType.CREATED) {
+            forEachBucket(time, stripe, BucketDelta::addCreated);
+            return;
+        }
+
+        if (Objects.equals(event.oldStatus(), event.newStatus())) {
+            return;
+        }
+
+        if (event.newStatus() == TaskStatus.IN_PROGRESS) {
+            forEachBucket(time, stripe, BucketDelta::addStarted);
+        } else if (event.newStatus() == TaskStatus.DONE) {
+            TaskLifecycles.Lifecycle lifecycle = lifecycles.get(event.taskId());
+            Long leadTimeSeconds = lifecycle != null && lifecycle.getCreatedAt() != null
+                    ? Math.max(0, Duration.between(lifecycle.getCreatedAt(), time).toSeconds())
+                    : null;
+
+            forEachBucket(time, stripe, bucket -> bucket.addDone(leadTimeSeconds));
+        }
+    }
+
+    private void forEachBucket(LocalDateTime time, int stripe, Consumer<BucketDelta> update) {
+        for (Granularity granularity : Granularity.values()) {
+            BucketKey key = new BucketKey(granularity, granularity.truncate(time), stripe);
+            update.accept(buckets.computeIfAbsent(key, k -> new BucketDelta()));
+        }
+    }
+
+    // same order as the primary key of stats_bucket
+    public record BucketKey(Granularity granularity, LocalDateTime bucketStart, int stripe) implements Comparable<BucketKey> {
+
+        private static final Comparator<BucketKey> ORDER = Comparator
+                .comparing(BucketKey::granularity)
+                .thenComparing(BucketKey::bucketStart)
+                .thenComparingInt(BucketKey::stripe);
+
+        @Override
+        public int compareTo(BucketKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    @Getter
+    public static class BucketDelta {
+        private long created;
+        private long started;
+        private long done;
+        private long leadTimeCount;
+        private long leadTimeSumSeconds;
+        private final Int2LongSortedMap leadTimeBins = new Int2LongAVLTreeMap();
+
+        void addCreated() {
+            created++;
+        }
+
+        void addStarted() {
+            started++;
+        }
+
+        // lead time is unknown for tasks created before lifecycles were recorded
+        void addDone(Long leadTimeSeconds) {
+            done++;
+            if (leadTimeSeconds != null) {
+                leadTimeCount++;
+                leadTimeSumSeconds += leadTimeSeconds;
+                leadTimeBins.mergeLong(LeadTimeHistogram.binOf(leadTimeSeconds), 1, Long::sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.project.statisticsservice.api.service.ingest;
+
+import lombok.Getter;
+import task.model.Priority;
+import task.model.TaskStatus;
+
+// change of one user_stats row folded from many events, an all-zero delta still makes sure the row exists
+@Getter
+public class UserStatsDelta {
+
+    private final long userId;
+
+    private long totalCreated;
+    private long totalAssigned;
+
+    private long todoCount;
+    private long inProgressCount;
+    private long doneCount;
+
+    private long lowPriorityCount;
+    private long mediumPriorityCount;
+    private long highPriorityCount;
+
+    public UserStatsDelta(long userId) {
+        this.userId = userId;
+    }
+
+    void addCreated(int delta) {
+        totalCreated += delta;
+    }
+
+    void addAssigned(int delta) {
+        totalAssigned += delta;
+    }
+
+    void addStatus(TaskStatus status, int delta) {
+        if (status == null) return;
+        switch (status) {
+            case CREATED -> todoCount += delta;
+            case IN_PROGRESS -> inProgressCount += delta;
+            case DONE -> doneCount += delta;
+        }
+    }
+
+    void addPriority(Priority priority, int delta) {
+        if (priority == null) return;
+        switch (priority) {
+            case LOW -> lowPriorityCount += delta;
+            case MEDIUM -> mediumPriorityCount += delta;
+            case HIGH -> highPriorityCount += delta;
+        }
+    }
+
+    public boolean isEmpty() {
+        return totalCreated == 0 && totalAssigned == 0 && todoCount == 0 && inProgressCount == 0 && doneCount == 0
+                && lowPriorityCount == 0 && mediumPriorityCount == 0 && highPriorityCount == 0;
+    }
+}
@@ -0,0 +1,47 @@
+package com.project.statisticsservice.api.service.ingest;
+
+import lombok.Getter;
+import task.kafka.TaskEvent;
+import task.kafka.TaskEventType;
+import task.model.TaskStatus;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+// completions per assignee and ISO week of TaskEvent.timestamp, reopening a task does not take one back
+@Getter
+public class WeeklyDoneBatch {
+
+    private final Map<WeekKey, Long> doneCounts = new TreeMap<>();
+
+    public void apply(TaskEvent event) {
+        if (event.eventType() != TaskEventType.UPDATED || event.newStatus() != TaskStatus.DONE
+                || Objects.equals(event.oldStatus(), event.newStatus())
+                || event.assignedUserId() == null || event.timestamp() == null) {
+            return;
+        }
+
+        LocalDate weekStart = weekStartOf(event.timestamp().toLocalDate());
+        doneCounts.merge(new WeekKey(weekStart, event.assignedUserId()), 1L, Long::sum);
+    }
+
+    public static LocalDate weekStartOf(LocalDate day) {
+        return day.with(DayOfWeek.MONDAY);
+    }
+
+    public record WeekKey(LocalDate weekStart, long userId) implements Comparable<WeekKey> {
+
+        private static final Comparator<WeekKey> ORDER = Comparator
+                .comparing(WeekKey::weekStart)
+                .thenComparingLong(WeekKey::userId);
+
+        @Override
+        public int compareTo(WeekKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.project.statisticsservice.api.service.leaderboard;
+
+import com.project.statisticsservice.api.dto.leaderboard.LeaderboardEntryDto;
+import com.project.statisticsservice.api.service.ingest.WeeklyDoneBatch;
+import com.project.statisticsservice.api.service.readmodel.StatsChanges;
+import com.project.statisticsservice.api.service.readmodel.TaskStateRow;
+import com.project.statisticsservice.api.service.readmodel.WeeklyDoneRow;
+import com.project.statisticsservice.repository.TaskLifecycleRepository;
+import com.project.statisticsservice.repository.UserWeeklyStatsRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import task.model.TaskStatus;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+        LEADERBOARDS
+    "done this week" and "overdue in progress" rankings kept incrementally from the committed rows
+    the Kafka listener hands over, like the stats read model.
+    Overdue is time driven: in-progress tasks wait in a deadline heap and move to overdue when their
+    deadline day has passed. Readers only see immutable top-K lists published after every change,
+    so a read is O(K) and never waits for a writer.
+    Rebuilt from user_weekly_stats and task_lifecycle at startup and on every resync, which also picks up
+    changes applied by other instances. The snapshot is read into fresh standings outside the writer lock;
+    changes applied meanwhile are recorded and replayed onto it before it is swapped in, so the listener
+    only waits for the replay. Rows carry revisions, so a replayed change older than the snapshot is ignored
+ */
+@Component
+@Profile("!streams")
+public class Leaderboards {
+
+    private final UserWeeklyStatsRepository userWeeklyStatsRepository;
+    private final TaskLifecycleRepository taskLifecycleRepository;
+    private final Clock clock = Clock.systemDefaultZone();
+    private final int size;
+    private final Timer rebuildTimer;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // writer side, guarded by lock
+    private Standings standings;
+    // null unless a rebuild is reading its snapshot
+    private List<StatsChanges> changesDuringRebuild;
+
+    private final AtomicReference<Boards> boards = new AtomicReference<>(new Boards(List.of(), List.of()));
+
+    public Leaderboards(UserWeeklyStatsRepository userWeeklyStatsRepository,
+                        TaskLifecycleRepository taskLifecycleRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${stats.leaderboard.size:100}") int size) {
+        this.userWeeklyStatsRepository = userWeeklyStatsRepository;
+        this.taskLifecycleRepository = taskLifecycleRepository;
+        this.size = size;
+        this.rebuildTimer = Timer.builder("stats.leaderboard.rebuild").register(meterRegistry);
+        this.standings = new Standings(WeeklyDoneBatch.weekStartOf(LocalDate.now(clock)));
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public List<LeaderboardEntryDto> doneThisWeek(int limit) {
+        List<LeaderboardEntryDto> top = boards.get().doneThisWeek();
+        return top.subList(0, Math.min(limit, top.size()));
+    }
+
+    public List<LeaderboardEntryDto> overdue(int limit) {
+        List<LeaderboardEntryDto> top = boards.get().overdue();
+        return top.subList(0, Math.min(limit, top.size()));
+    }
+
+    @PostConstruct
+    @Scheduled(initialDelayString = "${stats.read-model.resync-interval:1m}",
+            fixedDelayString = "${stats.read-model.resync-interval:1m}")
+    public void rebuild() {
+        rebuildTimer.record(() -> {
+            lock.lock();
+            try {
+                changesDuringRebuild = new ArrayList<>();
+            } finally {
+                lock.unlock();
+            }
+
+            Standings rebuilt = null;
+            try {
+                rebuilt = readSnapshot();
+            } finally {
+                swapIn(rebuilt);
+            }
+        });
+    }
+
+    public void apply(StatsChanges changes) {
+        if (changes.weeklyDone().isEmpty() && changes.tasks().isEmpty() && changes.deletedTasks().isEmpty()) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            standings.apply(changes, LocalDate.now(clock));
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(changes);
+            }
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // deadlines are days, a task is overdue from the day after its deadline
+    @Scheduled(fixedDelayString = "${stats.leaderboard.overdue-check-interval:1m}")
+    public void advanceClock() {
+        lock.lock();
+        try {
+            if (standings.advance(LocalDate.now(clock))) {
+                publish();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Standings readSnapshot() {
+        LocalDate today = LocalDate.now(clock);
+        Standings snapshot = new Standings(WeeklyDoneBatch.weekStartOf(today));
+
+        userWeeklyStatsRepository.findWeek(snapshot.week).forEach(snapshot::applyWeekly);
+        taskLifecycleRepository.findInProgress().forEach(task -> snapshot.applyTask(task, today));
+        return snapshot;
+    }
+
+    // a failed read leaves the current standings in place
+    private void swapIn(Standings rebuilt) {
+        lock.lock();
+        try {
+            if (rebuilt != null) {
+                LocalDate today = LocalDate.now(clock);
+                changesDuringRebuild.forEach(changes -> rebuilt.apply(changes, today));
+                rebuilt.advance(today);
+                standings = rebuilt;
+                publish();
+            }
+            changesDuringRebuild = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void publish() {
+        boards.set(new Boards(List.copyOf(standings.doneThisWeek.top(size)), List.copyOf(standings.overdue.top(size))));
+    }
+
+    // both rankings and what feeds them, replaced as a whole by a rebuild
+    private static final class Standings {
+
+        private LocalDate week;
+        private final RankedScores doneThisWeek = new RankedScores();
+        private final Long2LongOpenHashMap weeklyRevisions = new Long2LongOpenHashMap();
+
+        private final RankedScores overdue = new RankedScores();
+        private final Long2ObjectOpenHashMap<TrackedTask> inProgress = new Long2ObjectOpenHashMap<>();
+        private final PriorityQueue<PendingDeadline> deadlines =
+                new PriorityQueue<>(Comparator.comparing(PendingDeadline::deadline));
+
+        Standings(LocalDate week) {
+            this.week = week;
+            this.weeklyRevisions.defaultReturnValue(-1);
+        }
+
+        void apply(StatsChanges changes, LocalDate today) {
+            changes.weeklyDone().forEach(this::applyWeekly);
+            changes.tasks().forEach(task -> applyTask(task, today));
+            changes.deletedTasks().forEach(this::untrack);
+        }
+
+        boolean advance(LocalDate today) {
+            boolean changed = false;
+
+            if (!WeeklyDoneBatch.weekStartOf(today).equals(week)) {
+                week = WeeklyDoneBatch.weekStartOf(today);
+                doneThisWeek.clear();
+                weeklyRevisions.clear();
+                changed = true;
+            }
+
+            while (!deadlines.isEmpty() && deadlines.peek().deadline().isBefore(today)) {
+                PendingDeadline due = deadlines.poll();
+                TrackedTask task = inProgress.get(due.taskId());
+                // stale heap entries of tasks that finished or moved their deadline are skipped
+                if (task != null && !task.overdue() && task.deadline().equals(due.deadline())) {
+                    inProgress.put(due.taskId(), task.markOverdue());
+                    overdue.add(task.assignedUserId(), 1);
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+
+        void applyWeekly(WeeklyDoneRow row) {
+            if (!row.weekStart().equals(week) || weeklyRevisions.get(row.userId()) >= row.revision()) {
+                return;
+            }
+            weeklyRevisions.put(row.userId(), row.revision());
+            doneThisWeek.set(row.userId(), row.doneCount());
+        }
+
+        void applyTask(TaskStateRow row, LocalDate today) {
+            TrackedTask current = inProgress.get(row.taskId());
+            if (current != null && current.revision() >= row.revision()) {
+                return;
+            }
+            untrack(row.taskId());
+
+            if (row.status() != TaskStatus.IN_PROGRESS || row.assignedUserId() == null || row.deadline() == null) {
+                return;
+            }
+
+            boolean isOverdue = row.deadline().isBefore(today);
+            inProgress.put(row.taskId(), new TrackedTask(row.revision(), row.assignedUserId(), row.deadline(), isOverdue));
+            if (isOverdue) {
+                overdue.add(row.assignedUserId(), 1);
+            } else {
+                deadlines.add(new PendingDeadline(row.deadline(), row.taskId()));
+            }
+        }
+
+        void untrack(long taskId) {
+            TrackedTask removed = inProgress.remove(taskId);
+            if (removed != null && removed.overdue()) {
+                overdue.add(removed.assignedUserId(), -1);
+            }
+        }
+    }
+
+    private record Boards(List<LeaderboardEntryDto> doneThisWeek, List<LeaderboardEntryDto> overdue) {
+    }
+
+    private record TrackedTask(long revision, long assignedUserId, LocalDate deadline, boolean overdue) {
+
+        TrackedTask markOverdue() {
+            return new TrackedTask(revision, assignedUserId, deadline, true);
+        }
+    }
+
+    private record PendingDeadline(LocalDate deadline, long taskId) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.project.statisticsservice.api.service.leaderboard;
+
+import com.project.statisticsservice.api.dto.leaderboard.LeaderboardEntryDto;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+
+/*
+    indexed ranking: the score of every user with a non-zero score by id, and the same entries ordered
+    by score (highest first, ties by user id), so a score change is O(log n) and the top K is read in O(K).
+    Not thread-safe, Leaderboards guards it
+ */
+class RankedScores {
+
+    private static final Comparator<Ranked> ORDER = Comparator
+            .comparingLong(Ranked::score).reversed()
+            .thenComparingLong(Ranked::userId);
+
+    private final Long2LongOpenHashMap scores = new Long2LongOpenHashMap();
+    private final TreeSet<Ranked> ranking = new TreeSet<>(ORDER);
+
+    void set(long userId, long score) {
+        long previous = scores.get(userId);
+        if (previous == score) {
+            return;
+        }
+
+        if (previous != 0) {
+            ranking.remove(new Ranked(userId, previous));
+        }
+
+        if (score == 0) {
+            scores.remove(userId);
+        } else {
+            scores.put(userId, score);
+            ranking.add(new Ranked(userId, score));
+        }
+    }
+
+    void add(long userId, long delta) {
+        set(userId, scores.get(userId) + delta);
+    }
+
+    void clear() {
+        scores.clear();
+        ranking.clear();
+    }
+
+    List<LeaderboardEntryDto> top(int k) {
+        List<LeaderboardEntryDto> top = new ArrayList<>(Math.min(k, ranking.size()));
+        Iterator<Ranked> iterator = ranking.iterator();
+        while (top.size() < k && iterator.hasNext()) {
+            Ranked ranked = iterator.next();
+            top.add(new LeaderboardEntryDto(top.size() + 1, ranked.userId(), ranked.score()));
+        }
+        return top;
+    }
+
+    private record Ranked(long userId, long score) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.project.statisticsservice.api.service.readmodel;
+
+import com.project.statisticsservice.api.service.cycle.CyclePhase;
+
+// one cycle_time_sketch row as committed, decoded only by a reader that does not have this revision yet
+public record SketchRow(
+        long owner,
+        CyclePhase phase,
+        long revision,
+        byte[] encoded
+) {
+}
@@ -0,0 +1,30 @@
+package com.project.statisticsservice.api.service.readmodel;
+
+import java.util.List;
+
+// rows written by one committed ingest transaction
+public record StatsChanges(
+        List<StripeCounters> stripes,
+        List<UserCounters> users,
+        List<SketchRow> sketches,
+        List<WeeklyDoneRow> weeklyDone,
+        List<TaskStateRow> tasks,
+        List<Long> deletedTasks
+) {
+
+    public static StatsChanges empty() {
+        return new StatsChanges(List.of(), List.of(), List.of(), List.of(), List.of(), List.of());
+    }
+
+    public static StatsChanges ofStripes(List<StripeCounters> stripes) {
+        return new StatsChanges(stripes, List.of(), List.of(), List.of(), List.of(), List.of());
+    }
+
+    public static StatsChanges ofUsers(List<UserCounters> users) {
+        return new StatsChanges(List.of(), users, List.of(), List.of(), List.of(), List.of());
+    }
+
+    public static StatsChanges ofSketches(List<SketchRow> sketches) {
+        return new StatsChanges(List.of(), List.of(), sketches, List.of(), List.of(), List.of());
+    }
+}
@@ -0,0 +1,288 @@
+package com.project.statisticsservice.api.service.readmodel;
+
+import com.project.statisticsservice.api.dto.cycle.CycleTimeDto;
+import com.project.statisticsservice.api.dto.task.TaskStatsDto;
+import com.project.statisticsservice.api.dto.user.UserStatsDto;
+import com.project.statisticsservice.api.service.cycle.CyclePhase;
+import com.project.statisticsservice.api.service.cycle.CycleTimeSketches;
+import com.project.statisticsservice.repository.StatsSnapshotRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.ToLongFunction;
+
+/*
+        IN-MEMORY READ MODEL
+    /stats reads are served from memory only. The global view is an immutable snapshot
+    swapped through an AtomicReference, per-user views live in a primitive-keyed map read
+    under the read lock and replaced as whole immutable entries. The map is not safe to read while it is
+    rehashed, so there is no optimistic read; the read lock is only contended while a batch is applied.
+
+    Writers hand in committed rows, never deltas: every row carries a revision bumped by each write,
+    and a row only replaces what is held if its revision is newer. So post-commit updates may arrive
+    in any order, and the periodic resync (which also picks up batches applied by other instances)
+    can overlap them without double counting
+ */
+@Slf4j
+@Component
+@Profile("!streams")
+public class StatsReadModel {
+
+    private final StatsSnapshotRepository statsSnapshotRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Timer resyncTimer;
+
+    private final StampedLock lock = new StampedLock();
+    private final Long2ObjectOpenHashMap<UserView> users = new Long2ObjectOpenHashMap<>();
+
+    // writer side only, guarded by the write lock
+    private final Long2ObjectOpenHashMap<StripeCounters> stripes = new Long2ObjectOpenHashMap<>();
+    private final Map<StripeSketchKey, StripeSketch> stripeSketches = new HashMap<>();
+
+    private final AtomicReference<GlobalView> global = new AtomicReference<>(GlobalView.EMPTY);
+
+    public StatsReadModel(StatsSnapshotRepository statsSnapshotRepository,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry) {
+        this.statsSnapshotRepository = statsSnapshotRepository;
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        this.resyncTimer = Timer.builder("stats.read.model.resync").register(meterRegistry);
+        Gauge.builder("stats.read.model.users", users, Long2ObjectOpenHashMap::size)
+                .register(meterRegistry);
+
+        // live task counts for dashboards, read from the global view and never from the database
+        taskGauge(meterRegistry, "stats.tasks", "status", "todo",
+                totals -> totals.totalCreated() - totals.totalInProgress() - totals.totalDone());
+        taskGauge(meterRegistry, "stats.tasks", "status", "in_progress", StripeCounters::totalInProgress);
+        taskGauge(meterRegistry, "stats.tasks", "status", "done", StripeCounters::totalDone);
+        taskGauge(meterRegistry, "stats.tasks.priority", "priority", "low", StripeCounters::lowPriorityCount);
+        taskGauge(meterRegistry, "stats.tasks.priority", "priority", "medium", StripeCounters::mediumPriorityCount);
+        taskGauge(meterRegistry, "stats.tasks.priority", "priority", "high", StripeCounters::highPriorityCount);
+    }
+
+    // runs before the Kafka listener containers start, so the first batch lands on a warm model
+    @PostConstruct
+    public void warm() {
+        resync();
+        log.info("Stats read model warmed with {} users", users.size());
+    }
+
+    @Scheduled(initialDelayString = "${stats.read-model.resync-interval:1m}",
+            fixedDelayString = "${stats.read-model.resync-interval:1m}")
+    public void resync() {
+        resyncTimer.record(() -> readOnlyTransaction.executeWithoutResult(status -> {
+            apply(StatsChanges.ofStripes(statsSnapshotRepository.findStripes()));
+            statsSnapshotRepository.streamUsers(chunk -> apply(StatsChanges.ofUsers(chunk)));
+            statsSnapshotRepository.streamSketches(chunk -> apply(StatsChanges.ofSketches(chunk)));
+        }));
+    }
+
+    public void apply(StatsChanges changes) {
+        long stamp = lock.writeLock();
+        try {
+            boolean globalChanged = false;
+            for (StripeCounters stripe : changes.stripes()) {
+                globalChanged |= applyStripe(stripe);
+            }
+            for (UserCounters counters : changes.users()) {
+                applyUser(counters);
+            }
+            for (SketchRow sketch : changes.sketches()) {
+                globalChanged |= sketch.owner() < 0 ? applyStripeSketch(sketch) : applyUserSketch(sketch);
+            }
+
+            if (globalChanged) {
+                global.set(buildGlobal());
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public StatsView<TaskStatsDto> global() {
+        GlobalView view = global.get();
+        StripeCounters totals = view.totals();
+
+        TaskStatsDto stats = TaskStatsDto.builder()
+                .totalCreated(totals.totalCreated())
+                .totalInProgress(totals.totalInProgress())
+                .totalDone(totals.totalDone())
+                .lowPriorityCount(totals.lowPriorityCount())
+                .mediumPriorityCount(totals.mediumPriorityCount())
+                .highPriorityCount(totals.highPriorityCount())
+                .timeToStart(view.timeToStart())
+                .timeToDone(view.timeToDone())
+                .build();
+
+        return new StatsView<>("g-" + view.countersRevision() + "-" + view.sketchesRevision(), stats);
+    }
+
+    // unknown users get zeros, nothing is written
+    public StatsView<UserStatsDto> user(long userId) {
+        UserView view = readUser(userId);
+        if (view == null) {
+            view = UserView.EMPTY;
+        }
+
+        UserStatsDto stats = UserStatsDto.builder()
+                .userId(userId)
+                .timeToStart(view.timeToStart())
+                .timeToDone(view.timeToDone())
+                .build();
+
+        UserCounters counters = view.counters();
+        if (counters != null) {
+            stats.setTotalCreated((int) counters.totalCreated());
+            stats.setTotalAssigned((int) counters.totalAssigned());
+            stats.setTodoCount((int) counters.todoCount());
+            stats.setInProgressCount((int) counters.inProgressCount());
+            stats.setDoneCount((int) counters.doneCount());
+            stats.setLowPriorityCount((int) counters.lowPriorityCount());
+            stats.setMediumPriorityCount((int) counters.mediumPriorityCount());
+            stats.setHighPriorityCount((int) counters.highPriorityCount());
+        }
+
+        String etag = "u" + userId + "-" + (counters == null ? 0 : counters.revision())
+                + "-" + Math.max(view.timeToStartRevision(), 0) + "-" + Math.max(view.timeToDoneRevision(), 0);
+        return new StatsView<>(etag, stats);
+    }
+
+    private UserView readUser(long userId) {
+        long stamp = lock.readLock();
+        try {
+            return users.get(userId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private boolean applyStripe(StripeCounters stripe) {
+        StripeCounters current = stripes.get(stripe.stripe());
+        if (current != null && current.revision() >= stripe.revision()) {
+            return false;
+        }
+        stripes.put(stripe.stripe(), stripe);
+        return true;
+    }
+
+    private void applyUser(UserCounters counters) {
+        UserView current = users.getOrDefault(counters.userId(), UserView.EMPTY);
+        if (current.counters() != null && current.counters().revision() >= counters.revision()) {
+            return;
+        }
+        users.put(counters.userId(), current.withCounters(counters));
+    }
+
+    private boolean applyUserSketch(SketchRow row) {
+        UserView current = users.getOrDefault(row.owner(), UserView.EMPTY);
+        if (current.revisionOf(row.phase()) >= row.revision()) {
+            return false;
+        }
+
+        CycleTimeDto cycleTime = CycleTimeSketches.toDto(CycleTimeSketches.decode(row.encoded()));
+        users.put(row.owner(), current.withCycleTime(row.phase(), row.revision(), cycleTime));
+        return false;
+    }
+
+    private boolean applyStripeSketch(SketchRow row) {
+        StripeSketchKey key = new StripeSketchKey(row.owner(), row.phase());
+        StripeSketch current = stripeSketches.get(key);
+        if (current != null && current.revision() >= row.revision()) {
+            return false;
+        }
+        stripeSketches.put(key, new StripeSketch(row.revision(), CycleTimeSketches.decode(row.encoded())));
+        return true;
+    }
+
+    private GlobalView buildGlobal() {
+        long revision = 0;
+        long totalCreated = 0, totalInProgress = 0, totalDone = 0, low = 0, medium = 0, high = 0;
+        for (StripeCounters stripe : stripes.values()) {
+            revision += stripe.revision();
+            totalCreated += stripe.totalCreated();
+            totalInProgress += stripe.totalInProgress();
+            totalDone += stripe.totalDone();
+            low += stripe.lowPriorityCount();
+            medium += stripe.mediumPriorityCount();
+            high += stripe.highPriorityCount();
+        }
+
+        long sketchesRevision = 0;
+        Map<CyclePhase, Histogram> merged = new EnumMap<>(CyclePhase.class);
+        for (CyclePhase phase : CyclePhase.values()) {
+            merged.put(phase, CycleTimeSketches.empty());
+        }
+        for (Map.Entry<StripeSketchKey, StripeSketch> entry : stripeSketches.entrySet()) {
+            sketchesRevision += entry.getValue().revision();
+            merged.get(entry.getKey().phase()).add(entry.getValue().sketch());
+        }
+
+        return new GlobalView(
+                new StripeCounters(0, revision, totalCreated, totalInProgress, totalDone, low, medium, high),
+                revision,
+                sketchesRevision,
+                CycleTimeSketches.toDto(merged.get(CyclePhase.CREATED_TO_IN_PROGRESS)),
+                CycleTimeSketches.toDto(merged.get(CyclePhase.IN_PROGRESS_TO_DONE)));
+    }
+
+    private void taskGauge(MeterRegistry meterRegistry, String name, String tag, String value,
+                           ToLongFunction<StripeCounters> count) {
+        Gauge.builder(name, global, view -> count.applyAsLong(view.get().totals()))
+                .tag(tag, value)
+                .register(meterRegistry);
+    }
+
+    private record GlobalView(StripeCounters totals, long countersRevision, long sketchesRevision,
+                              CycleTimeDto timeToStart, CycleTimeDto timeToDone) {
+
+        static final GlobalView EMPTY = new GlobalView(new StripeCounters(0, 0, 0, 0, 0, 0, 0, 0), 0, 0,
+                CycleTimeSketches.toDto(CycleTimeSketches.empty()), CycleTimeSketches.toDto(CycleTimeSketches.empty()));
+    }
+
+    // immutable, replaced as a whole so a reader never sees half of an update; revision -1 = not loaded
+    private record UserView(UserCounters counters,
+                            long timeToStartRevision, CycleTimeDto timeToStart,
+                            long timeToDoneRevision, CycleTimeDto timeToDone) {
+
+        static final CycleTimeDto NO_CYCLE_TIME = new CycleTimeDto(0, null, null, null);
+        static final UserView EMPTY = new UserView(null, -1, NO_CYCLE_TIME, -1, NO_CYCLE_TIME);
+
+        long revisionOf(CyclePhase phase) {
+            return phase == CyclePhase.CREATED_TO_IN_PROGRESS ? timeToStartRevision : timeToDoneRevision;
+        }
+
+        UserView withCounters(UserCounters newCounters) {
+            return new UserView(newCounters, timeToStartRevision, timeToStart, timeToDoneRevision, timeToDone);
+        }
+
+        UserView withCycleTime(CyclePhase phase, long revision, CycleTimeDto cycleTime) {
+            return phase == CyclePhase.CREATED_TO_IN_PROGRESS
+                    ? new UserView(counters, revision, cycleTime, timeToDoneRevision, timeToDone)
+                    : new UserView(counters, timeToStartRevision, timeToStart, revision, cycleTime);
+        }
+    }
+
+    private record StripeSketchKey(long owner, CyclePhase phase) {
+    }
+
+    private record StripeSketch(long revision, Histogram sketch) {
+    }
+}
@@ -0,0 +1,5 @@
+package com.project.statisticsservice.api.service.readmodel;
+
+// a read model response with the ETag of the revisions it was built from
+public record StatsView<T>(String etag, T body) {
+}
@@ -0,0 +1,14 @@
+package com.project.statisticsservice.api.service.readmodel;
+
+// one global_task_stats row as committed, revision grows with every write of the row
+public record StripeCounters(
+        long stripe,
+        long revision,
+        long totalCreated,
+        long totalInProgress,
+        long totalDone,
+        long lowPriorityCount,
+        long mediumPriorityCount,
+        long highPriorityCount
+) {
+}
@@ -0,0 +1,15 @@
+package com.project.statisticsservice.api.service.readmodel;
+
+import task.model.TaskStatus;
+
+import java.time.LocalDate;
+
+// one task_lifecycle row as committed, revision grows with every write of the row
+public record TaskStateRow(
+        long taskId,
+        long revision,
+        Long assignedUserId,
+        TaskStatus status,
+        LocalDate deadline
+) {
+}
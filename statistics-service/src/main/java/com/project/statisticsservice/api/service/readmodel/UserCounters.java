@@ -0,0 +1,16 @@
+package com.project.statisticsservice.api.service.readmodel;
+
+// one user_stats row as committed, revision grows with every write of the row
+public record UserCounters(
+        long userId,
+        long revision,
+        long totalCreated,
+        long totalAssigned,
+        long todoCount,
+        long inProgressCount,
+        long doneCount,
+        long lowPriorityCount,
+        long mediumPriorityCount,
+        long highPriorityCount
+) {
+}
@@ -0,0 +1,12 @@
+package com.project.statisticsservice.api.service.readmodel;
+
+import java.time.LocalDate;
+
+// one user_weekly_stats row as committed, weekStart is the Monday of the ISO week
+public record WeeklyDoneRow(
+        LocalDate weekStart,
+        long userId,
+        long doneCount,
+        long revision
+) {
+}
@@ -0,0 +1,11 @@
+package com.project.statisticsservice.api.service.reconcile;
+
+// recomputed counters of one user next to its user_stats row, revisions are null where there was no row
+public record ReconcileRow(
+        long ownerId,
+        Long baselineRevision,
+        long[] expected,
+        Long currentRevision,
+        long[] current
+) {
+}
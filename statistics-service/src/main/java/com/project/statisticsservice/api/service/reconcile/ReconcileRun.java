@@ -0,0 +1,5 @@
+package com.project.statisticsservice.api.service.reconcile;
+
+// a claimed reconciliation run, task ids above max_task_id go to one open-ended last range
+public record ReconcileRun(long runId, long maxTaskId) {
+}
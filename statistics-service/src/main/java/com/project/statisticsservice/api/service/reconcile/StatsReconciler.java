@@ -0,0 +1,395 @@
+package com.project.statisticsservice.api.service.reconcile;
+
+import com.project.statisticsservice.api.service.readmodel.StatsChanges;
+import com.project.statisticsservice.api.service.readmodel.StatsReadModel;
+import com.project.statisticsservice.api.service.readmodel.StripeCounters;
+import com.project.statisticsservice.api.service.readmodel.UserCounters;
+import com.project.statisticsservice.client.TaskExportClient;
+import com.project.statisticsservice.repository.StatsReconcileRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+        COUNTER RECONCILIATION
+    recomputes global and user counters from task-service, the source of truth, and corrects drift
+    (lost or doubly applied events) while the Kafka listener keeps ingesting.
+
+    1. a run fixes the task id space (max id seen by the ingest, plus an open-ended last range) and
+       records the revision of every stats row as baseline
+    2. the id space is split into ranges of stats.reconcile.range-size ids and counted by fork/join,
+       each range is read from /tasks/export in keyset pages, throttled to stats.reconcile.tasks-per-second,
+       and its counters are added to stats_reconcile_counts in the transaction that marks it counted.
+       A run that stops is resumed from its counted ranges (on the next tick once its heartbeat is stale)
+    3. after stats.reconcile.settle, so events in flight reach the counters, drifted rows are replaced in
+       batches. A row written by the ingest since the baseline is left alone (counted as skipped), the
+       recomputed value may be older than that write; the next run corrects it
+ */
+@Slf4j
+@Profile("!streams")
+@Service
+public class StatsReconciler {
+
+    private final StatsReconcileRepository reconcileRepository;
+    private final TaskExportClient taskExportClient;
+    private final StatsReadModel statsReadModel;
+    private final TransactionTemplate transaction;
+
+    private final long rangeSize;
+    private final int pageSize;
+    private final int parallelism;
+    private final int tasksPerSecond;
+    private final int batchSize;
+    private final Duration settle;
+    private final Duration staleAfter;
+
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("stats-reconcile").daemon().factory());
+    private final AtomicBoolean busy = new AtomicBoolean();
+    private final AtomicLong nextPermitNanos = new AtomicLong(System.nanoTime());
+    private final AtomicLong lastDriftedRows = new AtomicLong();
+
+    private final MeterRegistry meterRegistry;
+    private final Counter tasksCounter;
+    private final Counter failuresCounter;
+    private final Timer runTimer;
+
+    public StatsReconciler(StatsReconcileRepository reconcileRepository,
+                           TaskExportClient taskExportClient,
+                           StatsReadModel statsReadModel,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${stats.reconcile.range-size:10000}") long rangeSize,
+                           @Value("${stats.reconcile.page-size:1000}") int pageSize,
+                           @Value("${stats.reconcile.parallelism:2}") int parallelism,
+                           @Value("${stats.reconcile.tasks-per-second:5000}") int tasksPerSecond,
+                           @Value("${stats.reconcile.batch-size:500}") int batchSize,
+                           @Value("${stats.reconcile.settle:30s}") Duration settle,
+                           @Value("${stats.reconcile.stale-after:10m}") Duration staleAfter) {
+        if (rangeSize < 1 || pageSize < 1 || parallelism < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("stats.reconcile range-size, page-size, parallelism and batch-size must be positive");
+        }
+
+        this.reconcileRepository = reconcileRepository;
+        this.taskExportClient = taskExportClient;
+        this.statsReadModel = statsReadModel;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.rangeSize = rangeSize;
+        this.pageSize = pageSize;
+        this.parallelism = parallelism;
+        this.tasksPerSecond = tasksPerSecond;
+        this.batchSize = batchSize;
+        this.settle = settle;
+        this.staleAfter = staleAfter;
+
+        this.meterRegistry = meterRegistry;
+        this.tasksCounter = Counter.builder("stats.reconcile.tasks").register(meterRegistry);
+        this.failuresCounter = Counter.builder("stats.reconcile.failures").register(meterRegistry);
+        this.runTimer = Timer.builder("stats.reconcile.duration").register(meterRegistry);
+        Gauge.builder("stats.reconcile.drifted.rows", lastDriftedRows, AtomicLong::get)
+                .description("rows found drifted by the last finished run")
+                .register(meterRegistry);
+    }
+
+    // starts a run, or takes over one whose instance died
+    @Scheduled(cron = "${stats.reconcile.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        submit(true);
+    }
+
+    // resumes a stopped run without waiting for the next cron tick
+    @Scheduled(initialDelayString = "${stats.reconcile.stale-after:10m}",
+            fixedDelayString = "${stats.reconcile.stale-after:10m}")
+    public void resumeStaleRun() {
+        submit(false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+
+    // the run takes minutes, it gets its own thread instead of holding the scheduler
+    private void submit(boolean startNew) {
+        if (!busy.compareAndSet(false, true)) {
+            return;
+        }
+
+        runner.execute(() -> {
+            try {
+                claim(startNew).ifPresent(run -> runTimer.record(() -> reconcile(run)));
+            } catch (RuntimeException e) {
+                failuresCounter.increment();
+                log.error("Stats reconciliation failed, it is resumed once its heartbeat is stale", e);
+            } finally {
+                busy.set(false);
+            }
+        });
+    }
+
+    private Optional<ReconcileRun> claim(boolean startNew) {
+        Optional<ReconcileRun> stale = reconcileRepository.claimStale(staleAfter);
+        if (stale.isPresent()) {
+            log.info("Resuming stats reconciliation run {}", stale.get().runId());
+            return stale;
+        }
+        if (!startNew || reconcileRepository.isRunning()) {
+            return Optional.empty();
+        }
+
+        try {
+            ReconcileRun run = transaction.execute(status -> reconcileRepository.start());
+            log.info("Started stats reconciliation run {} up to task id {}", run.runId(), run.maxTaskId());
+            return Optional.of(run);
+        } catch (DuplicateKeyException e) {
+            // another instance started one first
+            return Optional.empty();
+        }
+    }
+
+    private void reconcile(ReconcileRun run) {
+        LongSet counted = reconcileRepository.countedRanges(run.runId());
+        long ranges = run.maxTaskId() / rangeSize + 1;
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long tasks;
+        try {
+            tasks = pool.invoke(new RangeCount(run, counted, 0, ranges));
+        } finally {
+            pool.shutdownNow();
+        }
+        log.info("Stats reconciliation run {} counted {} tasks in {} ranges", run.runId(), tasks, ranges - counted.size());
+
+        sleep(settle);
+
+        Outcome outcome = new Outcome();
+        correctGlobal(run, outcome);
+        correctUsers(run, outcome);
+
+        transaction.executeWithoutResult(status ->
+                reconcileRepository.finish(run.runId(), outcome.drifted, outcome.corrected, outcome.skipped));
+        lastDriftedRows.set(outcome.drifted);
+        log.info("Stats reconciliation run {} finished: drifted={}, corrected={}, skipped={}",
+                run.runId(), outcome.drifted, outcome.corrected, outcome.skipped);
+    }
+
+    /*
+        the stripes are locked together, so their revision sum can be compared with the baseline,
+        the difference is added to the first stripe
+     */
+    private void correctGlobal(ReconcileRun run, Outcome outcome) {
+        Optional<StripeCounters> written = transaction.execute(status -> {
+            ReconcileRow expected = reconcileRepository.findGlobalCounts(run.runId());
+            List<StripeCounters> stripes = reconcileRepository.lockStripes();
+            if (stripes.isEmpty()) {
+                return Optional.<StripeCounters>empty();
+            }
+
+            long revision = 0;
+            long[] current = new long[TaskCounts.SLOTS];
+            for (StripeCounters stripe : stripes) {
+                revision += stripe.revision();
+                current[TaskCounts.TOTAL_CREATED] += stripe.totalCreated();
+                current[TaskCounts.IN_PROGRESS] += stripe.totalInProgress();
+                current[TaskCounts.DONE] += stripe.totalDone();
+                current[TaskCounts.LOW] += stripe.lowPriorityCount();
+                current[TaskCounts.MEDIUM] += stripe.mediumPriorityCount();
+                current[TaskCounts.HIGH] += stripe.highPriorityCount();
+            }
+
+            long drift = TaskCounts.drift(expected.expected(), current);
+            if (drift == 0) {
+                return Optional.<StripeCounters>empty();
+            }
+            outcome.drifted++;
+            driftSummary("global").record(drift);
+
+            if (expected.baselineRevision() == null || expected.baselineRevision() != revision) {
+                outcome.skip("global");
+                return Optional.<StripeCounters>empty();
+            }
+
+            long[] delta = new long[TaskCounts.SLOTS];
+            for (int slot = 0; slot < TaskCounts.SLOTS; slot++) {
+                delta[slot] = expected.expected()[slot] - current[slot];
+            }
+            outcome.apply("global");
+            return reconcileRepository.addToStripe(stripes.getFirst().stripe(), delta);
+        });
+
+        written.ifPresent(stripe -> statsReadModel.apply(StatsChanges.ofStripes(List.of(stripe))));
+    }
+
+    private void correctUsers(ReconcileRun run, Outcome outcome) {
+        long afterUserId = TaskCounts.GLOBAL;
+        while (true) {
+            List<ReconcileRow> rows = reconcileRepository.findUserCounts(run.runId(), afterUserId, batchSize);
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            List<UserCounters> written = transaction.execute(status -> correctUserBatch(rows, outcome));
+            if (!written.isEmpty()) {
+                statsReadModel.apply(StatsChanges.ofUsers(written));
+            }
+
+            afterUserId = rows.getLast().ownerId();
+            reconcileRepository.heartbeat(run.runId());
+            throttle(rows.size());
+        }
+    }
+
+    private List<UserCounters> correctUserBatch(List<ReconcileRow> rows, Outcome outcome) {
+        List<UserCounters> written = new ArrayList<>();
+        for (ReconcileRow row : rows) {
+            long drift = TaskCounts.drift(row.expected(), row.current());
+            if (drift == 0) {
+                continue;
+            }
+            outcome.drifted++;
+            driftSummary("user").record(drift);
+
+            Optional<UserCounters> corrected;
+            if (row.baselineRevision() == null && row.currentRevision() == null) {
+                corrected = reconcileRepository.insertUser(row.ownerId(), row.expected());
+            } else if (row.baselineRevision() != null && row.baselineRevision().equals(row.currentRevision())) {
+                corrected = reconcileRepository.replaceUser(row.ownerId(), row.baselineRevision(), row.expected());
+            } else {
+                corrected = Optional.empty();
+            }
+
+            if (corrected.isPresent()) {
+                outcome.apply("user");
+                written.add(corrected.get());
+            } else {
+                outcome.skip("user");
+            }
+        }
+        return written;
+    }
+
+    private long countRange(ReconcileRun run, long range) {
+        long afterId = range * rangeSize;
+        long toId = range == run.maxTaskId() / rangeSize ? Long.MAX_VALUE : afterId + rangeSize;
+
+        TaskCounts counts = new TaskCounts();
+        long tasks = 0;
+        long pageAfter = afterId;
+        while (true) {
+            TaskExportClient.ExportPage page = taskExportClient.exportPage(pageAfter, toId, pageSize, counts::add);
+            tasks += page.rows();
+            throttle(page.rows());
+            if (page.rows() < pageSize) {
+                break;
+            }
+            pageAfter = page.lastId();
+        }
+
+        long rangeTasks = tasks;
+        transaction.executeWithoutResult(status ->
+                reconcileRepository.saveRange(run.runId(), afterId, toId, rangeTasks, counts));
+        tasksCounter.increment(tasks);
+        return tasks;
+    }
+
+    // rows already read are paid for afterwards, readers sleep until the shared budget allows them again
+    private void throttle(int rows) {
+        if (tasksPerSecond <= 0 || rows == 0) {
+            return;
+        }
+
+        long cost = rows * 1_000_000_000L / tasksPerSecond;
+        long now = System.nanoTime();
+        long start = nextPermitNanos.getAndAccumulate(cost, (next, add) -> Math.max(next, now) + add);
+        sleep(Duration.ofNanos(Math.max(start, now) - now));
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero() || duration.isNegative()) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(duration.toNanos());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Stats reconciliation interrupted", e);
+        }
+    }
+
+    private DistributionSummary driftSummary(String scope) {
+        return DistributionSummary.builder("stats.reconcile.drift")
+                .description("sum of absolute counter differences of a drifted row")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    // ranges [from, to) of the id space, split in halves down to single ranges
+    private final class RangeCount extends RecursiveTask<Long> {
+
+        private final ReconcileRun run;
+        private final LongSet counted;
+        private final long from;
+        private final long to;
+
+        RangeCount(ReconcileRun run, LongSet counted, long from, long to) {
+            this.run = run;
+            this.counted = counted;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from == 1) {
+                return counted.contains(from * rangeSize) ? 0L : countRange(run, from);
+            }
+
+            long middle = (from + to) >>> 1;
+            RangeCount left = new RangeCount(run, counted, from, middle);
+            left.fork();
+            long right = new RangeCount(run, counted, middle, to).compute();
+            return left.join() + right;
+        }
+    }
+
+    private final class Outcome {
+
+        private long drifted;
+        private long corrected;
+        private long skipped;
+
+        void apply(String scope) {
+            corrected++;
+            meterRegistry.counter("stats.reconcile.corrections", "scope", scope, "result", "applied").increment();
+        }
+
+        void skip(String scope) {
+            skipped++;
+            meterRegistry.counter("stats.reconcile.corrections", "scope", scope, "result", "skipped").increment();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.project.statisticsservice.api.service.reconcile;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import task.model.Priority;
+import task.model.TaskDto;
+import task.model.TaskStatus;
+
+/*
+    counters recomputed from task rows, one slot array per owner (user id, 0 = global) in the column order
+    of stats_reconcile_counts. Same meaning as the event path: users count created and assigned tasks,
+    status and priority of the tasks assigned to them; global counts every task, its priority and only
+    IN_PROGRESS / DONE
+ */
+public class TaskCounts {
+
+    public static final long GLOBAL = 0L;
+
+    public static final int TOTAL_CREATED = 0;
+    public static final int TOTAL_ASSIGNED = 1;
+    public static final int TODO = 2;
+    public static final int IN_PROGRESS = 3;
+    public static final int DONE = 4;
+    public static final int LOW = 5;
+    public static final int MEDIUM = 6;
+    public static final int HIGH = 7;
+    public static final int SLOTS = 8;
+
+    private final Long2ObjectOpenHashMap<long[]> owners = new Long2ObjectOpenHashMap<>();
+
+    public void add(TaskDto task) {
+        long[] global = owner(GLOBAL);
+        global[TOTAL_CREATED]++;
+        if (task.taskStatus() != TaskStatus.CREATED) {
+            addStatus(global, task.taskStatus());
+        }
+        addPriority(global, task.priority());
+
+        if (task.creatorId() != null) {
+            owner(task.creatorId())[TOTAL_CREATED]++;
+        }
+
+        if (task.assignedUserId() != null) {
+            long[] assignee = owner(task.assignedUserId());
+            assignee[TOTAL_ASSIGNED]++;
+            addStatus(assignee, task.taskStatus());
+            addPriority(assignee, task.priority());
+        }
+    }
+
+    public Long2ObjectMap<long[]> owners() {
+        return owners;
+    }
+
+    public boolean isEmpty() {
+        return owners.isEmpty();
+    }
+
+    // sum of absolute differences over all slots
+    public static long drift(long[] expected, long[] actual) {
+        long drift = 0;
+        for (int slot = 0; slot < SLOTS; slot++) {
+            drift += Math.abs(expected[slot] - actual[slot]);
+        }
+        return drift;
+    }
+
+    private long[] owner(long ownerId) {
+        return owners.computeIfAbsent(ownerId, id -> new long[SLOTS]);
+    }
+
+    private static void addStatus(long[] slots, TaskStatus status) {
+        if (status == null) return;
+        switch (status) {
+            case CREATED -> slots[TODO]++;
+            case IN_PROGRESS -> slots[IN_PROGRESS]++;
+            case DONE -> slots[DONE]++;
+        }
+    }
+
+    private static void addPriority(long[] slots, Priority priority) {
+        if (priority == null) return;
+        switch (priority) {
+            case LOW -> slots[LOW]++;
+            case MEDIUM -> slots[MEDIUM]++;
+            case HIGH -> slots[HIGH]++;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.project.statisticsservice.api.service.series;
+
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.ints.Int2LongSortedMap;
+import it.unimi.dsi.fastutil.ints.Int2LongAVLTreeMap;
+
+/*
+        LOG-SCALE LEAD TIME HISTOGRAM
+    bin 0 holds durations under a second, bin n >= 1 holds [2^((n-1)/8), 2^(n/8)) seconds,
+    8 bins per doubling, so a quantile read from the bins is within ~9% of the real value.
+    Histograms of different buckets are merged by adding the counts of equal bins
+ */
+public final class LeadTimeHistogram {
+
+    private static final int BINS_PER_DOUBLING = 8;
+
+    private final Int2LongSortedMap counts = new Int2LongAVLTreeMap();
+    private long total;
+
+    private LeadTimeHistogram() {
+    }
+
+    public static LeadTimeHistogram empty() {
+        return new LeadTimeHistogram();
+    }
+
+    public static int binOf(long seconds) {
+        if (seconds < 1) {
+            return 0;
+        }
+        return 1 + (int) Math.floor(BINS_PER_DOUBLING * Math.log(seconds) / Math.log(2));
+    }
+
+    public void add(int bin, long count) {
+        counts.mergeLong(bin, count, Long::sum);
+        total += count;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    // geometric middle of the bin that holds the q-th value, null if empty
+    public Double quantile(double q) {
+        if (total == 0) {
+            return null;
+        }
+
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (Int2LongMap.Entry entry : counts.int2LongEntrySet()) {
+            seen += entry.getLongValue();
+            if (seen >= Math.max(rank, 1)) {
+                return binMiddleSeconds(entry.getIntKey());
+            }
+        }
+        return binMiddleSeconds(counts.lastIntKey());
+    }
+
+    private static double binMiddleSeconds(int bin) {
+        if (bin == 0) {
+            return 0.5;
+        }
+        return Math.pow(2, (bin - 0.5) / BINS_PER_DOUBLING);
+    }
+}
@@ -0,0 +1,134 @@
+package com.project.statisticsservice.api.service.series;
+
+import com.project.statisticsservice.api.dto.series.Granularity;
+import com.project.statisticsservice.api.dto.series.LeadTimeSummaryDto;
+import com.project.statisticsservice.api.dto.series.StatsSeriesPointDto;
+import com.project.statisticsservice.repository.StatsSeriesRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+        TIME SERIES READS
+    ranges are served from the precomputed buckets only, never from events or tasks.
+    Empty buckets inside the range are returned as zero points so charts need no gap filling
+ */
+@Slf4j
+@Service
+@Profile("!streams")
+public class StatsSeriesService {
+
+    private final StatsSeriesRepository statsSeriesRepository;
+    private final int maxPoints;
+    private final Map<Granularity, Duration> retention = new EnumMap<>(Granularity.class);
+
+    public StatsSeriesService(StatsSeriesRepository statsSeriesRepository,
+                              @Value("${stats.series.max-points:2000}") int maxPoints,
+                              @Value("${stats.series.retention.hour:30d}") Duration hourRetention,
+                              @Value("${stats.series.retention.day:1095d}") Duration dayRetention) {
+        this.statsSeriesRepository = statsSeriesRepository;
+        this.maxPoints = maxPoints;
+        this.retention.put(Granularity.HOUR, hourRetention);
+        this.retention.put(Granularity.DAY, dayRetention);
+    }
+
+    public List<StatsSeriesPointDto> getSeries(Granularity granularity, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = granularity.truncate(from);
+        validateRange(granularity, start, to);
+
+        Map<LocalDateTime, StatsSeriesRepository.BucketRow> buckets = new HashMap<>();
+        for (StatsSeriesRepository.BucketRow bucket : statsSeriesRepository.findBuckets(granularity, start, to)) {
+            buckets.put(bucket.bucketStart(), bucket);
+        }
+
+        Map<LocalDateTime, LeadTimeHistogram> histograms = new HashMap<>();
+        for (StatsSeriesRepository.BinRow bin : statsSeriesRepository.findBins(granularity, start, to)) {
+            histograms.computeIfAbsent(bin.bucketStart(), k -> LeadTimeHistogram.empty()).add(bin.bin(), bin.count());
+        }
+
+        List<StatsSeriesPointDto> points = new ArrayList<>();
+        for (LocalDateTime bucketStart = start; bucketStart.isBefore(to); bucketStart = granularity.next(bucketStart)) {
+            StatsSeriesRepository.BucketRow bucket = buckets.get(bucketStart);
+            if (bucket == null) {
+                points.add(new StatsSeriesPointDto(bucketStart, 0, 0, 0, 0, null, null, null));
+                continue;
+            }
+
+            LeadTimeHistogram histogram = histograms.getOrDefault(bucketStart, LeadTimeHistogram.empty());
+            points.add(new StatsSeriesPointDto(
+                    bucketStart,
+                    bucket.created(),
+                    bucket.started(),
+                    bucket.done(),
+                    bucket.leadTimeCount(),
+                    average(bucket.leadTimeSumSeconds(), bucket.leadTimeCount()),
+                    histogram.quantile(0.5),
+                    histogram.quantile(0.9)
+            ));
+        }
+        return points;
+    }
+
+    // merges the histograms of all buckets in the range, coarser granularity reads fewer rows
+    public LeadTimeSummaryDto getLeadTime(Granularity granularity, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = granularity.truncate(from);
+        validateRange(granularity, start, to);
+
+        long count = 0;
+        long sumSeconds = 0;
+        for (StatsSeriesRepository.BucketRow bucket : statsSeriesRepository.findBuckets(granularity, start, to)) {
+            count += bucket.leadTimeCount();
+            sumSeconds += bucket.leadTimeSumSeconds();
+        }
+
+        LeadTimeHistogram histogram = LeadTimeHistogram.empty();
+        for (StatsSeriesRepository.BinRow bin : statsSeriesRepository.findBins(granularity, start, to)) {
+            histogram.add(bin.bin(), bin.count());
+        }
+
+        return new LeadTimeSummaryDto(start, to, count, average(sumSeconds, count),
+                histogram.quantile(0.5), histogram.quantile(0.9), histogram.quantile(0.99));
+    }
+
+    // hour and day buckets expire, month buckets are kept
+    @Scheduled(cron = "${stats.series.retention.cron:0 15 3 * * *}")
+    public void purgeExpiredBuckets() {
+        LocalDateTime now = LocalDateTime.now();
+        retention.forEach((granularity, keep) -> {
+            int removed = statsSeriesRepository.deleteBefore(granularity, granularity.truncate(now.minus(keep)));
+            if (removed > 0) {
+                log.info("Removed {} {} buckets older than {}", removed, granularity, keep);
+            }
+        });
+    }
+
+    private void validateRange(Granularity granularity, LocalDateTime start, LocalDateTime to) {
+        if (!start.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+
+        long points = switch (granularity) {
+            case HOUR -> Duration.between(start, to).toHours();
+            case DAY -> Duration.between(start, to).toDays();
+            case MONTH -> ChronoUnit.MONTHS.between(start, to);
+        };
+        if (points >= maxPoints) {
+            throw new IllegalArgumentException("Range covers more than " + maxPoints + " " + granularity + " buckets");
+        }
+    }
+
+    private static Double average(long sum, long count) {
+        return count == 0 ? null : (double) sum / count;
+    }
+}
@@ -0,0 +1,50 @@
+package com.project.statisticsservice.api.service.streams;
+
+import com.project.statisticsservice.api.service.ingest.TaskEventLedger;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessor;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessorContext;
+import org.apache.kafka.streams.processor.api.FixedKeyRecord;
+import org.apache.kafka.streams.state.KeyValueStore;
+import task.kafka.TaskEvent;
+
+/*
+    drops events that were already counted, by the same (taskId, sequence) rules as the JDBC ingest.
+    The outbox relay publishes at-least-once, exactly_once_v2 only covers what happens after the read.
+    The topic is keyed by task id, so the ledger state of a task lives in the task's partition
+ */
+class DuplicateEventFilter implements FixedKeyProcessor<Long, TaskEvent, TaskEvent> {
+
+    private FixedKeyProcessorContext<Long, TaskEvent> context;
+    private KeyValueStore<Long, TaskWatermark> ledgerStore;
+
+    @Override
+    public void init(FixedKeyProcessorContext<Long, TaskEvent> context) {
+        this.context = context;
+        this.ledgerStore = context.getStateStore(StatsStreamsTopology.LEDGER_STORE);
+    }
+
+    @Override
+    public void process(FixedKeyRecord<Long, TaskEvent> record) {
+        TaskEvent event = record.value();
+
+        // events published before event ids were introduced are counted without dedup
+        if (event.taskId() == null || event.sequence() == null) {
+            context.forward(record);
+            return;
+        }
+
+        long taskId = event.taskId();
+        TaskEventLedger ledger = new TaskEventLedger();
+        TaskWatermark stored = ledgerStore.get(taskId);
+        if (stored != null) {
+            ledger.load(taskId, stored.watermark(), stored.seenMask());
+        }
+
+        if (!ledger.markApplied(taskId, event.sequence())) {
+            return;
+        }
+
+        ledgerStore.put(taskId, new TaskWatermark(ledger.getWatermark(taskId), ledger.getSeenMask(taskId)));
+        context.forward(record);
+    }
+}
@@ -0,0 +1,41 @@
+package com.project.statisticsservice.api.service.streams;
+
+import com.project.statisticsservice.api.service.ingest.GlobalStatsDelta;
+import com.project.statisticsservice.api.service.ingest.UserStatsDelta;
+
+// value of the streams counter store, one per user id and one for the global stats (key 0)
+public record StatsCounters(long totalCreated,
+                            long totalAssigned,
+                            long todoCount,
+                            long inProgressCount,
+                            long doneCount,
+                            long lowPriorityCount,
+                            long mediumPriorityCount,
+                            long highPriorityCount) {
+
+    public static final StatsCounters ZERO = new StatsCounters(0, 0, 0, 0, 0, 0, 0, 0);
+
+    public static StatsCounters of(GlobalStatsDelta delta) {
+        return new StatsCounters(delta.getTotalCreated(), 0, 0,
+                delta.getTotalInProgress(), delta.getTotalDone(),
+                delta.getLowPriorityCount(), delta.getMediumPriorityCount(), delta.getHighPriorityCount());
+    }
+
+    public static StatsCounters of(UserStatsDelta delta) {
+        return new StatsCounters(delta.getTotalCreated(), delta.getTotalAssigned(),
+                delta.getTodoCount(), delta.getInProgressCount(), delta.getDoneCount(),
+                delta.getLowPriorityCount(), delta.getMediumPriorityCount(), delta.getHighPriorityCount());
+    }
+
+    public StatsCounters plus(StatsCounters other) {
+        return new StatsCounters(
+                totalCreated + other.totalCreated,
+                totalAssigned + other.totalAssigned,
+                todoCount + other.todoCount,
+                inProgressCount + other.inProgressCount,
+                doneCount + other.doneCount,
+                lowPriorityCount + other.lowPriorityCount,
+                mediumPriorityCount + other.mediumPriorityCount,
+                highPriorityCount + other.highPriorityCount);
+    }
+}
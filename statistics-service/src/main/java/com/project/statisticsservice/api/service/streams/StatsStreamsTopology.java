@@ -0,0 +1,97 @@
+package com.project.statisticsservice.api.service.streams;
+
+import com.project.statisticsservice.api.service.ingest.GlobalStatsDelta;
+import com.project.statisticsservice.api.service.ingest.StatsBatch;
+import com.project.statisticsservice.api.service.ingest.UserStatsDelta;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KTable;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.state.KeyValueBytesStoreSupplier;
+import org.apache.kafka.streams.state.Stores;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.annotation.EnableKafkaStreams;
+import org.springframework.kafka.support.serializer.JsonSerde;
+import task.kafka.TaskEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+        STREAMS STATISTICS ENGINE (profile "streams")
+    task-events already counted are dropped against the task-ledger store (DuplicateEventFilter), the rest
+    are folded by the same rules as the JDBC ingest (StatsBatch), re-keyed to one record per
+    touched user plus one for the global counters (key 0) and summed into the stats-counters store.
+    Both stores are local (RocksDB or in memory) and backed by compacted changelog topics, so a restarted or
+    moved instance restores it from Kafka instead of the database. Reads go through interactive queries
+ */
+@Profile("streams")
+@Configuration
+@EnableKafkaStreams
+public class StatsStreamsTopology {
+
+    public static final String TOPIC = "task-events";
+    public static final String STORE = "stats-counters";
+    public static final String LEDGER_STORE = "task-ledger";
+    public static final long GLOBAL_KEY = 0L;
+
+    @Bean
+    public KTable<Long, StatsCounters> statsCounters(StreamsBuilder builder,
+                                                     @Value("${stats.streams.store:rocksdb}") String store) {
+        return build(builder, storeSupplier(store, STORE), storeSupplier(store, LEDGER_STORE));
+    }
+
+    public static KeyValueBytesStoreSupplier storeSupplier(String store, String name) {
+        return switch (store) {
+            case "rocksdb" -> Stores.persistentKeyValueStore(name);
+            case "memory" -> Stores.inMemoryKeyValueStore(name);
+            default -> throw new IllegalArgumentException("stats.streams.store must be rocksdb or memory, was " + store);
+        };
+    }
+
+    public static KTable<Long, StatsCounters> build(StreamsBuilder builder, KeyValueBytesStoreSupplier countersStore,
+                                                    KeyValueBytesStoreSupplier ledgerStore) {
+        JsonSerde<TaskEvent> eventSerde = new JsonSerde<>(TaskEvent.class).ignoreTypeHeaders().noTypeInfo();
+        JsonSerde<StatsCounters> countersSerde = countersSerde();
+
+        builder.addStateStore(Stores.keyValueStoreBuilder(ledgerStore, Serdes.Long(),
+                new JsonSerde<>(TaskWatermark.class).ignoreTypeHeaders().noTypeInfo()));
+
+        return builder.stream(TOPIC, Consumed.with(Serdes.Long(), eventSerde))
+                .filter((taskId, event) -> event != null)
+                .processValues(DuplicateEventFilter::new, LEDGER_STORE)
+                .flatMap((taskId, event) -> deltas(event))
+                .groupByKey(Grouped.with("stats-deltas", Serdes.Long(), countersSerde))
+                .reduce(StatsCounters::plus,
+                        Materialized.<Long, StatsCounters>as(countersStore)
+                                .withKeySerde(Serdes.Long())
+                                .withValueSerde(countersSerde));
+    }
+
+    public static JsonSerde<StatsCounters> countersSerde() {
+        return new JsonSerde<>(StatsCounters.class).ignoreTypeHeaders().noTypeInfo();
+    }
+
+    // the stripe is irrelevant here, the store holds a single global row
+    private static List<KeyValue<Long, StatsCounters>> deltas(TaskEvent event) {
+        StatsBatch batch = StatsBatch.fold(List.of(event), 0);
+        List<KeyValue<Long, StatsCounters>> deltas = new ArrayList<>(batch.getUsers().size() + 1);
+
+        GlobalStatsDelta global = batch.getGlobals().get(0);
+        if (global != null && !global.isEmpty()) {
+            deltas.add(KeyValue.pair(GLOBAL_KEY, StatsCounters.of(global)));
+        }
+        for (UserStatsDelta user : batch.getUserDeltas()) {
+            if (!user.isEmpty()) {
+                deltas.add(KeyValue.pair(user.getUserId(), StatsCounters.of(user)));
+            }
+        }
+        return deltas;
+    }
+}
@@ -0,0 +1,91 @@
+package com.project.statisticsservice.api.service.streams;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyQueryMetadata;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.errors.StreamsNotStartedException;
+import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.util.Objects;
+
+/*
+        INTERACTIVE QUERIES
+    a key lives in the store of whichever instance owns its partition of the repartitioned deltas. The owner
+    is looked up in the streams metadata: local keys are read from the store, others are fetched from the
+    owning instance's /stats/private/counters endpoint (application.server must be set when running more
+    than one instance). While the store is restoring or rebalancing an InvalidStateStoreException is thrown,
+    which the API answers with 503
+ */
+@Slf4j
+@Profile("streams")
+@Component
+public class StreamsStatsQueries {
+
+    private final StreamsBuilderFactoryBean streamsBuilder;
+    private final RestClient restClient;
+
+    public StreamsStatsQueries(StreamsBuilderFactoryBean streamsBuilder, RestClient.Builder restClientBuilder) {
+        this.streamsBuilder = streamsBuilder;
+        this.restClient = restClientBuilder.build();
+    }
+
+    public StatsCounters counters(long key) {
+        KafkaStreams streams = streams();
+        KeyQueryMetadata metadata = streams.queryMetadataForKey(
+                StatsStreamsTopology.STORE, key, Serdes.Long().serializer());
+
+        HostInfo self = self();
+        if (self == null || metadata == KeyQueryMetadata.NOT_AVAILABLE || self.equals(metadata.activeHost())) {
+            return localCounters(key);
+        }
+        return remoteCounters(metadata.activeHost(), key);
+    }
+
+    // only this instance's store, never forwarded
+    public StatsCounters localCounters(long key) {
+        ReadOnlyKeyValueStore<Long, StatsCounters> store = streams().store(StoreQueryParameters.fromNameAndType(
+                StatsStreamsTopology.STORE, QueryableStoreTypes.keyValueStore()));
+        StatsCounters counters = store.get(key);
+        return counters != null ? counters : StatsCounters.ZERO;
+    }
+
+    private StatsCounters remoteCounters(HostInfo host, long key) {
+        try {
+            StatsCounters counters = restClient.get()
+                    .uri("http://{host}:{port}/stats/private/counters/{key}", host.host(), host.port(), key)
+                    .retrieve()
+                    .body(StatsCounters.class);
+            return Objects.requireNonNullElse(counters, StatsCounters.ZERO);
+        } catch (RestClientException e) {
+            log.warn("Stats counters {} not available from {}: {}", key, host, e.getMessage());
+            throw new InvalidStateStoreException("Stats counters " + key + " not available from " + host, e);
+        }
+    }
+
+    private KafkaStreams streams() {
+        KafkaStreams streams = streamsBuilder.getKafkaStreams();
+        if (streams == null) {
+            throw new StreamsNotStartedException("Stats streams are not started yet");
+        }
+        return streams;
+    }
+
+    private HostInfo self() {
+        String applicationServer = streamsBuilder.getStreamsConfiguration() != null
+                ? streamsBuilder.getStreamsConfiguration().getProperty("application.server")
+                : null;
+        return applicationServer == null || applicationServer.isBlank()
+                ? null
+                : HostInfo.buildFromEndpoint(applicationServer);
+    }
+}
@@ -0,0 +1,5 @@
+package com.project.statisticsservice.api.service.streams;
+
+// value of the streams ledger store, the TaskEventLedger state of one task
+public record TaskWatermark(long watermark, long seenMask) {
+}
@@ -0,0 +1,35 @@
+package com.project.statisticsservice.api.service.taskapi;
+
+import com.project.statisticsservice.api.dto.task.TaskStatsDto;
+import com.project.statisticsservice.api.service.readmodel.StatsView;
+import com.project.statisticsservice.api.service.streams.StatsCounters;
+import com.project.statisticsservice.api.service.streams.StatsStreamsTopology;
+import com.project.statisticsservice.api.service.streams.StreamsStatsQueries;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+@Profile("streams")
+@RequiredArgsConstructor
+@Service
+public class StreamsTaskStatisticService implements TaskStatisticService {
+
+    private final StreamsStatsQueries streamsStatsQueries;
+
+    // counters only, cycle times are kept by the JDBC engine; the store has no revisions so the ETag hashes the content
+    @Override
+    public StatsView<TaskStatsDto> getAllTaskStatistic() {
+        StatsCounters counters = streamsStatsQueries.counters(StatsStreamsTopology.GLOBAL_KEY);
+
+        TaskStatsDto stats = TaskStatsDto.builder()
+                .totalCreated(counters.totalCreated())
+                .totalInProgress(counters.inProgressCount())
+                .totalDone(counters.doneCount())
+                .lowPriorityCount(counters.lowPriorityCount())
+                .mediumPriorityCount(counters.mediumPriorityCount())
+                .highPriorityCount(counters.highPriorityCount())
+                .build();
+
+        return new StatsView<>("s-" + Integer.toHexString(counters.hashCode()), stats);
+    }
+}
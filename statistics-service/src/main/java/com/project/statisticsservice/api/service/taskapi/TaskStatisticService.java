@@ -1,10 +1,9 @@
 package com.project.statisticsservice.api.service.taskapi;
 
 import com.project.statisticsservice.api.dto.task.TaskStatsDto;
-import task.kafka.TaskEvent;
+import com.project.statisticsservice.api.service.readmodel.StatsView;
 
 public interface TaskStatisticService {
 
-    void processEvent(TaskEvent event);
-    TaskStatsDto getAllTaskStatistic();
+    StatsView<TaskStatsDto> getAllTaskStatistic();
 }
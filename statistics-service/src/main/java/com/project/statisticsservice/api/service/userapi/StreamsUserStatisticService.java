@@ -0,0 +1,41 @@
+package com.project.statisticsservice.api.service.userapi;
+
+import com.project.statisticsservice.api.dto.user.UserStatsDto;
+import com.project.statisticsservice.api.service.readmodel.StatsView;
+import com.project.statisticsservice.api.service.streams.StatsCounters;
+import com.project.statisticsservice.api.service.streams.StreamsStatsQueries;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+@Profile("streams")
+@RequiredArgsConstructor
+@Service
+public class StreamsUserStatisticService implements UserStatisticService {
+
+    private final StreamsStatsQueries streamsStatsQueries;
+
+    // key 0 holds the global counters, it is not a user
+    @Override
+    public StatsView<UserStatsDto> getUserStatsById(Long userId) {
+        if (userId <= 0) {
+            throw new IllegalArgumentException("User id must be positive");
+        }
+
+        StatsCounters counters = streamsStatsQueries.counters(userId);
+
+        UserStatsDto stats = UserStatsDto.builder()
+                .userId(userId)
+                .totalCreated((int) counters.totalCreated())
+                .totalAssigned((int) counters.totalAssigned())
+                .todoCount((int) counters.todoCount())
+                .inProgressCount((int) counters.inProgressCount())
+                .doneCount((int) counters.doneCount())
+                .lowPriorityCount((int) counters.lowPriorityCount())
+                .mediumPriorityCount((int) counters.mediumPriorityCount())
+                .highPriorityCount((int) counters.highPriorityCount())
+                .build();
+
+        return new StatsView<>("s" + userId + "-" + Integer.toHexString(counters.hashCode()), stats);
+    }
+}
@@ -1,10 +1,8 @@
 package com.project.statisticsservice.api.service.userapi;
 
 import com.project.statisticsservice.api.dto.user.UserStatsDto;
-import task.kafka.TaskEvent;
+import com.project.statisticsservice.api.service.readmodel.StatsView;
 
 public interface UserStatisticService {
-    void processUserStats(TaskEvent event);
-
-    UserStatsDto getUserStatsById(Long userId);
+    StatsView<UserStatsDto> getUserStatsById(Long userId);
 }
@@ -0,0 +1,59 @@
+package com.project.statisticsservice.client;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import task.model.TaskDto;
+
+import java.util.function.Consumer;
+
+// task-service /tasks/export read as NDJSON, rows are handed over while the response is still streaming
+@Component
+public class TaskExportClient {
+
+    private final RestClient restClient;
+    private final ObjectReader taskReader;
+
+    public TaskExportClient(RestClient.Builder restClientBuilder,
+                            ObjectMapper objectMapper,
+                            @Value("${stats.reconcile.task-service-url:http://task-api:8080}") String taskServiceUrl) {
+        this.restClient = restClientBuilder.baseUrl(taskServiceUrl).build();
+        this.taskReader = objectMapper.readerFor(TaskDto.class);
+    }
+
+    // one keyset page: ids in (afterId, toId], at most limit rows in id order
+    public ExportPage exportPage(long afterId, long toId, int limit, Consumer<TaskDto> consumer) {
+        return restClient.get()
+                .uri(uri -> uri.path("/tasks/export")
+                        .queryParam("format", "NDJSON")
+                        .queryParam("afterId", afterId)
+                        .queryParam("toId", toId)
+                        .queryParam("limit", limit)
+                        .build())
+                .exchange((request, response) -> {
+                    if (response.getStatusCode().isError()) {
+                        throw new RestClientException("Task export (" + afterId + ", " + toId + "] failed with "
+                                + response.getStatusCode());
+                    }
+
+                    int rows = 0;
+                    long lastId = afterId;
+                    try (MappingIterator<TaskDto> tasks = taskReader.readValues(response.getBody())) {
+                        while (tasks.hasNextValue()) {
+                            TaskDto task = tasks.nextValue();
+                            consumer.accept(task);
+                            rows++;
+                            lastId = task.id();
+                        }
+                    }
+                    return new ExportPage(rows, lastId);
+                });
+    }
+
+    public record ExportPage(int rows, long lastId) {
+    }
+}
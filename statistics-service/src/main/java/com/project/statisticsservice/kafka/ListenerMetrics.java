@@ -0,0 +1,53 @@
+package com.project.statisticsservice.kafka;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    consumer lag per partition as the consumer itself knows it after a poll (no broker round trip),
+    and listener failures by exception type. A partition keeps its last value after it is revoked
+ */
+@Profile("!streams")
+@Component
+public class ListenerMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TopicPartition, AtomicLong> lag = new ConcurrentHashMap<>();
+
+    public ListenerMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // must run on the consumer thread
+    public void recordLag(Consumer<?, ?> consumer) {
+        for (TopicPartition partition : consumer.assignment()) {
+            OptionalLong current = consumer.currentLag(partition);
+            if (current.isPresent()) {
+                lag.computeIfAbsent(partition, this::registerLag).set(current.getAsLong());
+            }
+        }
+    }
+
+    public void recordError(Exception e) {
+        meterRegistry.counter("stats.listener.errors", "exception", e.getClass().getSimpleName()).increment();
+    }
+
+    private AtomicLong registerLag(TopicPartition partition) {
+        AtomicLong value = new AtomicLong();
+        Gauge.builder("stats.consumer.lag", value, AtomicLong::get)
+                .description("records behind the end of the partition after the last poll")
+                .tag("topic", partition.topic())
+                .tag("partition", String.valueOf(partition.partition()))
+                .register(meterRegistry);
+        return value;
+    }
+}
@@ -1,26 +1,50 @@
 package com.project.statisticsservice.kafka;
 
-import com.project.statisticsservice.api.service.taskapi.TaskStatisticService;
-import com.project.statisticsservice.api.service.userapi.UserStatisticService;
+import com.project.statisticsservice.api.service.ingest.StatsIngestLanes;
+import com.project.statisticsservice.api.service.leaderboard.Leaderboards;
+import com.project.statisticsservice.api.service.readmodel.StatsChanges;
+import com.project.statisticsservice.api.service.readmodel.StatsReadModel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.context.annotation.Profile;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 import task.kafka.TaskEvent;
 
+import java.util.List;
+
+@Profile("!streams")
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class StatisticKafkaListener {
 
-    private final TaskStatisticService taskStatisticService;
-    private final UserStatisticService userStatisticService;
+    private final StatsIngestLanes statsIngestLanes;
+    private final StatsReadModel statsReadModel;
+    private final Leaderboards leaderboards;
+    private final ListenerMetrics listenerMetrics;
 
-    @KafkaListener(topics = "task-events", groupId = "statistic-group")
-    public void handleTaskEvent(TaskEvent event) {
-        log.info("Received event: {}", event);
+    /*
+        batch listener: the poll is applied over the ingest lanes, one DB transaction per lane, and offsets
+        are committed by the container only after every lane has finished, so a failed batch is redelivered
+        as a whole. The read model and leaderboards only see the rows once ingest has committed
+        (after a failed poll the lanes that did commit are picked up by the next resync)
+     */
+    @KafkaListener(topics = "task-events", groupId = "statistic-group", batch = "true")
+    public void handleTaskEvents(List<ConsumerRecord<Long, TaskEvent>> records, Consumer<?, ?> consumer) {
+        log.info("Received {} events", records.size());
+        listenerMetrics.recordLag(consumer);
 
-        taskStatisticService.processEvent(event);
-        userStatisticService.processUserStats(event);
+        StatsChanges changes;
+        try {
+            changes = statsIngestLanes.ingest(records);
+        } catch (RuntimeException e) {
+            listenerMetrics.recordError(e);
+            throw e;
+        }
+        statsReadModel.apply(changes);
+        leaderboards.apply(changes);
     }
 }
@@ -0,0 +1,31 @@
+package com.project.statisticsservice.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// every DataSource is wrapped so JDBC statements are counted (stats.db.statements, per event in stats.ingest.statements.per.event)
+@Configuration
+public class DataSourceMetricsConfig {
+
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+                    Counter statements = Counter.builder("stats.db.statements")
+                            .description("JDBC statements executed, a batch counts once")
+                            .register(meterRegistry.getObject());
+                    return new StatementCountingDataSource(dataSource, statements);
+                }
+                return bean;
+            }
+        };
+    }
+}
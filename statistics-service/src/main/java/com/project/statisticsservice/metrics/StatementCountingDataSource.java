@@ -0,0 +1,81 @@
+package com.project.statisticsservice.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/*
+    counts executed JDBC statements (a batch is one round trip) in total and per thread, so a caller can
+    take the difference around its own work. Statements are proxied, the driver still does all the work
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    private static final ThreadLocal<long[]> STATEMENTS_ON_THREAD = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final Counter statementsCounter;
+
+    public StatementCountingDataSource(DataSource target, Counter statementsCounter) {
+        super(target);
+        this.statementsCounter = statementsCounter;
+    }
+
+    public static long statementsOnThisThread() {
+        return STATEMENTS_ON_THREAD.get()[0];
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countingConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countingConnection(super.getConnection(username, password));
+    }
+
+    private Connection countingConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof CallableStatement statement) {
+                        return countingStatement(statement, CallableStatement.class);
+                    }
+                    if (result instanceof PreparedStatement statement) {
+                        return countingStatement(statement, PreparedStatement.class);
+                    }
+                    if (result instanceof Statement statement) {
+                        return countingStatement(statement, Statement.class);
+                    }
+                    return result;
+                });
+    }
+
+    private <T extends Statement> T countingStatement(T statement, Class<T> type) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                STATEMENTS_ON_THREAD.get()[0]++;
+                statementsCounter.increment();
+            }
+            return invoke(statement, method, args);
+        };
+        return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
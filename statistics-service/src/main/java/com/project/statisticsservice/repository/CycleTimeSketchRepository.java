@@ -0,0 +1,85 @@
+package com.project.statisticsservice.repository;
+
+import com.project.statisticsservice.api.service.cycle.CyclePhase;
+import com.project.statisticsservice.api.service.cycle.CycleTimeSketches;
+import com.project.statisticsservice.api.service.ingest.CycleTimeBatch;
+import com.project.statisticsservice.api.service.readmodel.SketchRow;
+import lombok.RequiredArgsConstructor;
+import org.HdrHistogram.Histogram;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class CycleTimeSketchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /*
+        read-merge-write of the touched sketches, must run inside the ingest transaction.
+        Missing rows are created first and every row is locked in key order, like the event ledger,
+        so two consumers merging into the same sketch cannot overwrite each other.
+        Returns the written rows
+     */
+    public List<SketchRow> merge(Map<CycleTimeBatch.SketchKey, Histogram> deltas) {
+        if (deltas.isEmpty()) {
+            return List.of();
+        }
+
+        Long[] owners = deltas.keySet().stream().map(CycleTimeBatch.SketchKey::owner).toArray(Long[]::new);
+        String[] phases = deltas.keySet().stream().map(key -> key.phase().name()).toArray(String[]::new);
+
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement("""
+                    INSERT INTO cycle_time_sketch (owner_id, phase)
+                    SELECT * FROM unnest(?::bigint[], ?::varchar[])
+                    ON CONFLICT (owner_id, phase) DO NOTHING
+                    """);
+            statement.setArray(1, connection.createArrayOf("bigint", owners));
+            statement.setArray(2, connection.createArrayOf("varchar", phases));
+            return statement;
+        });
+
+        Map<CycleTimeBatch.SketchKey, Histogram> merged = new HashMap<>(deltas);
+        Map<CycleTimeBatch.SketchKey, Long> revisions = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("""
+                    SELECT owner_id, phase, sketch, revision FROM cycle_time_sketch
+                    WHERE (owner_id, phase) IN (SELECT * FROM unnest(?::bigint[], ?::varchar[]))
+                    ORDER BY owner_id, phase
+                    FOR UPDATE
+                    """);
+            statement.setArray(1, connection.createArrayOf("bigint", owners));
+            statement.setArray(2, connection.createArrayOf("varchar", phases));
+            return statement;
+        }, resultSet -> {
+            var key = new CycleTimeBatch.SketchKey(resultSet.getLong("owner_id"),
+                    CyclePhase.valueOf(resultSet.getString("phase")));
+            revisions.put(key, resultSet.getLong("revision"));
+
+            byte[] stored = resultSet.getBytes("sketch");
+            if (stored != null) {
+                merged.get(key).add(CycleTimeSketches.decode(stored));
+            }
+        });
+
+        List<Object[]> rows = new ArrayList<>(merged.size());
+        List<SketchRow> written = new ArrayList<>(merged.size());
+        merged.forEach((key, sketch) -> {
+            byte[] encoded = CycleTimeSketches.encode(sketch);
+            long revision = revisions.getOrDefault(key, 0L) + 1;
+            rows.add(new Object[]{encoded, revision, key.owner(), key.phase().name()});
+            written.add(new SketchRow(key.owner(), key.phase(), revision, encoded));
+        });
+
+        jdbcTemplate.batchUpdate(
+                "UPDATE cycle_time_sketch SET sketch = ?, revision = ? WHERE owner_id = ? AND phase = ?", rows);
+        return written;
+    }
+}
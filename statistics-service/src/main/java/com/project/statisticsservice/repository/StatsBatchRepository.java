@@ -0,0 +1,113 @@
+package com.project.statisticsservice.repository;
+
+import com.project.statisticsservice.api.service.ingest.GlobalStatsDelta;
+import com.project.statisticsservice.api.service.ingest.UserStatsDelta;
+import com.project.statisticsservice.api.service.readmodel.StripeCounters;
+import com.project.statisticsservice.api.service.readmodel.UserCounters;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// writes folded deltas with plain SQL, must run inside the caller's transaction.
+// Written rows are returned as committed values for the read model
+@Repository
+@RequiredArgsConstructor
+public class StatsBatchRepository {
+
+    // 9 parameters per row, stays well below the 65535 bind parameter limit of Postgres
+    private static final int UPSERT_CHUNK_SIZE = 1000;
+
+    private static final String UPSERT_USER_STATS_HEAD = """
+            INSERT INTO user_stats (user_id, total_created, total_assigned, todo_count, in_progress_count, done_count,
+                                    low_priority_count, medium_priority_count, high_priority_count, revision)
+            VALUES\s""";
+
+    /*
+        all-zero deltas only create the missing row, they do not rewrite an existing one
+     */
+    private static final String UPSERT_USER_STATS_TAIL = """
+             ON CONFLICT (user_id) DO UPDATE SET
+                total_created = user_stats.total_created + excluded.total_created,
+                total_assigned = user_stats.total_assigned + excluded.total_assigned,
+                todo_count = user_stats.todo_count + excluded.todo_count,
+                in_progress_count = user_stats.in_progress_count + excluded.in_progress_count,
+                done_count = user_stats.done_count + excluded.done_count,
+                low_priority_count = user_stats.low_priority_count + excluded.low_priority_count,
+                medium_priority_count = user_stats.medium_priority_count + excluded.medium_priority_count,
+                high_priority_count = user_stats.high_priority_count + excluded.high_priority_count,
+                revision = user_stats.revision + 1
+            WHERE excluded.total_created <> 0 OR excluded.total_assigned <> 0 OR excluded.todo_count <> 0
+               OR excluded.in_progress_count <> 0 OR excluded.done_count <> 0 OR excluded.low_priority_count <> 0
+               OR excluded.medium_priority_count <> 0 OR excluded.high_priority_count <> 0
+            RETURNING\s""" + StatsRowMappers.USER_COLUMNS;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // global stats are striped over several rows (id = stripe)
+    public Optional<StripeCounters> applyGlobal(int stripe, GlobalStatsDelta delta) {
+        if (delta.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(jdbcTemplate.queryForObject("""
+                        INSERT INTO global_task_stats (id, total_created, total_in_progress, total_done,
+                                                       low_priority_count, medium_priority_count, high_priority_count,
+                                                       revision)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, 1)
+                        ON CONFLICT (id) DO UPDATE SET
+                            total_created = global_task_stats.total_created + excluded.total_created,
+                            total_in_progress = global_task_stats.total_in_progress + excluded.total_in_progress,
+                            total_done = global_task_stats.total_done + excluded.total_done,
+                            low_priority_count = global_task_stats.low_priority_count + excluded.low_priority_count,
+                            medium_priority_count = global_task_stats.medium_priority_count + excluded.medium_priority_count,
+                            high_priority_count = global_task_stats.high_priority_count + excluded.high_priority_count,
+                            revision = global_task_stats.revision + 1
+                        RETURNING\s""" + StatsRowMappers.STRIPE_COLUMNS,
+                StatsRowMappers.STRIPE,
+                stripe, delta.getTotalCreated(), delta.getTotalInProgress(), delta.getTotalDone(),
+                delta.getLowPriorityCount(), delta.getMediumPriorityCount(), delta.getHighPriorityCount()));
+    }
+
+    // one multi-row upsert per chunk, returns the rows that changed (all-zero deltas of existing rows do not)
+    public List<UserCounters> applyUsers(Collection<UserStatsDelta> deltas) {
+        List<UserStatsDelta> rows = new ArrayList<>(deltas);
+        List<UserCounters> written = new ArrayList<>(rows.size());
+
+        for (int from = 0; from < rows.size(); from += UPSERT_CHUNK_SIZE) {
+            List<UserStatsDelta> chunk = rows.subList(from, Math.min(from + UPSERT_CHUNK_SIZE, rows.size()));
+            written.addAll(upsertChunk(chunk));
+        }
+        return written;
+    }
+
+    private List<UserCounters> upsertChunk(List<UserStatsDelta> chunk) {
+        StringBuilder sql = new StringBuilder(UPSERT_USER_STATS_HEAD);
+        Object[] args = new Object[chunk.size() * 9];
+
+        int i = 0;
+        for (UserStatsDelta delta : chunk) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(?, ?, ?, ?, ?, ?, ?, ?, ?, 1)");
+
+            args[i++] = delta.getUserId();
+            args[i++] = delta.getTotalCreated();
+            args[i++] = delta.getTotalAssigned();
+            args[i++] = delta.getTodoCount();
+            args[i++] = delta.getInProgressCount();
+            args[i++] = delta.getDoneCount();
+            args[i++] = delta.getLowPriorityCount();
+            args[i++] = delta.getMediumPriorityCount();
+            args[i++] = delta.getHighPriorityCount();
+        }
+        sql.append(UPSERT_USER_STATS_TAIL);
+
+        return jdbcTemplate.query(sql.toString(), StatsRowMappers.USER, args);
+    }
+}
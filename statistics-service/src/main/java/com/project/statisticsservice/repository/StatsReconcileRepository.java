@@ -0,0 +1,235 @@
+package com.project.statisticsservice.repository;
+
+import com.project.statisticsservice.api.service.readmodel.StripeCounters;
+import com.project.statisticsservice.api.service.readmodel.UserCounters;
+import com.project.statisticsservice.api.service.reconcile.ReconcileRow;
+import com.project.statisticsservice.api.service.reconcile.ReconcileRun;
+import com.project.statisticsservice.api.service.reconcile.TaskCounts;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// run bookkeeping and recomputed counters of the reconciliation job, callers open the transactions
+@Repository
+@RequiredArgsConstructor
+public class StatsReconcileRepository {
+
+    private static final String COUNT_COLUMNS = """
+            total_created, total_assigned, todo_count, in_progress_count, done_count,
+            low_priority_count, medium_priority_count, high_priority_count""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // a RUNNING run whose instance stopped sending heartbeats is taken over
+    public Optional<ReconcileRun> claimStale(Duration staleAfter) {
+        return jdbcTemplate.query("""
+                        UPDATE stats_reconcile_run SET heartbeat_at = now()
+                        WHERE status = 'RUNNING' AND heartbeat_at < now() - make_interval(secs => ?)
+                        RETURNING run_id, max_task_id
+                        """,
+                (resultSet, rowNum) -> new ReconcileRun(resultSet.getLong("run_id"), resultSet.getLong("max_task_id")),
+                (double) staleAfter.toSeconds()).stream().findFirst();
+    }
+
+    public boolean isRunning() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM stats_reconcile_run WHERE status = 'RUNNING')", Boolean.class));
+    }
+
+    /*
+        the highest task id seen by the ingest bounds the planned ranges. The current revision of every
+        stats row is kept as baseline: a row is only corrected if nothing was written to it since
+        (throws DuplicateKeyException if another instance started a run at the same time)
+     */
+    public ReconcileRun start() {
+        Long maxTaskId = jdbcTemplate.queryForObject("SELECT COALESCE(max(task_id), 0) FROM task_event_ledger", Long.class);
+        Long runId = jdbcTemplate.queryForObject(
+                "INSERT INTO stats_reconcile_run (status, max_task_id) VALUES ('RUNNING', ?) RETURNING run_id",
+                Long.class, maxTaskId);
+
+        jdbcTemplate.update("""
+                INSERT INTO stats_reconcile_counts (run_id, owner_id, baseline_revision)
+                SELECT ?, user_id, revision FROM user_stats
+                """, runId);
+        jdbcTemplate.update("""
+                INSERT INTO stats_reconcile_counts (run_id, owner_id, baseline_revision)
+                SELECT ?, 0, COALESCE(sum(revision), 0) FROM global_task_stats
+                """, runId);
+
+        return new ReconcileRun(runId, maxTaskId);
+    }
+
+    public LongSet countedRanges(long runId) {
+        return new LongOpenHashSet(jdbcTemplate.queryForList(
+                "SELECT after_id FROM stats_reconcile_range WHERE run_id = ?", Long.class, runId));
+    }
+
+    // adds one range's counters, owners in id order so parallel ranges lock accumulator rows in the same order
+    public void saveRange(long runId, long afterId, long toId, long tasks, TaskCounts counts) {
+        LongArrayList owners = new LongArrayList(counts.owners().keySet());
+        owners.sort(null);
+
+        List<Object[]> rows = new ArrayList<>(owners.size());
+        for (long owner : owners) {
+            long[] slots = counts.owners().get(owner);
+            Object[] row = new Object[TaskCounts.SLOTS + 2];
+            row[0] = runId;
+            row[1] = owner;
+            for (int slot = 0; slot < TaskCounts.SLOTS; slot++) {
+                row[slot + 2] = slots[slot];
+            }
+            rows.add(row);
+        }
+
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO stats_reconcile_counts (run_id, owner_id,\s""" + COUNT_COLUMNS + """
+                )
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                ON CONFLICT (run_id, owner_id) DO UPDATE SET
+                    total_created = stats_reconcile_counts.total_created + excluded.total_created,
+                    total_assigned = stats_reconcile_counts.total_assigned + excluded.total_assigned,
+                    todo_count = stats_reconcile_counts.todo_count + excluded.todo_count,
+                    in_progress_count = stats_reconcile_counts.in_progress_count + excluded.in_progress_count,
+                    done_count = stats_reconcile_counts.done_count + excluded.done_count,
+                    low_priority_count = stats_reconcile_counts.low_priority_count + excluded.low_priority_count,
+                    medium_priority_count = stats_reconcile_counts.medium_priority_count + excluded.medium_priority_count,
+                    high_priority_count = stats_reconcile_counts.high_priority_count + excluded.high_priority_count
+                """, rows);
+
+        jdbcTemplate.update("INSERT INTO stats_reconcile_range (run_id, after_id, to_id, tasks) VALUES (?, ?, ?, ?)",
+                runId, afterId, toId, tasks);
+        heartbeat(runId);
+    }
+
+    public void heartbeat(long runId) {
+        jdbcTemplate.update("UPDATE stats_reconcile_run SET heartbeat_at = now() WHERE run_id = ?", runId);
+    }
+
+    // global counters as recomputed (owner 0), with the summed stripe revisions at the start of the run
+    public ReconcileRow findGlobalCounts(long runId) {
+        return jdbcTemplate.queryForObject("""
+                SELECT owner_id, baseline_revision,\s""" + COUNT_COLUMNS + """
+
+                FROM stats_reconcile_counts WHERE run_id = ? AND owner_id = 0
+                """, (resultSet, rowNum) -> new ReconcileRow(
+                resultSet.getLong("owner_id"),
+                resultSet.getObject("baseline_revision", Long.class),
+                slots(resultSet, ""),
+                null,
+                null), runId);
+    }
+
+    // all stripes locked in id order until the caller's transaction ends, ingest cannot move them meanwhile
+    public List<StripeCounters> lockStripes() {
+        return jdbcTemplate.query("""
+                SELECT\s""" + StatsRowMappers.STRIPE_COLUMNS + """
+
+                FROM global_task_stats ORDER BY id FOR UPDATE
+                """, StatsRowMappers.STRIPE);
+    }
+
+    public Optional<StripeCounters> addToStripe(long stripe, long[] delta) {
+        return jdbcTemplate.query("""
+                        UPDATE global_task_stats SET
+                            total_created = COALESCE(total_created, 0) + ?,
+                            total_in_progress = COALESCE(total_in_progress, 0) + ?,
+                            total_done = COALESCE(total_done, 0) + ?,
+                            low_priority_count = COALESCE(low_priority_count, 0) + ?,
+                            medium_priority_count = COALESCE(medium_priority_count, 0) + ?,
+                            high_priority_count = COALESCE(high_priority_count, 0) + ?,
+                            revision = revision + 1
+                        WHERE id = ?
+                        RETURNING\s""" + StatsRowMappers.STRIPE_COLUMNS,
+                StatsRowMappers.STRIPE,
+                delta[TaskCounts.TOTAL_CREATED], delta[TaskCounts.IN_PROGRESS], delta[TaskCounts.DONE],
+                delta[TaskCounts.LOW], delta[TaskCounts.MEDIUM], delta[TaskCounts.HIGH], stripe).stream().findFirst();
+    }
+
+    // keyset page over the recomputed user counters joined with their user_stats rows
+    public List<ReconcileRow> findUserCounts(long runId, long afterUserId, int limit) {
+        return jdbcTemplate.query("""
+                SELECT c.owner_id, c.baseline_revision,
+                       c.total_created, c.total_assigned, c.todo_count, c.in_progress_count, c.done_count,
+                       c.low_priority_count, c.medium_priority_count, c.high_priority_count,
+                       u.revision AS u_revision,
+                       u.total_created AS u_total_created, u.total_assigned AS u_total_assigned,
+                       u.todo_count AS u_todo_count, u.in_progress_count AS u_in_progress_count,
+                       u.done_count AS u_done_count, u.low_priority_count AS u_low_priority_count,
+                       u.medium_priority_count AS u_medium_priority_count,
+                       u.high_priority_count AS u_high_priority_count
+                FROM stats_reconcile_counts c
+                LEFT JOIN user_stats u ON u.user_id = c.owner_id
+                WHERE c.run_id = ? AND c.owner_id > ?
+                ORDER BY c.owner_id
+                LIMIT ?
+                """, (resultSet, rowNum) -> new ReconcileRow(
+                resultSet.getLong("owner_id"),
+                resultSet.getObject("baseline_revision", Long.class),
+                slots(resultSet, ""),
+                resultSet.getObject("u_revision", Long.class),
+                slots(resultSet, "u_")), runId, Math.max(afterUserId, TaskCounts.GLOBAL), limit);
+    }
+
+    // only if the row was not written since the run started, empty otherwise
+    public Optional<UserCounters> replaceUser(long userId, long baselineRevision, long[] expected) {
+        return jdbcTemplate.query("""
+                        UPDATE user_stats SET
+                            total_created = ?, total_assigned = ?, todo_count = ?, in_progress_count = ?, done_count = ?,
+                            low_priority_count = ?, medium_priority_count = ?, high_priority_count = ?,
+                            revision = revision + 1
+                        WHERE user_id = ? AND revision = ?
+                        RETURNING\s""" + StatsRowMappers.USER_COLUMNS,
+                StatsRowMappers.USER,
+                expected[0], expected[1], expected[2], expected[3], expected[4], expected[5], expected[6], expected[7],
+                userId, baselineRevision).stream().findFirst();
+    }
+
+    // a user the counters never saw, empty if the ingest created the row in the meantime
+    public Optional<UserCounters> insertUser(long userId, long[] expected) {
+        return jdbcTemplate.query("""
+                        INSERT INTO user_stats (user_id,\s""" + COUNT_COLUMNS + """
+                        , revision)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 1)
+                        ON CONFLICT (user_id) DO NOTHING
+                        RETURNING\s""" + StatsRowMappers.USER_COLUMNS,
+                StatsRowMappers.USER,
+                userId, expected[0], expected[1], expected[2], expected[3], expected[4], expected[5], expected[6],
+                expected[7]).stream().findFirst();
+    }
+
+    // the run is kept as history, its scratch rows are dropped
+    public void finish(long runId, long driftedRows, long correctedRows, long skippedRows) {
+        jdbcTemplate.update("""
+                UPDATE stats_reconcile_run SET status = 'DONE', finished_at = now(),
+                    tasks = (SELECT COALESCE(sum(tasks), 0) FROM stats_reconcile_range WHERE run_id = ?),
+                    drifted_rows = ?, corrected_rows = ?, skipped_rows = ?
+                WHERE run_id = ?
+                """, runId, driftedRows, correctedRows, skippedRows, runId);
+        jdbcTemplate.update("DELETE FROM stats_reconcile_counts WHERE run_id = ?", runId);
+        jdbcTemplate.update("DELETE FROM stats_reconcile_range WHERE run_id = ?", runId);
+    }
+
+    // missing user_stats columns (no row, NULL counters of old rows) read as 0
+    private static long[] slots(ResultSet resultSet, String prefix) throws SQLException {
+        return new long[]{
+                resultSet.getLong(prefix + "total_created"),
+                resultSet.getLong(prefix + "total_assigned"),
+                resultSet.getLong(prefix + "todo_count"),
+                resultSet.getLong(prefix + "in_progress_count"),
+                resultSet.getLong(prefix + "done_count"),
+                resultSet.getLong(prefix + "low_priority_count"),
+                resultSet.getLong(prefix + "medium_priority_count"),
+                resultSet.getLong(prefix + "high_priority_count")
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.project.statisticsservice.repository;
+
+import com.project.statisticsservice.api.service.cycle.CyclePhase;
+import com.project.statisticsservice.api.service.readmodel.SketchRow;
+import com.project.statisticsservice.api.service.readmodel.StripeCounters;
+import com.project.statisticsservice.api.service.readmodel.UserCounters;
+import org.springframework.jdbc.core.RowMapper;
+
+// committed stats rows as handed to the read model, NULL counters of old rows read as 0
+final class StatsRowMappers {
+
+    static final RowMapper<StripeCounters> STRIPE = (resultSet, rowNum) -> new StripeCounters(
+            resultSet.getLong("id"),
+            resultSet.getLong("revision"),
+            resultSet.getLong("total_created"),
+            resultSet.getLong("total_in_progress"),
+            resultSet.getLong("total_done"),
+            resultSet.getLong("low_priority_count"),
+            resultSet.getLong("medium_priority_count"),
+            resultSet.getLong("high_priority_count"));
+
+    static final RowMapper<UserCounters> USER = (resultSet, rowNum) -> new UserCounters(
+            resultSet.getLong("user_id"),
+            resultSet.getLong("revision"),
+            resultSet.getLong("total_created"),
+            resultSet.getLong("total_assigned"),
+            resultSet.getLong("todo_count"),
+            resultSet.getLong("in_progress_count"),
+            resultSet.getLong("done_count"),
+            resultSet.getLong("low_priority_count"),
+            resultSet.getLong("medium_priority_count"),
+            resultSet.getLong("high_priority_count"));
+
+    static final RowMapper<SketchRow> SKETCH = (resultSet, rowNum) -> new SketchRow(
+            resultSet.getLong("owner_id"),
+            CyclePhase.valueOf(resultSet.getString("phase")),
+            resultSet.getLong("revision"),
+            resultSet.getBytes("sketch"));
+
+    static final String STRIPE_COLUMNS = """
+            id, revision, total_created, total_in_progress, total_done,
+            low_priority_count, medium_priority_count, high_priority_count""";
+
+    static final String USER_COLUMNS = """
+            user_id, revision, total_created, total_assigned, todo_count, in_progress_count, done_count,
+            low_priority_count, medium_priority_count, high_priority_count""";
+
+    private StatsRowMappers() {
+    }
+}
@@ -0,0 +1,114 @@
+package com.project.statisticsservice.repository;
+
+import com.project.statisticsservice.api.dto.series.Granularity;
+import com.project.statisticsservice.api.service.ingest.TimeSeriesBatch;
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class StatsSeriesRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // must run inside the ingest transaction, buckets come sorted so concurrent batches lock rows in the same order
+    public int apply(Map<TimeSeriesBatch.BucketKey, TimeSeriesBatch.BucketDelta> buckets) {
+        List<Object[]> bucketRows = new ArrayList<>(buckets.size());
+        List<Object[]> binRows = new ArrayList<>();
+
+        buckets.forEach((key, delta) -> {
+            Timestamp bucketStart = Timestamp.valueOf(key.bucketStart());
+            bucketRows.add(new Object[]{key.granularity().name(), bucketStart, key.stripe(), delta.getCreated(),
+                    delta.getStarted(), delta.getDone(), delta.getLeadTimeCount(), delta.getLeadTimeSumSeconds()});
+
+            for (Int2LongMap.Entry bin : delta.getLeadTimeBins().int2LongEntrySet()) {
+                binRows.add(new Object[]{key.granularity().name(), bucketStart, key.stripe(), bin.getIntKey(),
+                        bin.getLongValue()});
+            }
+        });
+
+        if (!bucketRows.isEmpty()) {
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO stats_bucket (granularity, bucket_start, stripe, created_count, started_count, done_count,
+                                              lead_time_count, lead_time_sum_seconds)
+                    VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                    ON CONFLICT (granularity, bucket_start, stripe) DO UPDATE SET
+                        created_count = stats_bucket.created_count + excluded.created_count,
+                        started_count = stats_bucket.started_count + excluded.started_count,
+                        done_count = stats_bucket.done_count + excluded.done_count,
+                        lead_time_count = stats_bucket.lead_time_count + excluded.lead_time_count,
+                        lead_time_sum_seconds = stats_bucket.lead_time_sum_seconds + excluded.lead_time_sum_seconds
+                    """, bucketRows);
+        }
+
+        if (!binRows.isEmpty()) {
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO stats_lead_time_bin (granularity, bucket_start, stripe, bin, count)
+                    VALUES (?, ?, ?, ?, ?)
+                    ON CONFLICT (granularity, bucket_start, stripe, bin) DO UPDATE SET
+                        count = stats_lead_time_bin.count + excluded.count
+                    """, binRows);
+        }
+
+        return bucketRows.size() + binRows.size();
+    }
+
+    // the stripes of a bucket are summed up, rows come out one per bucket
+    public List<BucketRow> findBuckets(Granularity granularity, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query("""
+                        SELECT bucket_start, sum(created_count) AS created_count, sum(started_count) AS started_count,
+                               sum(done_count) AS done_count, sum(lead_time_count) AS lead_time_count,
+                               sum(lead_time_sum_seconds) AS lead_time_sum_seconds
+                        FROM stats_bucket
+                        WHERE granularity = ? AND bucket_start >= ? AND bucket_start < ?
+                        GROUP BY bucket_start
+                        ORDER BY bucket_start
+                        """,
+                (resultSet, rowNum) -> new BucketRow(
+                        resultSet.getTimestamp("bucket_start").toLocalDateTime(),
+                        resultSet.getLong("created_count"),
+                        resultSet.getLong("started_count"),
+                        resultSet.getLong("done_count"),
+                        resultSet.getLong("lead_time_count"),
+                        resultSet.getLong("lead_time_sum_seconds")),
+                granularity.name(), Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    public List<BinRow> findBins(Granularity granularity, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query("""
+                        SELECT bucket_start, bin, sum(count) AS count
+                        FROM stats_lead_time_bin
+                        WHERE granularity = ? AND bucket_start >= ? AND bucket_start < ?
+                        GROUP BY bucket_start, bin
+                        ORDER BY bucket_start, bin
+                        """,
+                (resultSet, rowNum) -> new BinRow(
+                        resultSet.getTimestamp("bucket_start").toLocalDateTime(),
+                        resultSet.getInt("bin"),
+                        resultSet.getLong("count")),
+                granularity.name(), Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    // returns the number of bucket rows removed, every stripe counts
+    public int deleteBefore(Granularity granularity, LocalDateTime cutoff) {
+        jdbcTemplate.update("DELETE FROM stats_lead_time_bin WHERE granularity = ? AND bucket_start < ?",
+                granularity.name(), Timestamp.valueOf(cutoff));
+        return jdbcTemplate.update("DELETE FROM stats_bucket WHERE granularity = ? AND bucket_start < ?",
+                granularity.name(), Timestamp.valueOf(cutoff));
+    }
+
+    public record BucketRow(LocalDateTime bucketStart, long created, long started, long done,
+                            long leadTimeCount, long leadTimeSumSeconds) {
+    }
+
+    public record BinRow(LocalDateTime bucketStart, int bin, long count) {
+    }
+}
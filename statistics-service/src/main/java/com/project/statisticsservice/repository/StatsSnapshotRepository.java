@@ -0,0 +1,61 @@
+package com.project.statisticsservice.repository;
+
+import com.project.statisticsservice.api.service.readmodel.SketchRow;
+import com.project.statisticsservice.api.service.readmodel.StripeCounters;
+import com.project.statisticsservice.api.service.readmodel.UserCounters;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/*
+    full reads of the stats tables for warming and resyncing the read model.
+    Large tables are handed over in chunks, run inside a read-only transaction
+    so the driver fetches with a cursor instead of materializing the table
+ */
+@Repository
+@RequiredArgsConstructor
+public class StatsSnapshotRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<StripeCounters> findStripes() {
+        return jdbcTemplate.query("SELECT " + StatsRowMappers.STRIPE_COLUMNS + " FROM global_task_stats",
+                StatsRowMappers.STRIPE);
+    }
+
+    public void streamUsers(Consumer<List<UserCounters>> chunkConsumer) {
+        stream("SELECT " + StatsRowMappers.USER_COLUMNS + " FROM user_stats", StatsRowMappers.USER, chunkConsumer);
+    }
+
+    public void streamSketches(Consumer<List<SketchRow>> chunkConsumer) {
+        stream("SELECT owner_id, phase, revision, sketch FROM cycle_time_sketch WHERE sketch IS NOT NULL",
+                StatsRowMappers.SKETCH, chunkConsumer);
+    }
+
+    private <T> void stream(String sql, RowMapper<T> rowMapper, Consumer<List<T>> chunkConsumer) {
+        List<T> chunk = new ArrayList<>(FETCH_SIZE);
+
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, resultSet -> {
+            chunk.add(rowMapper.mapRow(resultSet, chunk.size()));
+            if (chunk.size() == FETCH_SIZE) {
+                chunkConsumer.accept(List.copyOf(chunk));
+                chunk.clear();
+            }
+        });
+
+        if (!chunk.isEmpty()) {
+            chunkConsumer.accept(List.copyOf(chunk));
+        }
+    }
+}
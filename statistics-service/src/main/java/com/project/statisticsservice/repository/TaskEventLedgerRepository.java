@@ -0,0 +1,68 @@
+package com.project.statisticsservice.repository;
+
+import com.project.statisticsservice.api.service.ingest.TaskEventLedger;
+import it.unimi.dsi.fastutil.longs.LongList;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+// must run inside the transaction that applies the counter deltas
+@Repository
+@RequiredArgsConstructor
+public class TaskEventLedgerRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /*
+        rows are created first and then locked, so two consumers seeing the same task
+        (e.g. during a rebalance) wait for each other instead of both applying the event.
+        taskIds must be sorted, rows are locked in that order
+     */
+    public TaskEventLedger lockAndLoad(LongList taskIds) {
+        TaskEventLedger ledger = new TaskEventLedger();
+        if (taskIds.isEmpty()) {
+            return ledger;
+        }
+
+        Long[] ids = taskIds.toArray(new Long[0]);
+
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement("""
+                    INSERT INTO task_event_ledger (task_id, watermark, seen_mask)
+                    SELECT id, ?, 0 FROM unnest(?::bigint[]) AS id
+                    ON CONFLICT (task_id) DO NOTHING
+                    """);
+            statement.setLong(1, TaskEventLedger.NO_WATERMARK);
+            statement.setArray(2, connection.createArrayOf("bigint", ids));
+            return statement;
+        });
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("""
+                    SELECT task_id, watermark, seen_mask FROM task_event_ledger
+                    WHERE task_id = ANY (?::bigint[])
+                    ORDER BY task_id
+                    FOR UPDATE
+                    """);
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            return statement;
+        }, resultSet -> {
+            ledger.load(resultSet.getLong("task_id"), resultSet.getLong("watermark"), resultSet.getLong("seen_mask"));
+        });
+
+        return ledger;
+    }
+
+    public void save(TaskEventLedger ledger) {
+        List<Object[]> rows = ledger.getChangedTasks().longStream()
+                .mapToObj(taskId -> new Object[]{ledger.getWatermark(taskId), ledger.getSeenMask(taskId), taskId})
+                .toList();
+
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE task_event_ledger SET watermark = ?, seen_mask = ? WHERE task_id = ?", rows);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.project.statisticsservice.repository;
+
+import com.project.statisticsservice.api.service.ingest.TaskLifecycles;
+import com.project.statisticsservice.api.service.readmodel.TaskStateRow;
+import it.unimi.dsi.fastutil.longs.LongCollection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import task.model.TaskStatus;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class TaskLifecycleRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // must run inside the transaction that applies the counter deltas
+    public TaskLifecycles load(LongCollection taskIds) {
+        TaskLifecycles lifecycles = new TaskLifecycles();
+        if (taskIds.isEmpty()) {
+            return lifecycles;
+        }
+
+        Long[] ids = taskIds.toArray(new Long[0]);
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("""
+                    SELECT task_id, created_at, started_at, assigned_user_id, status, deadline, revision
+                    FROM task_lifecycle WHERE task_id = ANY (?::bigint[])
+                    """);
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            return statement;
+        }, resultSet -> {
+            lifecycles.load(resultSet.getLong("task_id"), new TaskLifecycles.Lifecycle(
+                    toLocalDateTime(resultSet.getTimestamp("created_at")),
+                    toLocalDateTime(resultSet.getTimestamp("started_at")),
+                    resultSet.getObject("assigned_user_id", Long.class),
+                    toStatus(resultSet),
+                    toLocalDate(resultSet.getDate("deadline")),
+                    resultSet.getLong("revision")));
+        });
+
+        return lifecycles;
+    }
+
+    // must run inside the ingest transaction, returns the written rows for the read model
+    public List<TaskStateRow> save(TaskLifecycles lifecycles) {
+        List<Object[]> upserts = new ArrayList<>();
+        List<TaskStateRow> written = new ArrayList<>();
+
+        lifecycles.getChangedTasks().forEach(taskId -> {
+            TaskLifecycles.Lifecycle lifecycle = lifecycles.get(taskId);
+            long revision = lifecycle.getRevision() + 1;
+            upserts.add(new Object[]{taskId, lifecycle.getCreatedAt(), lifecycle.getStartedAt(),
+                    lifecycle.getAssignedUserId(),
+                    lifecycle.getStatus() == null ? null : lifecycle.getStatus().name(),
+                    lifecycle.getDeadline(), revision});
+            written.add(new TaskStateRow(taskId, revision, lifecycle.getAssignedUserId(), lifecycle.getStatus(),
+                    lifecycle.getDeadline()));
+        });
+
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO task_lifecycle (task_id, created_at, started_at, assigned_user_id, status, deadline, revision)
+                    VALUES (?, ?, ?, ?, ?, ?, ?)
+                    ON CONFLICT (task_id) DO UPDATE SET
+                        created_at = COALESCE(excluded.created_at, task_lifecycle.created_at),
+                        started_at = excluded.started_at,
+                        assigned_user_id = excluded.assigned_user_id,
+                        status = excluded.status,
+                        deadline = excluded.deadline,
+                        revision = excluded.revision
+                    """, upserts);
+        }
+
+        List<Object[]> deletes = lifecycles.getDeletedTasks().longStream()
+                .mapToObj(taskId -> new Object[]{taskId})
+                .toList();
+
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate("DELETE FROM task_lifecycle WHERE task_id = ?", deletes);
+        }
+
+        return written;
+    }
+
+    // bounded by the WIP limit per assignee, served by a partial index
+    public List<TaskStateRow> findInProgress() {
+        return jdbcTemplate.query("""
+                        SELECT task_id, revision, assigned_user_id, status, deadline
+                        FROM task_lifecycle WHERE status = 'IN_PROGRESS'
+                        """,
+                (resultSet, rowNum) -> new TaskStateRow(
+                        resultSet.getLong("task_id"),
+                        resultSet.getLong("revision"),
+                        resultSet.getObject("assigned_user_id", Long.class),
+                        toStatus(resultSet),
+                        toLocalDate(resultSet.getDate("deadline"))));
+    }
+
+    private static TaskStatus toStatus(ResultSet resultSet) throws SQLException {
+        String status = resultSet.getString("status");
+        return status == null ? null : TaskStatus.valueOf(status);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date == null ? null : date.toLocalDate();
+    }
+}
@@ -0,0 +1,64 @@
+package com.project.statisticsservice.repository;
+
+import com.project.statisticsservice.api.service.ingest.WeeklyDoneBatch;
+import com.project.statisticsservice.api.service.readmodel.WeeklyDoneRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class UserWeeklyStatsRepository {
+
+    private static final RowMapper<WeeklyDoneRow> WEEKLY_DONE = (resultSet, rowNum) -> new WeeklyDoneRow(
+            resultSet.getDate("week_start").toLocalDate(),
+            resultSet.getLong("user_id"),
+            resultSet.getLong("done_count"),
+            resultSet.getLong("revision"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // must run inside the ingest transaction, one multi-row upsert per batch (a batch touches few users per week)
+    public List<WeeklyDoneRow> applyDone(Map<WeeklyDoneBatch.WeekKey, Long> doneCounts) {
+        if (doneCounts.isEmpty()) {
+            return List.of();
+        }
+
+        StringBuilder sql = new StringBuilder("INSERT INTO user_weekly_stats (week_start, user_id, done_count, revision) VALUES ");
+        List<Object> args = new ArrayList<>(doneCounts.size() * 3);
+
+        doneCounts.forEach((key, count) -> {
+            if (!args.isEmpty()) {
+                sql.append(", ");
+            }
+            sql.append("(?, ?, ?, 1)");
+            args.add(Date.valueOf(key.weekStart()));
+            args.add(key.userId());
+            args.add(count);
+        });
+
+        sql.append("""
+                 ON CONFLICT (week_start, user_id) DO UPDATE SET
+                    done_count = user_weekly_stats.done_count + excluded.done_count,
+                    revision = user_weekly_stats.revision + 1
+                RETURNING week_start, user_id, done_count, revision
+                """);
+
+        return jdbcTemplate.query(sql.toString(), WEEKLY_DONE, args.toArray());
+    }
+
+    public List<WeeklyDoneRow> findWeek(LocalDate weekStart) {
+        return jdbcTemplate.query("""
+                        SELECT week_start, user_id, done_count, revision FROM user_weekly_stats
+                        WHERE week_start = ?
+                        """,
+                WEEKLY_DONE, Date.valueOf(weekStart));
+    }
+}
@@ -4,21 +4,29 @@ package com.project.statisticsservice.utils;
 import com.project.statisticsservice.repository.TaskStatisticRepository;
 import com.project.statisticsservice.repository.entity.TaskStatsEntity;
 import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-@RequiredArgsConstructor
+// seeds one global stats row per stripe, rows of stripes above the configured count stay and are still summed
 @Component
 public class StatsInitializer {
 
     private final TaskStatisticRepository repository;
+    private final int globalStripes;
+
+    public StatsInitializer(TaskStatisticRepository repository, @Value("${stats.global.stripes:8}") int globalStripes) {
+        this.repository = repository;
+        this.globalStripes = globalStripes;
+    }
 
     @PostConstruct
     public void init() {
-        if(repository.count() == 0) {
-            TaskStatsEntity taskStatsEntity = new TaskStatsEntity();
-            taskStatsEntity.setId(1L);
-            repository.save(taskStatsEntity);
+        for (long stripe = 1; stripe <= globalStripes; stripe++) {
+            if (!repository.existsById(stripe)) {
+                TaskStatsEntity taskStatsEntity = new TaskStatsEntity();
+                taskStatsEntity.setId(stripe);
+                repository.save(taskStatsEntity);
+            }
         }
     }
 
@@ -0,0 +1,31 @@
+-- global stats are spread over 8 stripe rows (id 1..8), the existing totals are divided between them
+-- and the remainder stays in stripe 1, so the sum of every column is unchanged
+INSERT INTO global_task_stats (id, total_created, total_in_progress, total_done,
+                               low_priority_count, medium_priority_count, high_priority_count)
+SELECT s.id, 0, 0, 0, 0, 0, 0
+FROM generate_series(1, 8) AS s(id)
+ON CONFLICT (id) DO NOTHING;
+
+WITH totals AS (SELECT coalesce(sum(total_created), 0)         AS total_created,
+                       coalesce(sum(total_in_progress), 0)     AS total_in_progress,
+                       coalesce(sum(total_done), 0)            AS total_done,
+                       coalesce(sum(low_priority_count), 0)    AS low_priority_count,
+                       coalesce(sum(medium_priority_count), 0) AS medium_priority_count,
+                       coalesce(sum(high_priority_count), 0)   AS high_priority_count
+                FROM global_task_stats)
+UPDATE global_task_stats g
+SET total_created         = t.total_created / 8 + CASE WHEN g.id = 1 THEN t.total_created % 8 ELSE 0 END,
+    total_in_progress     = t.total_in_progress / 8 + CASE WHEN g.id = 1 THEN t.total_in_progress % 8 ELSE 0 END,
+    total_done            = t.total_done / 8 + CASE WHEN g.id = 1 THEN t.total_done % 8 ELSE 0 END,
+    low_priority_count    = t.low_priority_count / 8 + CASE WHEN g.id = 1 THEN t.low_priority_count % 8 ELSE 0 END,
+    medium_priority_count = t.medium_priority_count / 8 + CASE WHEN g.id = 1 THEN t.medium_priority_count % 8 ELSE 0 END,
+    high_priority_count   = t.high_priority_count / 8 + CASE WHEN g.id = 1 THEN t.high_priority_count % 8 ELSE 0 END
+FROM totals t;
+
+ALTER TABLE global_task_stats
+    ALTER COLUMN total_created SET DEFAULT 0,
+    ALTER COLUMN total_in_progress SET DEFAULT 0,
+    ALTER COLUMN total_done SET DEFAULT 0,
+    ALTER COLUMN low_priority_count SET DEFAULT 0,
+    ALTER COLUMN medium_priority_count SET DEFAULT 0,
+    ALTER COLUMN high_priority_count SET DEFAULT 0;
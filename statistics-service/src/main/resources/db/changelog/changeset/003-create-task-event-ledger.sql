@@ -0,0 +1,7 @@
+-- per task: every sequence <= watermark was applied, seen_mask bit i = sequence watermark + 1 + i was applied
+CREATE TABLE task_event_ledger
+(
+    task_id   BIGINT PRIMARY KEY,
+    watermark BIGINT NOT NULL,
+    seen_mask BIGINT NOT NULL DEFAULT 0
+);
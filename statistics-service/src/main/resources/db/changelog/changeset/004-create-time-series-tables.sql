@@ -0,0 +1,30 @@
+-- when live tasks were created and last started, lead time of a DONE event is measured against created_at
+CREATE TABLE task_lifecycle
+(
+    task_id    BIGINT PRIMARY KEY,
+    created_at TIMESTAMP,
+    started_at TIMESTAMP
+);
+
+-- one row per granularity (HOUR, DAY, MONTH) and bucket, new buckets are appended at the end of the key range
+CREATE TABLE stats_bucket
+(
+    granularity           VARCHAR(5) NOT NULL,
+    bucket_start          TIMESTAMP  NOT NULL,
+    created_count         BIGINT     NOT NULL DEFAULT 0,
+    started_count         BIGINT     NOT NULL DEFAULT 0,
+    done_count            BIGINT     NOT NULL DEFAULT 0,
+    lead_time_count       BIGINT     NOT NULL DEFAULT 0,
+    lead_time_sum_seconds BIGINT     NOT NULL DEFAULT 0,
+    PRIMARY KEY (granularity, bucket_start)
+) WITH (fillfactor = 80);
+
+-- sparse lead time histogram of a bucket, only non-empty bins have a row
+CREATE TABLE stats_lead_time_bin
+(
+    granularity  VARCHAR(5) NOT NULL,
+    bucket_start TIMESTAMP  NOT NULL,
+    bin          SMALLINT   NOT NULL,
+    count        BIGINT     NOT NULL,
+    PRIMARY KEY (granularity, bucket_start, bin)
+) WITH (fillfactor = 80);
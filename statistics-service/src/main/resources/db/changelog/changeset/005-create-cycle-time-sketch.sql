@@ -0,0 +1,8 @@
+-- compressed HdrHistogram of phase durations in seconds, owner = assignee id or -stripe for the global sketches
+CREATE TABLE cycle_time_sketch
+(
+    owner_id BIGINT      NOT NULL,
+    phase    VARCHAR(32) NOT NULL,
+    sketch   BYTEA,
+    PRIMARY KEY (owner_id, phase)
+);
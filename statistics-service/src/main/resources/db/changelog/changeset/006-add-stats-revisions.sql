@@ -0,0 +1,4 @@
+-- bumped on every write of a row, lets the in-memory read model apply committed rows in any order and resync idempotently
+ALTER TABLE global_task_stats ADD COLUMN revision BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE user_stats ADD COLUMN revision BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE cycle_time_sketch ADD COLUMN revision BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,17 @@
+-- current state of live tasks, the in-progress ones with a deadline feed the overdue leaderboard
+ALTER TABLE task_lifecycle ADD COLUMN assigned_user_id BIGINT;
+ALTER TABLE task_lifecycle ADD COLUMN status VARCHAR(16);
+ALTER TABLE task_lifecycle ADD COLUMN deadline DATE;
+ALTER TABLE task_lifecycle ADD COLUMN revision BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_task_lifecycle_in_progress ON task_lifecycle (task_id) WHERE status = 'IN_PROGRESS';
+
+-- completed tasks per assignee and ISO week (week_start = Monday)
+CREATE TABLE user_weekly_stats
+(
+    week_start DATE   NOT NULL,
+    user_id    BIGINT NOT NULL,
+    done_count BIGINT NOT NULL DEFAULT 0,
+    revision   BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (week_start, user_id)
+);
@@ -0,0 +1,43 @@
+-- one reconciliation of the counters against task-service, at most one RUNNING at a time
+CREATE TABLE stats_reconcile_run
+(
+    run_id         BIGSERIAL PRIMARY KEY,
+    status         VARCHAR(16) NOT NULL,
+    max_task_id    BIGINT      NOT NULL,
+    started_at     TIMESTAMP   NOT NULL DEFAULT now(),
+    heartbeat_at   TIMESTAMP   NOT NULL DEFAULT now(),
+    finished_at    TIMESTAMP,
+    tasks          BIGINT,
+    drifted_rows   BIGINT,
+    corrected_rows BIGINT,
+    skipped_rows   BIGINT
+);
+
+CREATE UNIQUE INDEX ux_stats_reconcile_run_running ON stats_reconcile_run (status) WHERE status = 'RUNNING';
+
+-- task id ranges (after_id, to_id] already counted by a run
+CREATE TABLE stats_reconcile_range
+(
+    run_id   BIGINT NOT NULL,
+    after_id BIGINT NOT NULL,
+    to_id    BIGINT NOT NULL,
+    tasks    BIGINT NOT NULL,
+    PRIMARY KEY (run_id, after_id)
+);
+
+-- counters recomputed from the counted ranges, owner 0 = global; baseline_revision = revision of the stats row when the run started
+CREATE TABLE stats_reconcile_counts
+(
+    run_id                BIGINT NOT NULL,
+    owner_id              BIGINT NOT NULL,
+    baseline_revision     BIGINT,
+    total_created         BIGINT NOT NULL DEFAULT 0,
+    total_assigned        BIGINT NOT NULL DEFAULT 0,
+    todo_count            BIGINT NOT NULL DEFAULT 0,
+    in_progress_count     BIGINT NOT NULL DEFAULT 0,
+    done_count            BIGINT NOT NULL DEFAULT 0,
+    low_priority_count    BIGINT NOT NULL DEFAULT 0,
+    medium_priority_count BIGINT NOT NULL DEFAULT 0,
+    high_priority_count   BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (run_id, owner_id)
+);
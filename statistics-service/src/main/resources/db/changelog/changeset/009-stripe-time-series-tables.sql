@@ -0,0 +1,11 @@
+-- time buckets are striped like global_task_stats, so lanes do not all queue on the current hour, day and month rows.
+-- Existing rows become stripe 1, reads sum the stripes of a bucket
+ALTER TABLE stats_bucket ADD COLUMN stripe SMALLINT NOT NULL DEFAULT 1;
+ALTER TABLE stats_bucket ALTER COLUMN stripe DROP DEFAULT;
+ALTER TABLE stats_bucket DROP CONSTRAINT stats_bucket_pkey;
+ALTER TABLE stats_bucket ADD PRIMARY KEY (granularity, bucket_start, stripe);
+
+ALTER TABLE stats_lead_time_bin ADD COLUMN stripe SMALLINT NOT NULL DEFAULT 1;
+ALTER TABLE stats_lead_time_bin ALTER COLUMN stripe DROP DEFAULT;
+ALTER TABLE stats_lead_time_bin DROP CONSTRAINT stats_lead_time_bin_pkey;
+ALTER TABLE stats_lead_time_bin ADD PRIMARY KEY (granularity, bucket_start, stripe, bin);
@@ -0,0 +1,109 @@
+package com.project.statisticsservice.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+        GLOBAL STATS ROW CONTENTION BENCHMARK
+    several writers run transactions shaped like a stats flush: update a global row, then spend
+    some time on the user rows before commit. With 1 stripe every writer waits for the row lock
+    of the others, with N stripes each writer has its own row. Lock wait = time spent in the UPDATE.
+
+    -Dbench.url=jdbc:postgresql://localhost:5432/postgres -Dbench.user=postgres -Dbench.password=postgres
+    -Dbench.writers=6 -Dbench.transactions=300 -Dbench.holdMillis=2 -Dbench.stripes=1,8
+ */
+public class GlobalStatsContentionBenchmark {
+
+    private static final String TABLE = "bench_global_task_stats";
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("bench.url", "jdbc:postgresql://localhost:5432/postgres");
+        String user = System.getProperty("bench.user", "postgres");
+        String password = System.getProperty("bench.password", "postgres");
+        int writers = Integer.getInteger("bench.writers", 6);
+        int transactions = Integer.getInteger("bench.transactions", 300);
+        long holdMillis = Long.getLong("bench.holdMillis", 2);
+        int[] stripeCounts = Arrays.stream(System.getProperty("bench.stripes", "1,8").split(","))
+                .mapToInt(count -> Integer.parseInt(count.trim()))
+                .toArray();
+
+        System.out.printf("%-8s %10s %14s %14s %14s%n", "stripes", "tx/s", "wait avg ms", "wait p99 ms", "wait max ms");
+
+        for (int stripes : stripeCounts) {
+            try (Connection connection = DriverManager.getConnection(url, user, password)) {
+                createTable(connection, stripes);
+            }
+
+            long[] waits = new long[writers * transactions];
+            long start = System.nanoTime();
+
+            try (ExecutorService executor = Executors.newFixedThreadPool(writers)) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int writer = 0; writer < writers; writer++) {
+                    int writerIndex = writer;
+                    // like a consumer thread owning one partition: stripe = partition % stripes + 1
+                    int stripe = writer % stripes + 1;
+                    futures.add(executor.submit(() -> {
+                        runWriter(url, user, password, stripe, transactions, holdMillis,
+                                waits, writerIndex * transactions);
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+
+            double seconds = (System.nanoTime() - start) / 1e9;
+            Arrays.sort(waits);
+            System.out.printf("%-8d %10.1f %14.3f %14.3f %14.3f%n",
+                    stripes,
+                    waits.length / seconds,
+                    Arrays.stream(waits).average().orElse(0) / 1e6,
+                    waits[(int) Math.ceil(0.99 * waits.length) - 1] / 1e6,
+                    waits[waits.length - 1] / 1e6);
+        }
+
+        try (Connection connection = DriverManager.getConnection(url, user, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+        }
+    }
+
+    private static void createTable(Connection connection, int stripes) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+            statement.execute("CREATE TABLE " + TABLE + " (id BIGINT PRIMARY KEY, total_created BIGINT NOT NULL)");
+            statement.execute("INSERT INTO " + TABLE + " SELECT s, 0 FROM generate_series(1, " + stripes + ") s");
+        }
+    }
+
+    private static void runWriter(String url, String user, String password, int stripe, int transactions,
+                                  long holdMillis, long[] waits, int offset) throws Exception {
+        try (Connection connection = DriverManager.getConnection(url, user, password);
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE " + TABLE + " SET total_created = total_created + 1 WHERE id = ?")) {
+            connection.setAutoCommit(false);
+
+            for (int i = 0; i < transactions; i++) {
+                long start = System.nanoTime();
+                update.setLong(1, stripe);
+                update.executeUpdate();
+                waits[offset + i] = System.nanoTime() - start;
+
+                // the rest of the flush (user_stats upsert) while the row lock is held
+                Thread.sleep(holdMillis);
+                connection.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.project.statisticsservice.benchmark;
+
+import com.project.statisticsservice.api.service.ingest.StatsBatch;
+import com.project.statisticsservice.api.service.streams.StatsCounters;
+import com.project.statisticsservice.api.service.streams.StatsStreamsTopology;
+import com.project.statisticsservice.repository.StatsBatchRepository;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.LongSerializer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaZKBroker;
+import org.springframework.transaction.support.TransactionTemplate;
+import task.kafka.TaskEvent;
+import task.kafka.TaskEventType;
+import task.model.Priority;
+import task.model.TaskStatus;
+
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+        STATS ENGINE THROUGHPUT BENCHMARK
+    the same generated events (create, start, finish per task) are counted by both engines:
+    - jdbc: polls of bench.batch events folded and written the way StatsIngestService writes the counters
+      (user upsert + global stripe, one transaction per poll, one writer per stripe). Ledger, lifecycle,
+      sketches and series are left out, only the counters both engines keep are compared.
+      Writes into the stats tables of bench.url, use a scratch database migrated by the service
+    - streams: the StatsStreamsTopology over an in-process broker, timed from start until the global
+      counters have seen every event
+
+    -Dbench.url=jdbc:postgresql://localhost:5432/stats_bench -Dbench.user=postgres -Dbench.password=postgres
+    -Dbench.tasks=20000 -Dbench.users=500 -Dbench.batch=500 -Dbench.writers=3 -Dbench.partitions=3
+    -Dbench.engines=jdbc,streams -Dbench.store=rocksdb
+ */
+public class StatsEngineThroughputBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int tasks = Integer.getInteger("bench.tasks", 20_000);
+        int users = Integer.getInteger("bench.users", 500);
+        List<String> engines = List.of(System.getProperty("bench.engines", "jdbc,streams").split(","));
+
+        List<TaskEvent> events = events(tasks, users);
+        System.out.printf("%-8s %10s %10s%n", "engine", "events", "events/s");
+
+        for (String engine : engines) {
+            double seconds = switch (engine.trim()) {
+                case "jdbc" -> runJdbc(events);
+                case "streams" -> runStreams(events, tasks);
+                default -> throw new IllegalArgumentException("unknown engine " + engine);
+            };
+            System.out.printf("%-8s %10d %10.0f%n", engine.trim(), events.size(), events.size() / seconds);
+        }
+    }
+
+    private static double runJdbc(List<TaskEvent> events) throws Exception {
+        int batch = Integer.getInteger("bench.batch", 500);
+        int writers = Integer.getInteger("bench.writers", 3);
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getProperty("bench.url", "jdbc:postgresql://localhost:5432/stats_bench"),
+                System.getProperty("bench.user", "postgres"),
+                System.getProperty("bench.password", "postgres"));
+        StatsBatchRepository repository = new StatsBatchRepository(new JdbcTemplate(dataSource));
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        // like the consumer threads: writer w owns the events of "partition" w and global stripe w + 1
+        List<List<TaskEvent>> partitions = new ArrayList<>();
+        for (int writer = 0; writer < writers; writer++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (TaskEvent event : events) {
+            partitions.get((int) (event.taskId() % writers)).add(event);
+        }
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(writers)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int writer = 0; writer < writers; writer++) {
+                List<TaskEvent> partition = partitions.get(writer);
+                int stripe = writer + 1;
+                futures.add(executor.submit(() -> {
+                    for (int from = 0; from < partition.size(); from += batch) {
+                        StatsBatch folded = StatsBatch.fold(
+                                partition.subList(from, Math.min(from + batch, partition.size())), stripe);
+                        transaction.executeWithoutResult(status -> {
+                            repository.applyUsers(folded.getUserDeltas());
+                            folded.getGlobals().forEach(repository::applyGlobal);
+                        });
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    private static double runStreams(List<TaskEvent> events, int tasks) throws Exception {
+        int partitions = Integer.getInteger("bench.partitions", 3);
+        String store = System.getProperty("bench.store", "rocksdb");
+
+        EmbeddedKafkaBroker broker = new EmbeddedKafkaZKBroker(1, false, partitions, StatsStreamsTopology.TOPIC);
+        broker.afterPropertiesSet();
+        try {
+            Properties producerProps = new Properties();
+            producerProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+            producerProps.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+            try (KafkaProducer<Long, TaskEvent> producer =
+                         new KafkaProducer<>(producerProps, new LongSerializer(), new JsonSerializer<>())) {
+                for (TaskEvent event : events) {
+                    producer.send(new ProducerRecord<>(StatsStreamsTopology.TOPIC, event.taskId(), event));
+                }
+                producer.flush();
+            }
+
+            Properties props = new Properties();
+            props.put(StreamsConfig.APPLICATION_ID_CONFIG, "stats-bench-" + UUID.randomUUID());
+            props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+            props.put(StreamsConfig.STATE_DIR_CONFIG, Files.createTempDirectory("stats-bench").toString());
+            props.put(StreamsConfig.NUM_STREAM_THREADS_CONFIG, partitions);
+            props.put(StreamsConfig.consumerPrefix("auto.offset.reset"), "earliest");
+
+            StreamsBuilder builder = new StreamsBuilder();
+            StatsStreamsTopology.build(builder, StatsStreamsTopology.storeSupplier(store, StatsStreamsTopology.STORE),
+                    StatsStreamsTopology.storeSupplier(store, StatsStreamsTopology.LEDGER_STORE));
+
+            KafkaStreams streams = new KafkaStreams(builder.build(), props);
+            long start = System.nanoTime();
+            try {
+                streams.start();
+                while (doneSoFar(streams) < tasks) {
+                    Thread.sleep(20);
+                }
+                return (System.nanoTime() - start) / 1e9;
+            } finally {
+                streams.close();
+                streams.cleanUp();
+            }
+        } finally {
+            broker.destroy();
+        }
+    }
+
+    private static long doneSoFar(KafkaStreams streams) {
+        try {
+            ReadOnlyKeyValueStore<Long, StatsCounters> store = streams.store(StoreQueryParameters.fromNameAndType(
+                    StatsStreamsTopology.STORE, QueryableStoreTypes.keyValueStore()));
+            StatsCounters global = store.get(StatsStreamsTopology.GLOBAL_KEY);
+            return global != null ? global.doneCount() : 0;
+        } catch (InvalidStateStoreException e) {
+            return 0;
+        }
+    }
+
+    // per task: CREATED, IN_PROGRESS, DONE, interleaved across tasks like a busy board
+    private static List<TaskEvent> events(int tasks, int users) {
+        Priority[] priorities = Priority.values();
+        List<TaskEvent> events = new ArrayList<>(tasks * 3);
+        LocalDateTime now = LocalDateTime.now();
+        for (int step = 0; step < 3; step++) {
+            for (long taskId = 1; taskId <= tasks; taskId++) {
+                long creator = taskId % users + 1;
+                long assignee = (taskId * 7) % users + 1;
+                Priority priority = priorities[(int) (taskId % priorities.length)];
+                TaskEvent event = switch (step) {
+                    case 0 -> new TaskEvent(taskId, creator, assignee, null, TaskStatus.CREATED, null, priority,
+                            null, now, TaskEventType.CREATED, UUID.randomUUID(), 1L);
+                    case 1 -> new TaskEvent(taskId, creator, assignee, TaskStatus.CREATED, TaskStatus.IN_PROGRESS,
+                            priority, priority, null, now, TaskEventType.UPDATED, UUID.randomUUID(), 2L);
+                    default -> new TaskEvent(taskId, creator, assignee, TaskStatus.IN_PROGRESS, TaskStatus.DONE,
+                            priority, priority, null, now, TaskEventType.UPDATED, UUID.randomUUID(), 3L);
+                };
+                events.add(event);
+            }
+        }
+        return events;
+    }
+}
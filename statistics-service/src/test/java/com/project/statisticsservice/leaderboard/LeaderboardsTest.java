@@ -0,0 +1,76 @@
+package com.project.statisticsservice.leaderboard;
+
+import com.project.statisticsservice.api.dto.leaderboard.LeaderboardEntryDto;
+import com.project.statisticsservice.api.service.ingest.WeeklyDoneBatch;
+import com.project.statisticsservice.api.service.leaderboard.Leaderboards;
+import com.project.statisticsservice.api.service.readmodel.StatsChanges;
+import com.project.statisticsservice.api.service.readmodel.TaskStateRow;
+import com.project.statisticsservice.api.service.readmodel.WeeklyDoneRow;
+import com.project.statisticsservice.repository.TaskLifecycleRepository;
+import com.project.statisticsservice.repository.UserWeeklyStatsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import task.model.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LeaderboardsTest {
+
+    private final LocalDate week = WeeklyDoneBatch.weekStartOf(LocalDate.now());
+    private final UserWeeklyStatsRepository userWeeklyStatsRepository = mock(UserWeeklyStatsRepository.class);
+    private final TaskLifecycleRepository taskLifecycleRepository = mock(TaskLifecycleRepository.class);
+    private final Leaderboards leaderboards =
+            new Leaderboards(userWeeklyStatsRepository, taskLifecycleRepository, new SimpleMeterRegistry(), 10);
+
+    // the listener applies while the snapshot is read, the newer rows survive the swap
+    @Test
+    void applyDoesNotWaitForTheSnapshotRead() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userWeeklyStatsRepository.findWeek(any())).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await();
+            return List.of(new WeeklyDoneRow(week, 7L, 3, 1), new WeeklyDoneRow(week, 8L, 4, 1));
+        });
+        when(taskLifecycleRepository.findInProgress()).thenReturn(List.of(
+                new TaskStateRow(100L, 1, 8L, TaskStatus.IN_PROGRESS, LocalDate.now().minusDays(2))));
+
+        CompletableFuture<Void> rebuild = CompletableFuture.runAsync(leaderboards::rebuild);
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture.runAsync(() -> leaderboards.apply(new StatsChanges(List.of(), List.of(), List.of(),
+                        List.of(new WeeklyDoneRow(week, 7L, 6, 2)), List.of(), List.of(100L))))
+                .get(5, TimeUnit.SECONDS);
+        assertThat(leaderboards.doneThisWeek(10)).extracting(LeaderboardEntryDto::userId).containsExactly(7L);
+
+        release.countDown();
+        rebuild.get(5, TimeUnit.SECONDS);
+
+        assertThat(leaderboards.doneThisWeek(10))
+                .extracting(LeaderboardEntryDto::userId, LeaderboardEntryDto::score)
+                .containsExactly(tuple(7L, 6L), tuple(8L, 4L));
+        assertThat(leaderboards.overdue(10)).isEmpty();
+    }
+
+    @Test
+    void failedSnapshotKeepsTheCurrentBoards() {
+        leaderboards.apply(new StatsChanges(List.of(), List.of(), List.of(),
+                List.of(new WeeklyDoneRow(week, 7L, 2, 1)), List.of(), List.of()));
+        when(userWeeklyStatsRepository.findWeek(any())).thenThrow(new IllegalStateException("database down"));
+
+        assertThatThrownBy(leaderboards::rebuild).isInstanceOf(IllegalStateException.class);
+
+        assertThat(leaderboards.doneThisWeek(10)).extracting(LeaderboardEntryDto::score).containsExactly(2L);
+    }
+}
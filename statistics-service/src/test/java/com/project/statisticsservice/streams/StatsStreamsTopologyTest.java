@@ -0,0 +1,158 @@
+package com.project.statisticsservice.streams;
+
+import com.project.statisticsservice.api.service.streams.StatsCounters;
+import com.project.statisticsservice.api.service.streams.StatsStreamsTopology;
+import com.project.statisticsservice.api.service.streams.StreamsStatsQueries;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.LongSerializer;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.state.Stores;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.config.KafkaStreamsConfiguration;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.kafka.core.CleanupConfig;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.web.client.RestClient;
+import task.kafka.TaskEvent;
+import task.kafka.TaskEventType;
+import task.model.Priority;
+import task.model.TaskStatus;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@EmbeddedKafka(partitions = 2, topics = StatsStreamsTopology.TOPIC)
+class StatsStreamsTopologyTest {
+
+    private static final long CREATOR = 10L;
+    private static final long ASSIGNEE = 20L;
+
+    @TempDir
+    Path stateDir;
+
+    private StreamsBuilderFactoryBean streams;
+    private String applicationId;
+
+    @BeforeEach
+    void applicationId(TestInfo testInfo) {
+        applicationId = "statistics-streams-" + testInfo.getTestMethod().orElseThrow().getName();
+    }
+
+    @AfterEach
+    void stop() {
+        if (streams != null) {
+            streams.stop();
+        }
+    }
+
+    @Test
+    void countsEventsAndRestoresStoreFromChangelog(EmbeddedKafkaBroker broker) throws Exception {
+        try (KafkaProducer<Long, TaskEvent> producer = producer(broker)) {
+            send(producer, List.of(
+                    event(1L, TaskEventType.CREATED, null, TaskStatus.CREATED, Priority.HIGH, 1),
+                    event(1L, TaskEventType.UPDATED, TaskStatus.CREATED, TaskStatus.IN_PROGRESS, Priority.HIGH, 2),
+                    event(2L, TaskEventType.CREATED, null, TaskStatus.CREATED, Priority.LOW, 1),
+                    event(1L, TaskEventType.UPDATED, TaskStatus.IN_PROGRESS, TaskStatus.DONE, Priority.HIGH, 3)));
+
+            StreamsStatsQueries queries = start(broker);
+            awaitCounters(queries, StatsStreamsTopology.GLOBAL_KEY, new StatsCounters(2, 0, 0, 0, 1, 1, 0, 1));
+            awaitCounters(queries, CREATOR, new StatsCounters(2, 0, 0, 0, 0, 0, 0, 0));
+            awaitCounters(queries, ASSIGNEE, new StatsCounters(0, 2, 1, 0, 1, 1, 0, 1));
+
+            // stop wipes the local state directory, the next instance rebuilds the store from the changelog only
+            streams.stop();
+            send(producer, List.of(
+                    event(2L, TaskEventType.UPDATED, TaskStatus.CREATED, TaskStatus.IN_PROGRESS, Priority.LOW, 2)));
+
+            queries = start(broker);
+            awaitCounters(queries, StatsStreamsTopology.GLOBAL_KEY, new StatsCounters(2, 0, 0, 1, 1, 1, 0, 1));
+            awaitCounters(queries, ASSIGNEE, new StatsCounters(0, 2, 0, 1, 1, 1, 0, 1));
+        }
+    }
+
+    @Test
+    void republishedEventsAreCountedOnce(EmbeddedKafkaBroker broker) throws Exception {
+        TaskEvent created = event(1L, TaskEventType.CREATED, null, TaskStatus.CREATED, Priority.HIGH, 1);
+        TaskEvent started = event(1L, TaskEventType.UPDATED, TaskStatus.CREATED, TaskStatus.IN_PROGRESS, Priority.HIGH, 2);
+
+        try (KafkaProducer<Long, TaskEvent> producer = producer(broker)) {
+            // the relay sends the unacknowledged tail again, copies follow the originals in the task's partition
+            send(producer, List.of(created, started, created, started,
+                    event(1L, TaskEventType.UPDATED, TaskStatus.IN_PROGRESS, TaskStatus.DONE, Priority.HIGH, 3)));
+
+            StreamsStatsQueries queries = start(broker);
+            awaitCounters(queries, StatsStreamsTopology.GLOBAL_KEY, new StatsCounters(1, 0, 0, 0, 1, 0, 0, 1));
+            awaitCounters(queries, ASSIGNEE, new StatsCounters(0, 1, 0, 0, 1, 0, 0, 1));
+        }
+    }
+
+    @Test
+    void unknownUserHasZeroCounters(EmbeddedKafkaBroker broker) throws Exception {
+        StreamsStatsQueries queries = start(broker);
+
+        awaitCounters(queries, 404L, StatsCounters.ZERO);
+    }
+
+    private StreamsStatsQueries start(EmbeddedKafkaBroker broker) throws Exception {
+        Map<String, Object> props = new HashMap<>();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, applicationId);
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        props.put(StreamsConfig.COMMIT_INTERVAL_MS_CONFIG, 100);
+        props.put(StreamsConfig.REPLICATION_FACTOR_CONFIG, 1);
+        props.put(StreamsConfig.consumerPrefix("auto.offset.reset"), "earliest");
+        // a restarted instance otherwise waits for the stopped member's session to expire
+        props.put(StreamsConfig.consumerPrefix("session.timeout.ms"), 6000);
+
+        streams = new StreamsBuilderFactoryBean(new KafkaStreamsConfiguration(props), new CleanupConfig(false, true));
+        streams.afterPropertiesSet();
+        StatsStreamsTopology.build(streams.getObject(), Stores.persistentKeyValueStore(StatsStreamsTopology.STORE),
+                Stores.persistentKeyValueStore(StatsStreamsTopology.LEDGER_STORE));
+        streams.afterSingletonsInstantiated();
+        streams.start();
+
+        return new StreamsStatsQueries(streams, RestClient.builder());
+    }
+
+    private static void awaitCounters(StreamsStatsQueries queries, long key, StatsCounters expected) {
+        await().atMost(Duration.ofSeconds(60))
+                .ignoreException(InvalidStateStoreException.class)
+                .untilAsserted(() -> assertThat(queries.counters(key)).isEqualTo(expected));
+    }
+
+    private static KafkaProducer<Long, TaskEvent> producer(EmbeddedKafkaBroker broker) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        return new KafkaProducer<>(props, new LongSerializer(), new JsonSerializer<>());
+    }
+
+    private static void send(KafkaProducer<Long, TaskEvent> producer, List<TaskEvent> events) throws Exception {
+        for (TaskEvent event : events) {
+            producer.send(new ProducerRecord<>(StatsStreamsTopology.TOPIC, event.taskId(), event)).get();
+        }
+    }
+
+    private static TaskEvent event(long taskId, TaskEventType type, TaskStatus oldStatus, TaskStatus newStatus,
+                                   Priority priority, long sequence) {
+        return new TaskEvent(taskId, CREATOR, ASSIGNEE, oldStatus, newStatus,
+                type == TaskEventType.CREATED ? null : priority, priority, null,
+                LocalDateTime.now(), type, UUID.randomUUID(), sequence);
+    }
+}
@@ -1,13 +1,24 @@
 package com.project.taskservice.api.controllers;
 
+import com.project.taskservice.api.dto.TaskBatchResult;
+import com.project.taskservice.api.dto.TaskExportFormat;
+import com.project.taskservice.api.dto.TaskFilter;
+import com.project.taskservice.api.dto.TaskPage;
+import com.project.taskservice.api.dto.TaskSortKey;
+import task.model.Priority;
 import task.model.TaskDto;
+import com.project.taskservice.api.service.TaskExportService;
 import com.project.taskservice.api.service.TaskService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import task.model.TaskStatus;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -15,18 +26,96 @@ import java.util.List;
 @Slf4j
 public class TaskController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String NEXT_PAGE_HEADER = "X-Next-Page";
+
     private final TaskService taskService;
+    private final TaskExportService taskExportService;
 
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskExportService taskExportService) {
         this.taskService = taskService;
+        this.taskExportService = taskExportService;
     }
 
-    // get all Tasks
+    // get tasks page by page (keyset), next page cursor is returned in X-Next-Cursor header
     @GetMapping()
-    public ResponseEntity<List<TaskDto>> getAllTasks() {
-        log.info("Called getAllTasks()");
+    public ResponseEntity<List<TaskDto>> getAllTasks(
+            @RequestParam(value = "assignedUserId", required = false) Long assignedUserId,
+            @RequestParam(value = "creatorId", required = false) Long creatorId,
+            @RequestParam(value = "taskStatus", required = false) TaskStatus taskStatus,
+            @RequestParam(value = "priority", required = false) Priority priority,
+            @RequestParam(value = "deadlineFrom", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate deadlineFrom,
+            @RequestParam(value = "deadlineTo", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate deadlineTo,
+            @RequestParam(value = "sort", defaultValue = "ID") TaskSortKey sort,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        log.info("Called getAllTasks(): sort={}, cursor={}, limit={}", sort, cursor, limit);
 
-        return ResponseEntity.ok(taskService.findAllTasks());
+        var filter = new TaskFilter(assignedUserId, creatorId, taskStatus, priority, deadlineFrom, deadlineTo);
+        TaskPage page = taskService.findTasks(filter, sort, cursor, limit);
+
+        var response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.tasks());
+    }
+
+    // full-text search in descriptions, best matches first, next page number is returned in X-Next-Page header
+    @GetMapping("/search")
+    public ResponseEntity<List<TaskDto>> searchTasks(
+            @RequestParam("q") String query,
+            @RequestParam(value = "assignedUserId", required = false) Long assignedUserId,
+            @RequestParam(value = "creatorId", required = false) Long creatorId,
+            @RequestParam(value = "taskStatus", required = false) TaskStatus taskStatus,
+            @RequestParam(value = "priority", required = false) Priority priority,
+            @RequestParam(value = "deadlineFrom", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate deadlineFrom,
+            @RequestParam(value = "deadlineTo", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate deadlineTo,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        log.info("Called searchTasks(): page={}, limit={}", page, limit);
+
+        var filter = new TaskFilter(assignedUserId, creatorId, taskStatus, priority, deadlineFrom, deadlineTo);
+        TaskPage result = taskService.searchTasks(query, filter, page, limit);
+
+        var response = ResponseEntity.ok();
+        if (result.nextCursor() != null) {
+            response.header(NEXT_PAGE_HEADER, result.nextCursor());
+        }
+        return response.body(result.tasks());
+    }
+
+    // get several tasks with one query: GET /tasks?ids=1,2,3
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<TaskDto>> getTasksByIds(
+            @RequestParam("ids") List<Long> ids
+    ) {
+        log.info("Called getTasksByIds(): count={}", ids.size());
+
+        return ResponseEntity.ok(taskService.findTasksByIds(ids));
+    }
+
+    // export tasks as a stream (NDJSON or CSV), all of them or one keyset page: ids in (afterId, toId], at most limit rows (0 = no limit)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @RequestParam(value = "format", defaultValue = "NDJSON") TaskExportFormat format,
+            @RequestParam(value = "afterId", defaultValue = "0") long afterId,
+            @RequestParam(value = "toId", defaultValue = "" + Long.MAX_VALUE) long toId,
+            @RequestParam(value = "limit", defaultValue = "0") int limit
+    ) {
+        log.info("Called exportTasks(): format={}, afterId={}, toId={}, limit={}", format, afterId, toId, limit);
+
+        StreamingResponseBody body = outputStream -> taskExportService.export(format, afterId, toId, limit, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .body(body);
     }
 
     // get task by ID
@@ -53,6 +142,26 @@ public class TaskController {
                 .body(created);
     }
 
+    // create many tasks in one request, result is reported per item
+    @PostMapping("/batch")
+    public ResponseEntity<TaskBatchResult> createTasks(
+            @RequestBody List<TaskDto> tasksToCreate
+    ) {
+        log.info("Called createTasks(): count={}", tasksToCreate.size());
+
+        return ResponseEntity.ok(taskService.createTasks(tasksToCreate));
+    }
+
+    // update many tasks in one request, every item must have an id
+    @PutMapping("/batch")
+    public ResponseEntity<TaskBatchResult> updateTasks(
+            @RequestBody List<TaskDto> tasksToUpdate
+    ) {
+        log.info("Called updateTasks(): count={}", tasksToUpdate.size());
+
+        return ResponseEntity.ok(taskService.updateTasks(tasksToUpdate));
+    }
+
     // update task by id
     @PutMapping("/{id}")
     public ResponseEntity<TaskDto> updateTask(
@@ -0,0 +1,19 @@
+package com.project.taskservice.api.dto;
+
+import task.model.TaskDto;
+
+public record TaskBatchItemResult(
+        int index,
+        boolean success,
+        TaskDto task,
+        String error
+) {
+
+    public static TaskBatchItemResult ok(int index, TaskDto task) {
+        return new TaskBatchItemResult(index, true, task, null);
+    }
+
+    public static TaskBatchItemResult failed(int index, String error) {
+        return new TaskBatchItemResult(index, false, null, error);
+    }
+}
@@ -0,0 +1,15 @@
+package com.project.taskservice.api.dto;
+
+import java.util.List;
+
+public record TaskBatchResult(
+        int succeeded,
+        int failed,
+        List<TaskBatchItemResult> items
+) {
+
+    public static TaskBatchResult of(List<TaskBatchItemResult> items) {
+        int succeeded = (int) items.stream().filter(TaskBatchItemResult::success).count();
+        return new TaskBatchResult(succeeded, items.size() - succeeded, items);
+    }
+}
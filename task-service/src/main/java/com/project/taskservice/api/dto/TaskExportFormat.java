@@ -0,0 +1,18 @@
+package com.project.taskservice.api.dto;
+
+import org.springframework.http.MediaType;
+
+public enum TaskExportFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    CSV(new MediaType("text", "csv"));
+
+    private final MediaType mediaType;
+
+    TaskExportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+}
@@ -0,0 +1,16 @@
+package com.project.taskservice.api.dto;
+
+import task.model.Priority;
+import task.model.TaskStatus;
+
+import java.time.LocalDate;
+
+public record TaskFilter(
+        Long assignedUserId,
+        Long creatorId,
+        TaskStatus taskStatus,
+        Priority priority,
+        LocalDate deadlineFrom,
+        LocalDate deadlineTo
+) {
+}
@@ -0,0 +1,11 @@
+package com.project.taskservice.api.dto;
+
+import task.model.TaskDto;
+
+import java.util.List;
+
+public record TaskPage(
+        List<TaskDto> tasks,
+        String nextCursor
+) {
+}
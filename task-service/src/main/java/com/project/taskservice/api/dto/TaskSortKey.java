@@ -0,0 +1,6 @@
+package com.project.taskservice.api.dto;
+
+public enum TaskSortKey {
+    ID,
+    DEADLINE
+}
@@ -1,7 +1,11 @@
 package com.project.taskservice.api.exceptions;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.OptimisticLockException;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -13,8 +17,11 @@ import java.util.NoSuchElementException;
 
 @ControllerAdvice
 @Slf4j
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponseDTO> handleGenericException(Exception e) {
         log.error("Handle exception", e);
@@ -45,6 +52,22 @@ public class GlobalExceptionHandler {
                 .body(errorResponseDTO);
     }
 
+    @ExceptionHandler({OptimisticLockingFailureException.class, OptimisticLockException.class})
+    public ResponseEntity<ErrorResponseDTO> handleConflict(RuntimeException e) {
+        log.warn("Handle conflict: {}", e.getMessage());
+        meterRegistry.counter("task.optimistic.lock.conflicts").increment();
+
+        var errorResponseDTO = new ErrorResponseDTO(
+                "Conflict",
+                "Task was changed by another request, reload it and try again",
+                LocalDateTime.now()
+        );
+
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(errorResponseDTO);
+    }
+
     @ExceptionHandler(exception = {
             IllegalArgumentException.class,
             IllegalStateException.class,
@@ -0,0 +1,84 @@
+package com.project.taskservice.api.service;
+
+import com.project.taskservice.repository.UserActiveTasksRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import task.model.TaskStatus;
+
+import java.util.Objects;
+
+/*
+        WIP LIMIT
+    every assignee has a counter row in user_active_tasks, changed in the same transaction
+    as the task status. Taking a slot is one conditional upsert instead of a COUNT query,
+    and concurrent starts for one user wait on the row lock instead of both passing the check.
+    Not @Transactional on purpose: a rejected slot thrown through a transactional proxy would mark
+    the caller's transaction rollback-only, and batch updates fail that one item, not the whole batch
+ */
+@Service
+public class ActiveTaskLimiter {
+
+    private final UserActiveTasksRepository userActiveTasksRepository;
+    private final int wipLimit;
+
+    private final Counter acquiredCounter;
+    private final Counter rejectedCounter;
+    private final Timer acquireTimer;
+
+    public ActiveTaskLimiter(UserActiveTasksRepository userActiveTasksRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${task.wip-limit:4}") int wipLimit) {
+        this.userActiveTasksRepository = userActiveTasksRepository;
+        this.wipLimit = wipLimit;
+
+        this.acquiredCounter = meterRegistry.counter("task.wip.acquire", "result", "acquired");
+        this.rejectedCounter = meterRegistry.counter("task.wip.acquire", "result", "rejected");
+        // time spent waiting on the counter row lock shows up here
+        this.acquireTimer = meterRegistry.timer("task.wip.acquire.latency");
+    }
+
+    public void acquire(Long userId) {
+        requireTransaction();
+        int updated = acquireTimer.record(() -> userActiveTasksRepository.tryAcquire(userId, wipLimit));
+
+        if (updated == 0) {
+            rejectedCounter.increment();
+            throw new IllegalStateException("Limit exceeded (" + wipLimit + ") with active tasks with userId= " + userId);
+        }
+        acquiredCounter.increment();
+    }
+
+    public void release(Long userId) {
+        requireTransaction();
+        userActiveTasksRepository.release(userId);
+    }
+
+    // keeps the counters right when a task changes status or assignee
+    public void onTransition(TaskStatus oldStatus, Long oldAssigneeId, TaskStatus newStatus, Long newAssigneeId) {
+        boolean wasActive = oldStatus == TaskStatus.IN_PROGRESS && oldAssigneeId != null;
+        boolean isActive = newStatus == TaskStatus.IN_PROGRESS && newAssigneeId != null;
+
+        if (wasActive && isActive && Objects.equals(oldAssigneeId, newAssigneeId)) {
+            return;
+        }
+
+        if (isActive) {
+            acquire(newAssigneeId);
+        }
+        if (wasActive) {
+            release(oldAssigneeId);
+        }
+    }
+
+    // the counter row must change in the same transaction as the task status
+    private static void requireTransaction() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalTransactionStateException("WIP limit must be changed inside the task transaction");
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.project.taskservice.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.project.taskservice.api.dto.TaskExportFormat;
+import com.project.taskservice.repository.TaskRepository;
+import com.project.taskservice.repository.entity.TaskEntity;
+import com.project.taskservice.utils.TaskMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/*
+        EXPORT OF ALL TASKS
+    rows are read through a forward-only DB cursor and written to the response
+    one by one, every entity is detached right after it is written,
+    so memory use does not depend on the size of the table.
+    afterId, toId and limit select one keyset page: (afterId, toId] by id, at most limit rows
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskExportService {
+
+    private static final int FLUSH_EVERY_ROWS = 1000;
+    private static final String CSV_HEADER =
+            "id,creatorId,assignedUserId,taskStatus,priority,createDateTime,deadlineDate,doneDateTime,descriptionOfTask\n";
+
+    private final TaskRepository taskRepository;
+    private final TaskMapper taskMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final MeterRegistry meterRegistry;
+
+    @Transactional(readOnly = true)
+    public long export(TaskExportFormat format, long afterId, long toId, int limit, OutputStream outputStream) {
+        Counter rowsCounter = meterRegistry.counter("tasks.export.rows", "format", format.name());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long rows = 0;
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+
+        Limit rowLimit = limit > 0 ? Limit.of(limit) : Limit.unlimited();
+        try (Stream<TaskEntity> tasks = taskRepository.streamRange(afterId, toId, rowLimit)) {
+            Iterator<TaskEntity> iterator = tasks.iterator();
+
+            switch (format) {
+                case NDJSON -> rows = writeNdjson(iterator, writer, rowsCounter);
+                case CSV -> rows = writeCsv(iterator, writer, rowsCounter);
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Task export was interrupted after " + rows + " rows", e);
+        } finally {
+            sample.stop(meterRegistry.timer("tasks.export.duration", "format", format.name()));
+        }
+
+        log.info("Task export finished: format={}, rows={}", format, rows);
+        return rows;
+    }
+
+    private long writeNdjson(Iterator<TaskEntity> tasks, Writer writer, Counter rowsCounter) throws IOException {
+        long rows = 0;
+
+        SequenceWriter sequenceWriter = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .writeValues(writer);
+
+        while (tasks.hasNext()) {
+            TaskEntity task = tasks.next();
+            sequenceWriter.write(taskMapper.toDomainTask(task));
+            rows = afterRow(task, rows, writer, rowsCounter);
+        }
+
+        sequenceWriter.flush();
+        if (rows > 0) {
+            writer.write('\n');
+        }
+        return rows;
+    }
+
+    private long writeCsv(Iterator<TaskEntity> tasks, Writer writer, Counter rowsCounter) throws IOException {
+        long rows = 0;
+        writer.write(CSV_HEADER);
+
+        while (tasks.hasNext()) {
+            TaskEntity task = tasks.next();
+
+            writer.write(String.valueOf(task.getId()));
+            writer.write(',');
+            writer.write(String.valueOf(task.getCreatorId()));
+            writer.write(',');
+            writer.write(csvValue(task.getAssignedUserId()));
+            writer.write(',');
+            writer.write(csvValue(task.getTaskStatus()));
+            writer.write(',');
+            writer.write(csvValue(task.getPriority()));
+            writer.write(',');
+            writer.write(csvValue(task.getCreateDateTime()));
+            writer.write(',');
+            writer.write(csvValue(task.getDeadlineDate()));
+            writer.write(',');
+            writer.write(csvValue(task.getDoneDateTime()));
+            writer.write(',');
+            writer.write(csvText(task.getDescriptionOfTask()));
+            writer.write('\n');
+
+            rows = afterRow(task, rows, writer, rowsCounter);
+        }
+        return rows;
+    }
+
+    private long afterRow(TaskEntity task, long rows, Writer writer, Counter rowsCounter) throws IOException {
+        entityManager.detach(task);
+        rowsCounter.increment();
+
+        long written = rows + 1;
+        if (written % FLUSH_EVERY_ROWS == 0) {
+            writer.flush();
+        }
+        return written;
+    }
+
+    private static String csvValue(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static String csvText(String value) {
+        if (value == null) {
+            return "";
+        }
+
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
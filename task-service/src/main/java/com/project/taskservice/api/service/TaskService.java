@@ -1,15 +1,30 @@
 package com.project.taskservice.api.service;
 
-import com.project.taskservice.feign.UserClient;
+import com.project.taskservice.api.dto.TaskBatchItemResult;
+import com.project.taskservice.api.dto.TaskBatchResult;
+import com.project.taskservice.api.dto.TaskFilter;
+import com.project.taskservice.api.dto.TaskPage;
+import com.project.taskservice.api.dto.TaskSortKey;
+import com.project.taskservice.cache.TaskCacheConfig;
+import com.project.taskservice.kafka.TaskEventOutbox;
 import com.project.taskservice.repository.TaskRepository;
+import com.project.taskservice.repository.TaskSpecifications;
 import com.project.taskservice.repository.entity.TaskEntity;
+import com.project.taskservice.utils.TaskCursor;
 import com.project.taskservice.utils.TaskMapper;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import task.kafka.TaskEvent;
@@ -20,21 +35,41 @@ import task.model.TaskStatus;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @AllArgsConstructor
 @Slf4j
 @Service
 public class TaskService {
 
-    private final KafkaTemplate<Long, TaskEvent> kafkaTemplate;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_BATCH_SIZE = 500;
+    // deep OFFSET pages re-rank every match before them
+    private static final int MAX_SEARCH_OFFSET = 10_000;
+    private static final int MAX_SEARCH_QUERY_LENGTH = 200;
+
+    private final TaskEventOutbox taskEventOutbox;
     private final TaskRepository taskRepository;
     private final TaskMapper taskMapper;
-    private final UserClient userClient;
+    private final UserExistenceService userExistenceService;
+    private final Validator validator;
+    private final CacheManager cacheManager;
+    private final ActiveTaskLimiter activeTaskLimiter;
+    private final MeterRegistry meterRegistry;
 
 
+    @Cacheable(cacheNames = TaskCacheConfig.TASKS_CACHE, key = "#id", sync = true)
     public TaskDto findTaskById(Long id) {
         TaskEntity task = taskRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Not found Task with id= " + id));
@@ -42,44 +77,153 @@ public class TaskService {
         return taskMapper.toDomainTask(task);
     }
 
-    public List<TaskDto> findAllTasks() {
-        return taskRepository.findAll()
-                .stream()
-                .map(taskMapper::toDomainTask)
-                .toList();
+    /*
+            KEYSET PAGINATION
+        one extra row is fetched to know if there is a next page,
+        no COUNT query and no OFFSET - every page is an index range scan
+     */
+    @Transactional(readOnly = true)
+    public TaskPage findTasks(TaskFilter filter, TaskSortKey sortKey, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+
+        Specification<TaskEntity> spec = TaskSpecifications.matches(filter);
+        if (cursor != null && !cursor.isBlank()) {
+            spec = spec.and(TaskSpecifications.after(TaskCursor.decode(cursor, sortKey)));
+        }
+
+        Sort sort = sortKey == TaskSortKey.DEADLINE
+                ? Sort.by("deadlineDate", "id")
+                : Sort.by("id");
+
+        List<TaskEntity> rows = taskRepository.findBy(spec, query -> query
+                .sortBy(sort)
+                .limit(pageSize + 1)
+                .all());
+
+        boolean hasNext = rows.size() > pageSize;
+        List<TaskEntity> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = hasNext
+                ? TaskCursor.after(sortKey, page.get(page.size() - 1)).encode()
+                : null;
+
+        return new TaskPage(
+                page.stream().map(taskMapper::toDomainTask).toList(),
+                nextCursor
+        );
     }
 
     /*
-            CREATING TASK
-        !!!EVENT TYPE - CREATED!!!
+            FULL-TEXT SEARCH
+        ranked matches of the description, can be combined with the listing filters.
+        Ranking needs every match, so pages are numbered (OFFSET) instead of keyset
      */
-    public TaskDto createTask(TaskDto taskDtoToCreate) {
-        if (taskDtoToCreate.taskStatus() != null) {
-            throw new IllegalArgumentException("Status should be empty!");
+    @Transactional(readOnly = true)
+    public TaskPage searchTasks(String query, TaskFilter filter, int page, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("q is required");
+        }
+        if (query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new IllegalArgumentException("q must be at most " + MAX_SEARCH_QUERY_LENGTH + " characters");
         }
 
-        validateUserExists(taskDtoToCreate.creatorId());
-        validateUserExists(taskDtoToCreate.assignedUserId());
+        int pageSize = resolvePageSize(limit);
+        if (page < 0 || (long) page * pageSize > MAX_SEARCH_OFFSET) {
+            throw new IllegalArgumentException("page must be between 0 and " + MAX_SEARCH_OFFSET / pageSize);
+        }
 
-        var entityToSave = taskMapper.toEntity(taskDtoToCreate);
-        entityToSave.setTaskStatus(TaskStatus.CREATED);
-        entityToSave.setCreateDateTime(LocalDate.now());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<TaskEntity> rows = taskRepository.search(query.strip(), filter, page * pageSize, pageSize + 1);
+        sample.stop(meterRegistry.timer("tasks.search.duration", "filtered", String.valueOf(hasAnyFilter(filter))));
 
-        validateDeadline(entityToSave.getDeadlineDate(), entityToSave.getCreateDateTime());
+        boolean hasNext = rows.size() > pageSize;
+        List<TaskEntity> result = hasNext ? rows.subList(0, pageSize) : rows;
+
+        return new TaskPage(
+                result.stream().map(taskMapper::toDomainTask).toList(),
+                hasNext ? String.valueOf(page + 1) : null
+        );
+    }
+
+    private static boolean hasAnyFilter(TaskFilter filter) {
+        return filter.assignedUserId() != null || filter.creatorId() != null || filter.taskStatus() != null
+                || filter.priority() != null || filter.deadlineFrom() != null || filter.deadlineTo() != null;
+    }
+
+    /*
+            CREATING TASK
+        !!!EVENT TYPE - CREATED!!!
+     */
+    @Transactional
+    public TaskDto createTask(TaskDto taskDtoToCreate) {
+        validateNewTask(taskDtoToCreate);
+        validateUsersExist(taskDtoToCreate);
+
+        var entityToSave = toNewEntity(taskDtoToCreate);
 
         var updatedEntity = taskRepository.save(entityToSave);
         sendTaskEvent(updatedEntity, null, null, TaskEventType.CREATED);
         return taskMapper.toDomainTask(updatedEntity);
     }
 
+    /*
+            BATCH CREATING TASKS
+        users are checked once per distinct id, rows are inserted with JDBC batching,
+        invalid items are reported per index and do not fail the whole request
+     */
+    @Transactional
+    public TaskBatchResult createTasks(List<TaskDto> tasksToCreate) {
+        validateBatchSize(tasksToCreate);
+
+        Set<Long> missingUsers = findMissingUsers(tasksToCreate);
+        TaskBatchItemResult[] results = new TaskBatchItemResult[tasksToCreate.size()];
+
+        List<TaskEntity> entitiesToSave = new ArrayList<>();
+        List<Integer> savedIndexes = new ArrayList<>();
+
+        for (int i = 0; i < tasksToCreate.size(); i++) {
+            TaskDto taskDto = tasksToCreate.get(i);
+            try {
+                validateConstraints(taskDto);
+                validateNewTask(taskDto);
+                requireKnownUsers(missingUsers, taskDto);
+
+                entitiesToSave.add(toNewEntity(taskDto));
+                savedIndexes.add(i);
+            } catch (RuntimeException e) {
+                results[i] = TaskBatchItemResult.failed(i, e.getMessage());
+            }
+        }
+
+        List<TaskEntity> savedEntities = taskRepository.saveAll(entitiesToSave);
+
+        List<TaskEvent> events = new ArrayList<>(savedEntities.size());
+        for (int i = 0; i < savedEntities.size(); i++) {
+            TaskEntity saved = savedEntities.get(i);
+            int index = savedIndexes.get(i);
+
+            results[index] = TaskBatchItemResult.ok(index, taskMapper.toDomainTask(saved));
+            events.add(buildTaskEvent(saved, null, null, TaskEventType.CREATED));
+        }
+
+        sendTaskEvents(events);
+        return TaskBatchResult.of(Arrays.asList(results));
+    }
+
     /*
             DELETING TASK
          EVENT TYPE - DELETED
     */
+    @Transactional
+    @CacheEvict(cacheNames = TaskCacheConfig.TASKS_CACHE, key = "#id")
     public void deleteTask(Long id) {
         TaskEntity task = taskRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Not found Task with id= " + id));
 
+        if (task.getTaskStatus() == TaskStatus.IN_PROGRESS && task.getAssignedUserId() != null) {
+            activeTaskLimiter.release(task.getAssignedUserId());
+        }
+
         taskRepository.delete(task);
         sendTaskEventForDelete(task);
         log.info("Task with id= {} was deleted", id);
@@ -89,6 +233,8 @@ public class TaskService {
                 UPDATING TASK
              EVENT TYPE - UPDATED
      */
+    @Transactional
+    @CacheEvict(cacheNames = TaskCacheConfig.TASKS_CACHE, key = "#id")
     public TaskDto updateTask(Long id, TaskDto taskDtoToUpdate) {
         TaskEntity existingTask = taskRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Not found task with id=" + id));
@@ -96,6 +242,107 @@ public class TaskService {
         TaskStatus oldStatus = existingTask.getTaskStatus();
         Priority oldPriority = existingTask.getPriority();
 
+        validateUpdateRequest(existingTask, taskDtoToUpdate);
+        validateUsersExist(taskDtoToUpdate);
+
+        updateActiveTasks(existingTask, taskDtoToUpdate);
+        applyUpdate(existingTask, taskDtoToUpdate);
+
+        // flushed first, the event carries the incremented version as its sequence
+        TaskEntity savedTask = taskRepository.saveAndFlush(existingTask);
+        sendTaskEvent(savedTask, oldStatus, oldPriority, TaskEventType.UPDATED);
+        return taskMapper.toDomainTask(savedTask);
+    }
+
+    /*
+            BATCH UPDATING TASKS
+        every item must carry its id, all tasks are loaded with one query
+     */
+    @Transactional
+    public TaskBatchResult updateTasks(List<TaskDto> tasksToUpdate) {
+        validateBatchSize(tasksToUpdate);
+
+        Map<Long, TaskEntity> existingTasks = taskRepository.findAllById(
+                        tasksToUpdate.stream().map(TaskDto::id).filter(Objects::nonNull).toList())
+                .stream()
+                .collect(Collectors.toMap(TaskEntity::getId, Function.identity()));
+
+        Set<Long> missingUsers = findMissingUsers(tasksToUpdate);
+        Set<Long> seenIds = new HashSet<>();
+        TaskBatchItemResult[] results = new TaskBatchItemResult[tasksToUpdate.size()];
+
+        List<TaskEntity> entitiesToSave = new ArrayList<>();
+        List<Integer> savedIndexes = new ArrayList<>();
+        List<TaskStatus> oldStatuses = new ArrayList<>();
+        List<Priority> oldPriorities = new ArrayList<>();
+
+        for (int i = 0; i < tasksToUpdate.size(); i++) {
+            TaskDto taskDto = tasksToUpdate.get(i);
+            try {
+                if (taskDto.id() == null) {
+                    throw new IllegalArgumentException("id is required");
+                }
+                if (!seenIds.add(taskDto.id())) {
+                    throw new IllegalArgumentException("Task with id=" + taskDto.id() + " occurs more than once in batch");
+                }
+
+                TaskEntity existingTask = existingTasks.get(taskDto.id());
+                if (existingTask == null) {
+                    throw new NoSuchElementException("Not found task with id=" + taskDto.id());
+                }
+
+                TaskStatus oldStatus = existingTask.getTaskStatus();
+                Priority oldPriority = existingTask.getPriority();
+
+                validateUpdateRequest(existingTask, taskDto);
+                requireKnownUsers(missingUsers, taskDto);
+                updateActiveTasks(existingTask, taskDto);
+                applyUpdate(existingTask, taskDto);
+
+                entitiesToSave.add(existingTask);
+                savedIndexes.add(i);
+                oldStatuses.add(oldStatus);
+                oldPriorities.add(oldPriority);
+            } catch (RuntimeException e) {
+                results[i] = TaskBatchItemResult.failed(i, e.getMessage());
+            }
+        }
+
+        List<TaskEntity> savedEntities = taskRepository.saveAll(entitiesToSave);
+        // versions are incremented on flush, events use them as sequence
+        taskRepository.flush();
+
+        List<TaskEvent> events = new ArrayList<>(savedEntities.size());
+        for (int i = 0; i < savedEntities.size(); i++) {
+            TaskEntity saved = savedEntities.get(i);
+            int index = savedIndexes.get(i);
+
+            results[index] = TaskBatchItemResult.ok(index, taskMapper.toDomainTask(saved));
+            events.add(buildTaskEvent(saved, oldStatuses.get(i), oldPriorities.get(i), TaskEventType.UPDATED));
+        }
+
+        evictCachedTasks(savedEntities);
+        sendTaskEvents(events);
+        return TaskBatchResult.of(Arrays.asList(results));
+    }
+
+    @Transactional(readOnly = true)
+    public List<TaskDto> findTasksByIds(List<Long> ids) {
+        validateBatchSize(ids);
+
+        Map<Long, TaskEntity> tasks = taskRepository.findAllById(ids)
+                .stream()
+                .collect(Collectors.toMap(TaskEntity::getId, Function.identity()));
+
+        return ids.stream()
+                .distinct()
+                .map(tasks::get)
+                .filter(Objects::nonNull)
+                .map(taskMapper::toDomainTask)
+                .toList();
+    }
+
+    private void validateUpdateRequest(TaskEntity existingTask, TaskDto taskDtoToUpdate) {
         if (taskDtoToUpdate.creatorId() == null) {
             throw new IllegalArgumentException("creatorId is required");
         }
@@ -109,8 +356,6 @@ public class TaskService {
         }
 
         validateDeadline(taskDtoToUpdate.deadlineDate(), existingTask.getCreateDateTime());
-        validateUserExists(taskDtoToUpdate.creatorId());
-        validateUserExists(taskDtoToUpdate.assignedUserId());
 
         TaskStatus currentStatus = existingTask.getTaskStatus();
         TaskStatus requestedStatus = taskDtoToUpdate.taskStatus();
@@ -126,7 +371,25 @@ public class TaskService {
             if (!isOnlyStatusChange) {
                 throw new IllegalStateException("Cannot modify task! status: " + currentStatus);
             }
-        } else {
+        }
+    }
+
+    // moving a task into IN_PROGRESS, out of it or to another assignee goes through the WIP limit too
+    private void updateActiveTasks(TaskEntity existingTask, TaskDto taskDtoToUpdate) {
+        Long newAssigneeId = existingTask.getTaskStatus() == TaskStatus.DONE
+                ? existingTask.getAssignedUserId()
+                : taskDtoToUpdate.assignedUserId();
+
+        activeTaskLimiter.onTransition(existingTask.getTaskStatus(), existingTask.getAssignedUserId(),
+                taskDtoToUpdate.taskStatus(), newAssigneeId);
+    }
+
+    // must be called after validateUpdateRequest
+    private void applyUpdate(TaskEntity existingTask, TaskDto taskDtoToUpdate) {
+        TaskStatus currentStatus = existingTask.getTaskStatus();
+        TaskStatus requestedStatus = taskDtoToUpdate.taskStatus();
+
+        if (currentStatus != TaskStatus.DONE) {
             existingTask.setCreatorId(taskDtoToUpdate.creatorId());
             existingTask.setAssignedUserId(taskDtoToUpdate.assignedUserId());
             existingTask.setDeadlineDate(taskDtoToUpdate.deadlineDate());
@@ -139,10 +402,6 @@ public class TaskService {
         } else if (requestedStatus != TaskStatus.DONE) {
             existingTask.setDoneDateTime(null);
         }
-
-        TaskEntity savedTask = taskRepository.save(existingTask);
-        sendTaskEvent(savedTask, oldStatus, oldPriority, TaskEventType.UPDATED);
-        return taskMapper.toDomainTask(savedTask);
     }
 
     /*
@@ -150,6 +409,7 @@ public class TaskService {
              EVENT TYPE - UPDATED
      */
     @Transactional
+    @CacheEvict(cacheNames = TaskCacheConfig.TASKS_CACHE, key = "#id")
     public TaskDto startTask(Long id) {
         TaskEntity task = taskRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Not found Task with id= " + id));
@@ -163,18 +423,12 @@ public class TaskService {
         }
 
         validateUserExists(task.getAssignedUserId());
-
-        Long assignedUserId = task.getAssignedUserId();
-        int taskCount = taskRepository.countByAssignedUserIdAndTaskStatus(assignedUserId, TaskStatus.IN_PROGRESS);
-
-        if (taskCount >= 4) {
-            throw new IllegalStateException("Limit exceeded (4) with active tasks with userId= " + assignedUserId);
-        }
+        activeTaskLimiter.acquire(task.getAssignedUserId());
 
         TaskStatus oldStatus = task.getTaskStatus();
         Priority oldPriority = task.getPriority();
         task.setTaskStatus(TaskStatus.IN_PROGRESS);
-        var savedTask = taskRepository.save(task);
+        var savedTask = taskRepository.saveAndFlush(task);
 
         sendTaskEvent(savedTask, oldStatus, oldPriority, TaskEventType.UPDATED);
         return taskMapper.toDomainTask(savedTask);
@@ -185,6 +439,7 @@ public class TaskService {
              EVENT TYPE - UPDATED
      */
     @Transactional
+    @CacheEvict(cacheNames = TaskCacheConfig.TASKS_CACHE, key = "#id")
     public TaskDto completeTask(Long id) {
         TaskEntity task = taskRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Not found Task with id= " + id));
@@ -198,18 +453,34 @@ public class TaskService {
         }
 
         validateUserExists(task.getAssignedUserId());
+        activeTaskLimiter.release(task.getAssignedUserId());
 
         TaskStatus oldStatus = task.getTaskStatus();
         Priority oldPriority = task.getPriority();
         task.setTaskStatus(TaskStatus.DONE);
         task.setDoneDateTime(LocalDateTime.now());
 
-        var savedTask = taskRepository.save(task);
+        var savedTask = taskRepository.saveAndFlush(task);
 
         sendTaskEvent(savedTask, oldStatus, oldPriority, TaskEventType.UPDATED);
         return taskMapper.toDomainTask(savedTask);
     }
 
+    private void validateNewTask(TaskDto taskDtoToCreate) {
+        if (taskDtoToCreate.taskStatus() != null) {
+            throw new IllegalArgumentException("Status should be empty!");
+        }
+    }
+
+    private TaskEntity toNewEntity(TaskDto taskDtoToCreate) {
+        var entityToSave = taskMapper.toEntity(taskDtoToCreate);
+        entityToSave.setTaskStatus(TaskStatus.CREATED);
+        entityToSave.setCreateDateTime(LocalDate.now());
+
+        validateDeadline(entityToSave.getDeadlineDate(), entityToSave.getCreateDateTime());
+        return entityToSave;
+    }
+
     private void sendTaskEventForDelete(TaskEntity task) {
         var event = new TaskEvent(
                 task.getId(),
@@ -219,14 +490,42 @@ public class TaskService {
                 null,
                 task.getPriority(),
                 null,
+                task.getDeadlineDate(),
                 LocalDateTime.now(),
-                TaskEventType.DELETED
+                TaskEventType.DELETED,
+                UUID.randomUUID(),
+                // deleting is one more change after the last version
+                task.getVersion() + 1
         );
-        kafkaTemplate.send("task-events", task.getId(), event);
+        taskEventOutbox.append(event);
     }
 
+    // events are written to the outbox in the caller's transaction, Kafka is not touched here
     private void sendTaskEvent(TaskEntity task, TaskStatus oldStatus, Priority oldPriority, TaskEventType eventType) {
-        var event = new TaskEvent(
+        var event = buildTaskEvent(task, oldStatus, oldPriority, eventType);
+        taskEventOutbox.append(event);
+    }
+
+    private void sendTaskEvents(List<TaskEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        taskEventOutbox.appendAll(events);
+    }
+
+    // batch paths cannot use @CacheEvict, the cache is transaction-aware so entries are dropped after commit
+    private void evictCachedTasks(List<TaskEntity> tasks) {
+        Cache cache = cacheManager.getCache(TaskCacheConfig.TASKS_CACHE);
+        if (cache == null) {
+            return;
+        }
+
+        tasks.forEach(task -> cache.evict(task.getId()));
+    }
+
+    private TaskEvent buildTaskEvent(TaskEntity task, TaskStatus oldStatus, Priority oldPriority, TaskEventType eventType) {
+        return new TaskEvent(
                 task.getId(),
                 task.getCreatorId(),
                 task.getAssignedUserId(),
@@ -234,13 +533,47 @@ public class TaskService {
                 task.getTaskStatus(),
                 oldPriority,
                 task.getPriority(),
+                task.getDeadlineDate(),
                 LocalDateTime.now(),
-                eventType
+                eventType,
+                UUID.randomUUID(),
+                // new tasks get version 0 on persist, updates must be flushed before the event is built
+                task.getVersion()
         );
+    }
+
+
+    private void validateBatchSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Batch must not be empty");
+        }
+
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch size must not exceed " + MAX_BATCH_SIZE);
+        }
+    }
 
-        kafkaTemplate.send("task-events", task.getId(), event);
+    private void validateConstraints(TaskDto taskDto) {
+        Set<ConstraintViolation<TaskDto>> violations = validator.validate(taskDto);
+
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
     }
 
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return limit;
+    }
 
     private void validateDeadline(LocalDate deadlineDate, LocalDate createDate) {
         if (deadlineDate == null) {
@@ -268,13 +601,41 @@ public class TaskService {
         }
     }
 
+    // every distinct user of the batch is checked only once
+    private Set<Long> findMissingUsers(List<TaskDto> tasks) {
+        Set<Long> userIds = new HashSet<>();
+        for (TaskDto task : tasks) {
+            if (task.creatorId() != null) {
+                userIds.add(task.creatorId());
+            }
+            if (task.assignedUserId() != null) {
+                userIds.add(task.assignedUserId());
+            }
+        }
+
+        return userExistenceService.findMissing(userIds);
+    }
+
+    // creator and assignee are looked up together, misses share one call to user-service
+    private void validateUsersExist(TaskDto taskDto) {
+        requireKnownUsers(userExistenceService.findMissing(
+                Arrays.asList(taskDto.creatorId(), taskDto.assignedUserId())), taskDto);
+    }
+
+    private void requireKnownUsers(Set<Long> missingUsers, TaskDto taskDto) {
+        for (Long userId : new Long[]{taskDto.creatorId(), taskDto.assignedUserId()}) {
+            if (userId != null && missingUsers.contains(userId)) {
+                throw new EntityNotFoundException("User with id= " + userId + " not found");
+            }
+        }
+    }
+
     private void validateUserExists(Long userId) {
         if (userId == null) {
             return;
         }
 
-        Boolean exists = userClient.checkUserExisting(userId);
-        if (!Boolean.TRUE.equals(exists)) {
+        if (!userExistenceService.exists(userId)) {
             throw new EntityNotFoundException("User with id= " + userId + " not found");
         }
     }
@@ -0,0 +1,60 @@
+package com.project.taskservice.api.service;
+
+import com.project.taskservice.feign.UserLookupBatcher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/*
+    answers from the local UserIdIndex, user-service is called only on a miss.
+    Misses go through UserLookupBatcher, so ids checked together are answered by one HTTP call
+ */
+@Service
+@RequiredArgsConstructor
+public class UserExistenceService {
+
+    private final UserIdIndex userIdIndex;
+    private final UserLookupBatcher userLookupBatcher;
+
+    public boolean exists(Long userId) {
+        return findMissing(Set.of(userId)).isEmpty();
+    }
+
+    public Set<Long> findMissing(Collection<Long> userIds) {
+        Map<Long, CompletableFuture<Boolean>> lookups = new LinkedHashMap<>();
+
+        for (Long userId : userIds) {
+            if (userId != null && !lookups.containsKey(userId) && !userIdIndex.contains(userId)) {
+                lookups.put(userId, userLookupBatcher.lookup(userId));
+            }
+        }
+
+        Set<Long> missing = new HashSet<>();
+        for (Map.Entry<Long, CompletableFuture<Boolean>> lookup : lookups.entrySet()) {
+            if (join(lookup.getValue())) {
+                userIdIndex.add(lookup.getKey());
+            } else {
+                missing.add(lookup.getKey());
+            }
+        }
+        return missing;
+    }
+
+    private static boolean join(CompletableFuture<Boolean> lookup) {
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.project.taskservice.api.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+        LOCAL INDEX OF EXISTING USER IDS
+    user ids are dense BIGSERIAL values, so a Roaring bitmap keeps millions of them in a few MB.
+    Users are never physically deleted in user-service, so the index only grows
+ */
+@Component
+public class UserIdIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Roaring64Bitmap userIds = new Roaring64Bitmap();
+
+    // only a full resync counts as a refresh, single adds from the feed say nothing about what was missed
+    private final AtomicLong lastUpdateMillis = new AtomicLong();
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public UserIdIndex(MeterRegistry meterRegistry) {
+        this.hitCounter = meterRegistry.counter("task.user.index.lookups", "result", "hit");
+        this.missCounter = meterRegistry.counter("task.user.index.lookups", "result", "miss");
+
+        Gauge.builder("task.user.index.size", this, UserIdIndex::size)
+                .register(meterRegistry);
+        Gauge.builder("task.user.index.staleness", this, UserIdIndex::stalenessSeconds)
+                .baseUnit("seconds")
+                .description("Time since the last successful full resync from user-service")
+                .register(meterRegistry);
+    }
+
+    public boolean contains(long userId) {
+        boolean found;
+
+        lock.readLock().lock();
+        try {
+            found = userIds.contains(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        (found ? hitCounter : missCounter).increment();
+        return found;
+    }
+
+    public void add(long userId) {
+        lock.writeLock().lock();
+        try {
+            userIds.addLong(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // full resync: the new snapshot is merged with what the feed added while it was loading
+    public void replace(Roaring64Bitmap snapshot) {
+        lock.writeLock().lock();
+        try {
+            snapshot.or(userIds);
+            userIds = snapshot;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        lastUpdateMillis.set(System.currentTimeMillis());
+    }
+
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return userIds.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double stalenessSeconds() {
+        long last = lastUpdateMillis.get();
+        return last == 0 ? -1 : (System.currentTimeMillis() - last) / 1000.0;
+    }
+}
@@ -0,0 +1,45 @@
+package com.project.taskservice.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+    drops L1 entries changed by other instances,
+    message format: "<instanceId>|<cacheName>|<key>"
+ */
+@Slf4j
+public class CacheInvalidationListener implements MessageListener {
+
+    private final String instanceId;
+    private final Map<String, TwoLevelCache> caches;
+
+    public CacheInvalidationListener(String instanceId, List<TwoLevelCache> caches) {
+        this.instanceId = instanceId;
+        this.caches = caches.stream().collect(Collectors.toMap(TwoLevelCache::getName, Function.identity()));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length != 3) {
+            log.warn("Skipping malformed cache invalidation message");
+            return;
+        }
+
+        if (instanceId.equals(parts[0])) {
+            return;
+        }
+
+        TwoLevelCache cache = caches.get(parts[1]);
+        if (cache != null) {
+            cache.evictLocal(parts[2]);
+        }
+    }
+}
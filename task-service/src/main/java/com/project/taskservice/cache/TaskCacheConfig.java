@@ -0,0 +1,96 @@
+package com.project.taskservice.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import task.model.TaskDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Configuration
+@EnableCaching
+public class TaskCacheConfig {
+
+    public static final String TASKS_CACHE = "tasks";
+
+    // tells this instance's own invalidation messages apart from the ones of other instances
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Bean
+    public TwoLevelCache tasksCache(RedisConnectionFactory connectionFactory,
+                                    StringRedisTemplate redisTemplate,
+                                    ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${task.cache.l1.max-size:10000}") long l1MaxSize,
+                                    @Value("${task.cache.l1.ttl:30s}") Duration l1Ttl,
+                                    @Value("${task.cache.l2.ttl:10m}") Duration l2Ttl,
+                                    @Value("${task.cache.invalidation-channel:task-cache-invalidation}") String channel) {
+        Cache<String, Object> l1 = Caffeine.newBuilder()
+                .maximumSize(l1MaxSize)
+                .expireAfterWrite(l1Ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, l1, TASKS_CACHE + ".l1");
+
+        /*
+            up to 10% TTL jitter, entries written together (e.g. by a bulk read) do not expire together
+            and do not send a burst of misses to Postgres
+         */
+        long jitterBound = Math.max(1, l2Ttl.toMillis() / 10);
+        RedisCacheConfiguration l2Config = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl((key, value) -> l2Ttl.plusMillis(ThreadLocalRandom.current().nextLong(jitterBound)))
+                .disableCachingNullValues()
+                .prefixCacheNameWith("task-service::")
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        new Jackson2JsonRedisSerializer<>(objectMapper, TaskDto.class)));
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .withCacheConfiguration(TASKS_CACHE, l2Config)
+                .disableCreateOnMissingCache()
+                .build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoLevelCache(TASKS_CACHE, l1, redisCacheManager.getCache(TASKS_CACHE),
+                redisTemplate, channel, instanceId, meterRegistry);
+    }
+
+    // puts and evictions made inside a transaction are applied after commit
+    @Bean
+    public CacheManager cacheManager(TwoLevelCache tasksCache) {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(new TransactionAwareCacheDecorator(tasksCache)));
+        return cacheManager;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            TwoLevelCache tasksCache,
+            @Value("${task.cache.invalidation-channel:task-cache-invalidation}") String channel) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(new CacheInvalidationListener(instanceId, List.of(tasksCache)),
+                new ChannelTopic(channel));
+        return container;
+    }
+}
@@ -0,0 +1,272 @@
+package com.project.taskservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+        TWO-LEVEL CACHE
+    L1 - Caffeine near-cache in this instance, L2 - shared Redis cache.
+    Reads go L1 -> L2 -> loader, every write or eviction goes to both tiers and is
+    published on a Redis channel so other instances drop their L1 copy.
+    Concurrent misses for one key share one load through a future in the in-flight map. The L2 read and
+    the load run outside Caffeine, so no compute holds a map bin lock (or pins a carrier thread) across
+    Redis and database calls; only the finished value is put into L1.
+    Every put and eviction bumps a per-key generation in Redis first, and clear() bumps a cache-wide one.
+    A load reads both before and after writing L2 and evicts its own write when either changed, so an
+    eviction or clear that lands between the database read and the L2 write cannot be overwritten by the stale value
+ */
+public class TwoLevelCache implements org.springframework.cache.Cache {
+
+    static final String CLEAR_ALL = "*";
+    // only has to outlive one load, a generation that expired in between reads as changed
+    private static final Duration GENERATION_TTL = Duration.ofHours(1);
+
+    private final String name;
+    private final Cache<String, Object> l1;
+    private final org.springframework.cache.Cache l2;
+    private final StringRedisTemplate redisTemplate;
+    private final String invalidationChannel;
+    private final String instanceId;
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+    private final Timer l1Latency;
+    private final Timer l2Latency;
+    private final Timer loadLatency;
+
+    public TwoLevelCache(String name,
+                         Cache<String, Object> l1,
+                         org.springframework.cache.Cache l2,
+                         StringRedisTemplate redisTemplate,
+                         String invalidationChannel,
+                         String instanceId,
+                         MeterRegistry meterRegistry) {
+        this.name = name;
+        this.l1 = l1;
+        this.l2 = l2;
+        this.redisTemplate = redisTemplate;
+        this.invalidationChannel = invalidationChannel;
+        this.instanceId = instanceId;
+
+        this.l1Hits = meterRegistry.counter("task.cache.gets", "cache", name, "tier", "l1", "result", "hit");
+        this.l1Misses = meterRegistry.counter("task.cache.gets", "cache", name, "tier", "l1", "result", "miss");
+        this.l2Hits = meterRegistry.counter("task.cache.gets", "cache", name, "tier", "l2", "result", "hit");
+        this.l2Misses = meterRegistry.counter("task.cache.gets", "cache", name, "tier", "l2", "result", "miss");
+        this.l1Latency = meterRegistry.timer("task.cache.latency", "cache", name, "tier", "l1");
+        this.l2Latency = meterRegistry.timer("task.cache.latency", "cache", name, "tier", "l2");
+        this.loadLatency = meterRegistry.timer("task.cache.latency", "cache", name, "tier", "db");
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String cacheKey = toCacheKey(key);
+
+        Object value = getFromL1(cacheKey);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+
+        ValueWrapper fromL2 = getFromL2(cacheKey);
+        if (fromL2 != null && fromL2.get() != null) {
+            l1.put(cacheKey, fromL2.get());
+        }
+        return fromL2;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    // used by @Cacheable(sync = true)
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String cacheKey = toCacheKey(key);
+
+        Object value = getFromL1(cacheKey);
+        if (value != null) {
+            return (T) value;
+        }
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(cacheKey, mine);
+        if (running != null) {
+            return (T) await(running);
+        }
+
+        try {
+            Object loaded = loadThrough(cacheKey, key, valueLoader);
+            mine.complete(loaded);
+            return (T) loaded;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(cacheKey, mine);
+        }
+    }
+
+    // L2, then the loader; the value only reaches L1 when no put, eviction or clear happened meanwhile
+    private Object loadThrough(String cacheKey, Object key, Callable<?> valueLoader) {
+        ValueWrapper fromL2 = getFromL2(cacheKey);
+        if (fromL2 != null && fromL2.get() != null) {
+            l1.put(cacheKey, fromL2.get());
+            return fromL2.get();
+        }
+
+        List<String> generations = generations(cacheKey);
+        Object loaded = load(key, valueLoader);
+        if (loaded != null) {
+            l2.put(cacheKey, loaded);
+            if (Objects.equals(generations, generations(cacheKey))) {
+                l1.put(cacheKey, loaded);
+            } else {
+                l2.evict(cacheKey);
+            }
+        }
+        return loaded;
+    }
+
+    private static Object await(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String cacheKey = toCacheKey(key);
+
+        bumpGeneration(generationKey(cacheKey));
+        l2.put(cacheKey, value);
+        if (value != null) {
+            l1.put(cacheKey, value);
+        } else {
+            l1.invalidate(cacheKey);
+        }
+        publishInvalidation(cacheKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        String cacheKey = toCacheKey(key);
+
+        bumpGeneration(generationKey(cacheKey));
+        l2.evict(cacheKey);
+        l1.invalidate(cacheKey);
+        publishInvalidation(cacheKey);
+    }
+
+    @Override
+    public void clear() {
+        bumpGeneration(clearGenerationKey());
+        l2.clear();
+        l1.invalidateAll();
+        publishInvalidation(CLEAR_ALL);
+    }
+
+    // called for invalidations published by other instances
+    void evictLocal(String cacheKey) {
+        if (CLEAR_ALL.equals(cacheKey)) {
+            l1.invalidateAll();
+        } else {
+            l1.invalidate(cacheKey);
+        }
+    }
+
+    private Object getFromL1(String cacheKey) {
+        long start = System.nanoTime();
+        Object value = l1.getIfPresent(cacheKey);
+        l1Latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        (value != null ? l1Hits : l1Misses).increment();
+        return value;
+    }
+
+    private ValueWrapper getFromL2(String cacheKey) {
+        long start = System.nanoTime();
+        ValueWrapper value = l2.get(cacheKey);
+        l2Latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        (value != null ? l2Hits : l2Misses).increment();
+        return value;
+    }
+
+    private Object load(Object key, Callable<?> valueLoader) {
+        long start = System.nanoTime();
+        try {
+            return valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            loadLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // per-key and cache-wide generation in one round trip
+    private List<String> generations(String cacheKey) {
+        return redisTemplate.opsForValue().multiGet(List.of(generationKey(cacheKey), clearGenerationKey()));
+    }
+
+    private void bumpGeneration(String generationKey) {
+        redisTemplate.opsForValue().increment(generationKey);
+        redisTemplate.expire(generationKey, GENERATION_TTL);
+    }
+
+    private String generationKey(String cacheKey) {
+        return name + "::generation::" + cacheKey;
+    }
+
+    private String clearGenerationKey() {
+        return name + "::generation";
+    }
+
+    private void publishInvalidation(String cacheKey) {
+        redisTemplate.convertAndSend(invalidationChannel, instanceId + "|" + name + "|" + cacheKey);
+    }
+
+    // L1 and the invalidation messages both use the string form of the key, the same as Redis does
+    private static String toCacheKey(Object key) {
+        return String.valueOf(key);
+    }
+}
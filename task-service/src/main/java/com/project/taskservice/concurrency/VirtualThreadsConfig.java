@@ -0,0 +1,17 @@
+package com.project.taskservice.concurrency;
+
+import concurrency.VirtualThreadSafeguards;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/*
+    spring.threads.virtual.enabled=true already moves Tomcat, @KafkaListener containers and @Scheduled
+    onto virtual threads (Feign calls run on the calling thread). This adds the shared safeguards for that mode
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Import(VirtualThreadSafeguards.class)
+public class VirtualThreadsConfig {
+}
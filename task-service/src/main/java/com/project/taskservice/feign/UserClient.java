@@ -3,10 +3,23 @@ package com.project.taskservice.feign;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.Collection;
+import java.util.List;
 
 @FeignClient(name = "user-api", url = "http://user-api:8080")
 public interface UserClient {
 
     @GetMapping("/users/check-existing/{id}")
     Boolean checkUserExisting(@PathVariable("id") Long id);
+
+    // returns only the ids that exist
+    @PostMapping("/users/check-existing")
+    List<Long> checkUsersExisting(@RequestBody Collection<Long> ids);
+
+    @GetMapping("/users/private/ids")
+    List<Long> getUserIds(@RequestParam("afterId") long afterId, @RequestParam("limit") int limit);
 }
@@ -0,0 +1,136 @@
+package com.project.taskservice.feign;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+        CLIENT-SIDE MICRO-BATCHING OF USER LOOKUPS
+    lookups are collected for a short window and sent as one POST /users/check-existing,
+    concurrent lookups of the same id share one in-flight future
+ */
+@Slf4j
+@Component
+public class UserLookupBatcher {
+
+    private final UserClient userClient;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    private final ConcurrentHashMap<Long, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Long> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("user-lookup-batcher").daemon().factory());
+    private final ExecutorService callExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Counter coalescedCounter;
+    private final Counter callCounter;
+    private final DistributionSummary batchSizeSummary;
+
+    public UserLookupBatcher(UserClient userClient,
+                             MeterRegistry meterRegistry,
+                             @Value("${task.user-lookup.window:3ms}") Duration window,
+                             @Value("${task.user-lookup.max-batch-size:200}") int maxBatchSize) {
+        this.userClient = userClient;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+
+        this.coalescedCounter = meterRegistry.counter("task.user.lookup.coalesced");
+        this.callCounter = meterRegistry.counter("task.user.lookup.calls");
+        this.batchSizeSummary = DistributionSummary.builder("task.user.lookup.batch.size")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<Boolean> lookup(long userId) {
+        CompletableFuture<Boolean> created = new CompletableFuture<>();
+        CompletableFuture<Boolean> existing = inFlight.putIfAbsent(userId, created);
+
+        if (existing != null) {
+            coalescedCounter.increment();
+            return existing;
+        }
+
+        pending.add(userId);
+        scheduleFlush();
+        return created;
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+
+        List<Long> batch = new ArrayList<>(maxBatchSize);
+        Long userId;
+        while ((userId = pending.poll()) != null) {
+            batch.add(userId);
+
+            if (batch.size() == maxBatchSize) {
+                dispatch(batch);
+                batch = new ArrayList<>(maxBatchSize);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    private void dispatch(List<Long> batch) {
+        callCounter.increment();
+        batchSizeSummary.record(batch.size());
+
+        callExecutor.execute(() -> {
+            try {
+                Set<Long> existingIds = new HashSet<>(userClient.checkUsersExisting(batch));
+                batch.forEach(id -> complete(id, existingIds.contains(id), null));
+            } catch (Exception e) {
+                log.warn("Batched user lookup failed for {} ids: {}", batch.size(), e.getMessage());
+                batch.forEach(id -> complete(id, false, e));
+            }
+        });
+    }
+
+    private void complete(Long userId, boolean exists, Exception error) {
+        CompletableFuture<Boolean> future = inFlight.remove(userId);
+        if (future == null) {
+            return;
+        }
+
+        if (error != null) {
+            future.completeExceptionally(error);
+        } else {
+            future.complete(exists);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        callExecutor.shutdown();
+    }
+}
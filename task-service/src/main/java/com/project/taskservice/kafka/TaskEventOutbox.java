@@ -0,0 +1,50 @@
+package com.project.taskservice.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.taskservice.repository.TaskOutboxRepository;
+import com.project.taskservice.repository.entity.TaskOutboxEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import task.kafka.TaskEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+        TRANSACTIONAL OUTBOX
+    events are stored in the same transaction as the task change,
+    TaskOutboxRelay publishes them to Kafka afterwards
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskEventOutbox {
+
+    private final TaskOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(TaskEvent event) {
+        outboxRepository.save(toOutboxEntity(event));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(List<TaskEvent> events) {
+        outboxRepository.saveAll(events.stream().map(this::toOutboxEntity).toList());
+    }
+
+    private TaskOutboxEntity toOutboxEntity(TaskEvent event) {
+        try {
+            return new TaskOutboxEntity(
+                    null,
+                    event.taskId(),
+                    objectMapper.writeValueAsString(event),
+                    LocalDateTime.now()
+            );
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize event for task id= " + event.taskId(), e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.project.taskservice.kafka;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+/*
+    task-events is keyed by task id, so events of one task stay in order inside one partition.
+    Several partitions let consumers (statistics-service) process in parallel
+ */
+@Configuration
+public class TaskEventsTopicConfig {
+
+    @Bean
+    public NewTopic taskEventsTopic(@Value("${task.events.partitions:6}") int partitions) {
+        return TopicBuilder.name("task-events")
+                .partitions(partitions)
+                .build();
+    }
+}
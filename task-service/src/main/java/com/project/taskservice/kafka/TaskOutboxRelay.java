@@ -0,0 +1,132 @@
+package com.project.taskservice.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.taskservice.repository.TaskOutboxRepository;
+import com.project.taskservice.repository.entity.TaskOutboxEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import task.kafka.TaskEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+        OUTBOX RELAY
+    drains task_outbox in id order and publishes to "task-events".
+    Records are keyed by task id and the producer is idempotent, so events of one task keep their order.
+    Rows are deleted only after Kafka acknowledged them (at-least-once)
+ */
+@Slf4j
+@Component
+public class TaskOutboxRelay {
+
+    private static final String TOPIC = "task-events";
+
+    private final TaskOutboxRepository outboxRepository;
+    private final KafkaTemplate<Long, TaskEvent> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration sendTimeout;
+
+    private final Counter relayedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public TaskOutboxRelay(TaskOutboxRepository outboxRepository,
+                           KafkaTemplate<Long, TaskEvent> kafkaTemplate,
+                           ObjectMapper objectMapper,
+                           TransactionTemplate transactionTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${task.outbox.relay.batch-size:500}") int batchSize,
+                           @Value("${task.outbox.relay.send-timeout:30s}") Duration sendTimeout) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+
+        this.relayedCounter = meterRegistry.counter("task.outbox.relayed");
+        this.failedCounter = meterRegistry.counter("task.outbox.failed");
+        this.batchTimer = meterRegistry.timer("task.outbox.relay.batch");
+        Gauge.builder("task.outbox.lag", lagMillis, AtomicLong::get)
+                .baseUnit("milliseconds")
+                .description("Age of the oldest event that is not published yet")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${task.outbox.relay.interval:200ms}")
+    public void relay() {
+        int relayed;
+        do {
+            relayed = batchTimer.record(() -> transactionTemplate.execute(status -> relayBatch()));
+        } while (relayed == batchSize);
+
+        lagMillis.set(outboxRepository.findOldestCreatedAt()
+                .map(oldest -> Duration.between(oldest, LocalDateTime.now()).toMillis())
+                .orElse(0L));
+    }
+
+    private int relayBatch() {
+        if (!outboxRepository.tryLockRelay()) {
+            return 0;
+        }
+
+        List<TaskOutboxEntity> batch = outboxRepository.findNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<SendResult<Long, TaskEvent>>> futures = new ArrayList<>(batch.size());
+        for (TaskOutboxEntity row : batch) {
+            futures.add(kafkaTemplate.send(TOPIC, row.getTaskId(), toEvent(row)));
+        }
+        kafkaTemplate.flush();
+
+        // only the acknowledged prefix is removed, the rest is retried in the same order on the next run
+        List<Long> publishedIds = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                futures.get(i).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                publishedIds.add(batch.get(i).getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                failedCounter.increment();
+                log.error("Failed to publish outbox event id= {} for task id= {}", batch.get(i).getId(), batch.get(i).getTaskId(), e);
+                break;
+            }
+        }
+
+        outboxRepository.deleteAllByIdInBatch(publishedIds);
+        relayedCounter.increment(publishedIds.size());
+
+        return publishedIds.size();
+    }
+
+    private TaskEvent toEvent(TaskOutboxEntity row) {
+        try {
+            return objectMapper.readValue(row.getPayload(), TaskEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read outbox event id= " + row.getId(), e);
+        }
+    }
+}
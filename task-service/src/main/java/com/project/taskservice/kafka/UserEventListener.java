@@ -0,0 +1,31 @@
+package com.project.taskservice.kafka;
+
+import com.project.taskservice.api.service.UserIdIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import user.kafka.UserEvent;
+import user.kafka.UserEventType;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserEventListener {
+
+    private final UserIdIndex userIdIndex;
+
+    /*
+        every instance keeps its own index, so every instance needs its own consumer group.
+        The group id is stable per instance (host name by default), so a restart resumes
+        from the committed offset instead of leaving a new group behind on the broker
+     */
+    @KafkaListener(topics = "user-events", groupId = "${task.user-index.group-id}")
+    public void handleUserEvent(UserEvent event) {
+        log.debug("Received user event: {}", event);
+
+        if (event.eventType() == UserEventType.CREATED) {
+            userIdIndex.add(event.userId());
+        }
+    }
+}
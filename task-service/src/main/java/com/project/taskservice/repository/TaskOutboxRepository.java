@@ -0,0 +1,27 @@
+package com.project.taskservice.repository;
+
+
+import com.project.taskservice.repository.entity.TaskOutboxEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TaskOutboxRepository extends JpaRepository<TaskOutboxEntity, Long> {
+
+    // only one relay drains the outbox at a time, so events of a task are never reordered between instances
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('task_outbox_relay'))", nativeQuery = true)
+    boolean tryLockRelay();
+
+    @Query(value = "SELECT * FROM task_outbox ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<TaskOutboxEntity> findNextBatch(@Param("limit") int limit);
+
+    // read on every relay run, served by idx_task_outbox_created_at
+    @Query("select min(o.createdAt) from TaskOutboxEntity o")
+    Optional<LocalDateTime> findOldestCreatedAt();
+}
@@ -1,13 +1,29 @@
 package com.project.taskservice.repository;
 
 
-import task.model.TaskStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import com.project.taskservice.repository.entity.TaskEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.stream.Stream;
+
 @Repository
-public interface TaskRepository extends JpaRepository<TaskEntity, Long> {
+public interface TaskRepository extends JpaRepository<TaskEntity, Long>, JpaSpecificationExecutor<TaskEntity>,
+        TaskSearchRepository {
 
-    int countByAssignedUserIdAndTaskStatus(Long assignedUserId, TaskStatus status);
+    // forward-only cursor over ids in (afterId, toId], must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select t from TaskEntity t where t.id > :afterId and t.id <= :toId order by t.id")
+    Stream<TaskEntity> streamRange(@Param("afterId") long afterId, @Param("toId") long toId, Limit limit);
 }
@@ -0,0 +1,12 @@
+package com.project.taskservice.repository;
+
+import com.project.taskservice.api.dto.TaskFilter;
+import com.project.taskservice.repository.entity.TaskEntity;
+
+import java.util.List;
+
+public interface TaskSearchRepository {
+
+    // tasks matching the text query, best ranked first
+    List<TaskEntity> search(String query, TaskFilter filter, int offset, int limit);
+}
@@ -0,0 +1,66 @@
+package com.project.taskservice.repository;
+
+import com.project.taskservice.api.dto.TaskFilter;
+import com.project.taskservice.repository.entity.TaskEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+        FULL-TEXT SEARCH
+    matches go through the GIN index on tasks.description_tsv, only the filters that are set
+    are added to the SQL, so the planner sees the exact predicates and no NULL parameters are bound
+ */
+public class TaskSearchRepositoryImpl implements TaskSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<TaskEntity> search(String query, TaskFilter filter, int offset, int limit) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT t.* FROM tasks t, websearch_to_tsquery('simple', :query) q
+                WHERE t.description_tsv @@ q
+                """);
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("query", query);
+
+        if (filter.assignedUserId() != null) {
+            sql.append(" AND t.assigned_user_id = :assignedUserId");
+            params.put("assignedUserId", filter.assignedUserId());
+        }
+        if (filter.creatorId() != null) {
+            sql.append(" AND t.creator_id = :creatorId");
+            params.put("creatorId", filter.creatorId());
+        }
+        if (filter.taskStatus() != null) {
+            sql.append(" AND t.task_status = :taskStatus");
+            params.put("taskStatus", filter.taskStatus().name());
+        }
+        if (filter.priority() != null) {
+            sql.append(" AND t.priority = :priority");
+            params.put("priority", filter.priority().name());
+        }
+        if (filter.deadlineFrom() != null) {
+            sql.append(" AND t.deadline_datetime >= :deadlineFrom");
+            params.put("deadlineFrom", filter.deadlineFrom());
+        }
+        if (filter.deadlineTo() != null) {
+            sql.append(" AND t.deadline_datetime <= :deadlineTo");
+            params.put("deadlineTo", filter.deadlineTo());
+        }
+
+        sql.append(" ORDER BY ts_rank(t.description_tsv, q) DESC, t.id DESC LIMIT :limit OFFSET :offset");
+        params.put("limit", limit);
+        params.put("offset", offset);
+
+        Query nativeQuery = entityManager.createNativeQuery(sql.toString(), TaskEntity.class);
+        params.forEach(nativeQuery::setParameter);
+        return nativeQuery.getResultList();
+    }
+}
@@ -0,0 +1,61 @@
+package com.project.taskservice.repository;
+
+import com.project.taskservice.api.dto.TaskFilter;
+import com.project.taskservice.repository.entity.TaskEntity;
+import com.project.taskservice.utils.TaskCursor;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    public static Specification<TaskEntity> matches(TaskFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (filter.assignedUserId() != null) {
+                predicates.add(cb.equal(root.get("assignedUserId"), filter.assignedUserId()));
+            }
+            if (filter.creatorId() != null) {
+                predicates.add(cb.equal(root.get("creatorId"), filter.creatorId()));
+            }
+            if (filter.taskStatus() != null) {
+                predicates.add(cb.equal(root.get("taskStatus"), filter.taskStatus()));
+            }
+            if (filter.priority() != null) {
+                predicates.add(cb.equal(root.get("priority"), filter.priority()));
+            }
+            if (filter.deadlineFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("deadlineDate"), filter.deadlineFrom()));
+            }
+            if (filter.deadlineTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("deadlineDate"), filter.deadlineTo()));
+            }
+
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /*
+        Seek predicate for keyset pagination.
+        For DEADLINE the redundant "deadline >= d" bounds the index range scan,
+        the OR part skips rows with the same deadline that were already returned.
+     */
+    public static Specification<TaskEntity> after(TaskCursor cursor) {
+        return (root, query, cb) -> switch (cursor.sortKey()) {
+            case ID -> cb.greaterThan(root.get("id"), cursor.id());
+            case DEADLINE -> cb.and(
+                    cb.greaterThanOrEqualTo(root.get("deadlineDate"), cursor.deadline()),
+                    cb.or(
+                            cb.greaterThan(root.get("deadlineDate"), cursor.deadline()),
+                            cb.greaterThan(root.get("id"), cursor.id())
+                    )
+            );
+        };
+    }
+}
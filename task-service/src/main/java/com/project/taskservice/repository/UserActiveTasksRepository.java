@@ -0,0 +1,34 @@
+package com.project.taskservice.repository;
+
+import com.project.taskservice.repository.entity.UserActiveTasksEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserActiveTasksRepository extends JpaRepository<UserActiveTasksEntity, Long> {
+
+    /*
+        takes one slot if the user is below the limit, returns 1 on success and 0 when the limit is reached.
+        The row lock serializes concurrent starts for one user until commit
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_active_tasks (user_id, active_count)
+            VALUES (:userId, 1)
+            ON CONFLICT (user_id) DO UPDATE
+                SET active_count = user_active_tasks.active_count + 1
+                WHERE user_active_tasks.active_count < :limit
+            """, nativeQuery = true)
+    int tryAcquire(@Param("userId") long userId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = """
+            UPDATE user_active_tasks
+            SET active_count = active_count - 1
+            WHERE user_id = :userId AND active_count > 0
+            """, nativeQuery = true)
+    int release(@Param("userId") long userId);
+}
@@ -0,0 +1,34 @@
+package com.project.taskservice.repository.entity;
+
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "task_outbox")
+@Entity
+public class TaskOutboxEntity {
+
+    @Id
+    // one nextval per row, not blocks of 50 per instance: the relay publishes in id order, so ids must follow
+    // insertion order across instances. Later changes of a task wait on its row lock and always get a higher id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_outbox_id_seq")
+    @SequenceGenerator(name = "task_outbox_id_seq", sequenceName = "task_outbox_id_seq", allocationSize = 1)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+}
@@ -0,0 +1,27 @@
+package com.project.taskservice.repository.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// number of IN_PROGRESS tasks per assignee, changed together with the task status
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "user_active_tasks")
+@Entity
+public class UserActiveTasksEntity {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "active_count", nullable = false)
+    private int activeCount;
+}
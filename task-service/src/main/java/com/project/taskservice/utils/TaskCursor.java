@@ -0,0 +1,48 @@
+package com.project.taskservice.utils;
+
+import com.project.taskservice.api.dto.TaskSortKey;
+import com.project.taskservice.repository.entity.TaskEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/*
+        Opaque keyset cursor: position of the last task returned on a page.
+     ID sort -> "I:<id>", DEADLINE sort -> "D:<deadline>:<id>" (base64url encoded)
+ */
+public record TaskCursor(TaskSortKey sortKey, LocalDate deadline, long id) {
+
+    public static TaskCursor after(TaskSortKey sortKey, TaskEntity lastTask) {
+        return new TaskCursor(sortKey, lastTask.getDeadlineDate(), lastTask.getId());
+    }
+
+    public static TaskCursor decode(String cursor, TaskSortKey expectedSortKey) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+
+            TaskCursor decoded = switch (parts[0]) {
+                case "I" -> new TaskCursor(TaskSortKey.ID, null, Long.parseLong(parts[1]));
+                case "D" -> new TaskCursor(TaskSortKey.DEADLINE, LocalDate.parse(parts[1]), Long.parseLong(parts[2]));
+                default -> throw new IllegalArgumentException("Unknown cursor type");
+            };
+
+            if (decoded.sortKey() != expectedSortKey) {
+                throw new IllegalArgumentException("Cursor was issued for sort=" + decoded.sortKey());
+            }
+            return decoded;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    public String encode() {
+        String raw = sortKey == TaskSortKey.ID
+                ? "I:" + id
+                : "D:" + deadline + ":" + id;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
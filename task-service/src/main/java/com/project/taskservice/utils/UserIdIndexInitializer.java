@@ -0,0 +1,52 @@
+package com.project.taskservice.utils;
+
+
+import com.project.taskservice.api.service.UserIdIndex;
+import com.project.taskservice.feign.UserClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/*
+    loads all user ids from user-service at startup and then periodically,
+    between resyncs the index is kept current by "user-events"
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class UserIdIndexInitializer {
+
+    private final UserIdIndex userIdIndex;
+    private final UserClient userClient;
+
+    @Value("${task.user-index.page-size:5000}")
+    private int pageSize;
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${task.user-index.resync-interval:1h}")
+    public void resync() {
+        try {
+            Roaring64Bitmap snapshot = new Roaring64Bitmap();
+            long afterId = 0;
+
+            List<Long> page;
+            do {
+                page = userClient.getUserIds(afterId, pageSize);
+                page.forEach(snapshot::addLong);
+
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1);
+                }
+            } while (page.size() == pageSize);
+
+            userIdIndex.replace(snapshot);
+            log.info("User index loaded: {} users", snapshot.getLongCardinality());
+        } catch (Exception e) {
+            log.warn("User index resync failed, lookups fall back to user-service: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,10 @@
+CREATE INDEX idx_tasks_deadline_id ON tasks (deadline_datetime, id);
+
+CREATE INDEX idx_tasks_assigned_user_id ON tasks (assigned_user_id, id);
+CREATE INDEX idx_tasks_assigned_user_deadline_id ON tasks (assigned_user_id, deadline_datetime, id);
+
+CREATE INDEX idx_tasks_creator_id ON tasks (creator_id, id);
+CREATE INDEX idx_tasks_creator_deadline_id ON tasks (creator_id, deadline_datetime, id);
+
+CREATE INDEX idx_tasks_status_priority_id ON tasks (task_status, priority, id);
+CREATE INDEX idx_tasks_status_deadline_id ON tasks (task_status, deadline_datetime, id);
@@ -0,0 +1 @@
+ALTER SEQUENCE tasks_id_seq INCREMENT BY 50;
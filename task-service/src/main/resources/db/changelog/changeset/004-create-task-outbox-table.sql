@@ -0,0 +1,9 @@
+CREATE SEQUENCE task_outbox_id_seq INCREMENT BY 50;
+
+CREATE TABLE task_outbox
+(
+    id         BIGINT PRIMARY KEY DEFAULT nextval('task_outbox_id_seq'),
+    task_id    BIGINT    NOT NULL,
+    payload    TEXT      NOT NULL,
+    created_at TIMESTAMP NOT NULL
+)
@@ -0,0 +1,14 @@
+ALTER TABLE tasks ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE user_active_tasks
+(
+    user_id      BIGINT PRIMARY KEY,
+    active_count INT NOT NULL DEFAULT 0 CHECK (active_count >= 0)
+);
+
+INSERT INTO user_active_tasks (user_id, active_count)
+SELECT assigned_user_id, COUNT(*)
+FROM tasks
+WHERE task_status = 'IN_PROGRESS'
+  AND assigned_user_id IS NOT NULL
+GROUP BY assigned_user_id;
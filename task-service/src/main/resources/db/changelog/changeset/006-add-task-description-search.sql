@@ -0,0 +1,6 @@
+-- 'simple' config: descriptions are written in several languages, so no language-specific stemming or stop words
+ALTER TABLE tasks
+    ADD COLUMN description_tsv TSVECTOR
+        GENERATED ALWAYS AS (to_tsvector('simple', coalesce(description_of_task, ''))) STORED;
+
+CREATE INDEX idx_tasks_description_tsv ON tasks USING GIN (description_tsv);
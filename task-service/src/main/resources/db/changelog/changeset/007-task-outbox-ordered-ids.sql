@@ -0,0 +1,3 @@
+ALTER SEQUENCE task_outbox_id_seq INCREMENT BY 1;
+
+CREATE INDEX idx_task_outbox_created_at ON task_outbox (created_at);
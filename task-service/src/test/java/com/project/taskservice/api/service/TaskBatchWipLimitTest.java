@@ -0,0 +1,204 @@
+package com.project.taskservice.api.service;
+
+import com.project.taskservice.api.dto.TaskBatchItemResult;
+import com.project.taskservice.api.dto.TaskBatchResult;
+import com.project.taskservice.kafka.TaskEventOutbox;
+import com.project.taskservice.repository.TaskRepository;
+import com.project.taskservice.repository.UserActiveTasksRepository;
+import com.project.taskservice.repository.entity.TaskEntity;
+import com.project.taskservice.utils.TaskMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.SmartTransactionObject;
+import org.springframework.transaction.TransactionDefinition;
+import task.kafka.TaskEvent;
+import task.model.Priority;
+import task.model.TaskDto;
+import task.model.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// runs updateTasks through the real transactional proxies, the bug was a rollback-only mark, not a wrong result
+@SpringJUnitConfig(TaskBatchWipLimitTest.Config.class)
+class TaskBatchWipLimitTest {
+
+    private static final long CREATOR = 10L;
+    private static final long FULL_ASSIGNEE = 20L;
+    private static final long FREE_ASSIGNEE = 21L;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserActiveTasksRepository userActiveTasksRepository;
+
+    // not a bean, the outbox is @Transactional itself and the proxy would hide the recorded calls
+    private static final TaskEventOutbox taskEventOutbox = mock(TaskEventOutbox.class);
+
+    @Autowired
+    private RecordingTransactionManager transactionManager;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void overLimitItemFailsAloneAndValidItemsCommit() {
+        when(taskRepository.findAllById(any())).thenReturn(List.of(
+                task(1L, FREE_ASSIGNEE), task(2L, FULL_ASSIGNEE), task(3L, FREE_ASSIGNEE)));
+        when(userActiveTasksRepository.tryAcquire(eq(FREE_ASSIGNEE), anyInt())).thenReturn(1);
+        when(userActiveTasksRepository.tryAcquire(eq(FULL_ASSIGNEE), anyInt())).thenReturn(0);
+
+        TaskBatchResult result = taskService.updateTasks(List.of(
+                update(1L, FREE_ASSIGNEE, TaskStatus.IN_PROGRESS),
+                update(2L, FULL_ASSIGNEE, TaskStatus.IN_PROGRESS),
+                update(3L, FREE_ASSIGNEE, TaskStatus.CREATED)));
+
+        assertThat(result.succeeded()).isEqualTo(2);
+        assertThat(result.items()).extracting(TaskBatchItemResult::success).containsExactly(true, false, true);
+        assertThat(result.items().get(1).error()).contains("Limit exceeded");
+
+        assertThat(transactionManager.commits).isEqualTo(1);
+        assertThat(transactionManager.rollbacks).isZero();
+
+        ArgumentCaptor<List<TaskEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(taskEventOutbox).appendAll(events.capture());
+        assertThat(events.getValue()).extracting(TaskEvent::taskId).containsExactly(1L, 3L);
+    }
+
+    private static TaskEntity task(long id, long assignee) {
+        TaskEntity task = new TaskEntity();
+        task.setId(id);
+        task.setCreatorId(CREATOR);
+        task.setAssignedUserId(assignee);
+        task.setTaskStatus(TaskStatus.CREATED);
+        task.setPriority(Priority.MEDIUM);
+        task.setCreateDateTime(LocalDate.now());
+        task.setDeadlineDate(LocalDate.now().plusDays(7));
+        task.setVersion(1L);
+        return task;
+    }
+
+    private static TaskDto update(long id, long assignee, TaskStatus status) {
+        return new TaskDto(id, CREATOR, null, assignee, status, null,
+                LocalDate.now().plusDays(14), Priority.MEDIUM, null);
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class Config {
+
+        @Bean
+        RecordingTransactionManager transactionManager() {
+            return new RecordingTransactionManager();
+        }
+
+        @Bean
+        TaskRepository taskRepository() {
+            TaskRepository taskRepository = mock(TaskRepository.class);
+            when(taskRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+            return taskRepository;
+        }
+
+        @Bean
+        UserActiveTasksRepository userActiveTasksRepository() {
+            return mock(UserActiveTasksRepository.class);
+        }
+
+        @Bean
+        ActiveTaskLimiter activeTaskLimiter(UserActiveTasksRepository userActiveTasksRepository) {
+            return new ActiveTaskLimiter(userActiveTasksRepository, new SimpleMeterRegistry(), 1);
+        }
+
+        @Bean
+        TaskService taskService(TaskRepository taskRepository, ActiveTaskLimiter activeTaskLimiter) {
+            UserExistenceService userExistenceService = mock(UserExistenceService.class);
+            when(userExistenceService.findMissing(any())).thenReturn(Set.of());
+
+            return new TaskService(taskEventOutbox, taskRepository, mock(TaskMapper.class), userExistenceService,
+                    mock(Validator.class), new ConcurrentMapCacheManager(), activeTaskLimiter,
+                    new SimpleMeterRegistry());
+        }
+    }
+
+    // joins nested scopes into the outer transaction and honours rollback-only marks like a JPA manager does
+    static class RecordingTransactionManager extends AbstractPlatformTransactionManager
+            implements PlatformTransactionManager {
+
+        private final ThreadLocal<Transaction> current = new ThreadLocal<>();
+        int commits;
+        int rollbacks;
+
+        @Override
+        protected Object doGetTransaction() {
+            Transaction transaction = current.get();
+            return transaction != null ? transaction : new Transaction();
+        }
+
+        @Override
+        protected boolean isExistingTransaction(Object transaction) {
+            return current.get() == transaction;
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            current.set((Transaction) transaction);
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            commits++;
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            rollbacks++;
+        }
+
+        @Override
+        protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+            ((Transaction) status.getTransaction()).rollbackOnly = true;
+        }
+
+        @Override
+        protected void doCleanupAfterCompletion(Object transaction) {
+            current.remove();
+        }
+
+        private static class Transaction implements SmartTransactionObject {
+
+            private boolean rollbackOnly;
+
+            @Override
+            public boolean isRollbackOnly() {
+                return rollbackOnly;
+            }
+
+            @Override
+            public void flush() {
+            }
+        }
+    }
+}
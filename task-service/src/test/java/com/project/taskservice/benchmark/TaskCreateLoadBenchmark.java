@@ -0,0 +1,109 @@
+package com.project.taskservice.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+        POST /tasks LOAD BENCHMARK
+    run against a task-service started once with VIRTUAL_THREADS_ENABLED=false (platform threads)
+    and once with VIRTUAL_THREADS_ENABLED=true, then compare throughput and latency per concurrency level.
+
+    -Dbench.url=http://localhost:8080 -Dbench.creatorId=1 -Dbench.assigneeId=1
+    -Dbench.requests=5000 -Dbench.concurrency=50,200,1000 -Dbench.token=<jwt, optional>
+ */
+public class TaskCreateLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("bench.url", "http://localhost:8080");
+        long creatorId = Long.getLong("bench.creatorId", 1L);
+        long assigneeId = Long.getLong("bench.assigneeId", creatorId);
+        int requests = Integer.getInteger("bench.requests", 5000);
+        String token = System.getProperty("bench.token");
+        int[] concurrencyLevels = Arrays.stream(System.getProperty("bench.concurrency", "50,200,1000").split(","))
+                .mapToInt(level -> Integer.parseInt(level.trim()))
+                .toArray();
+
+        String body = """
+                {"creatorId":%d,"assignedUserId":%d,"descriptionOfTask":"load benchmark","deadlineDate":"%s","priority":"LOW"}
+                """.formatted(creatorId, assigneeId, LocalDate.now().plusDays(30));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(executor)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(URI.create(baseUrl + "/tasks"))
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+            if (token != null) {
+                requestBuilder.header("Authorization", "Bearer " + token);
+            }
+            HttpRequest request = requestBuilder.build();
+
+            // warm up JIT, connection pools and caches
+            run(client, request, executor, Math.min(requests, 500), 20);
+
+            System.out.printf("%-12s %10s %10s %10s %10s %10s %8s%n",
+                    "concurrency", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors");
+            for (int concurrency : concurrencyLevels) {
+                Result result = run(client, request, executor, requests, concurrency);
+                System.out.printf("%-12d %10.1f %10.2f %10.2f %10.2f %10.2f %8d%n",
+                        concurrency, result.throughput(),
+                        result.percentileMillis(50), result.percentileMillis(90),
+                        result.percentileMillis(99), result.percentileMillis(100),
+                        result.errors());
+            }
+        }
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, ExecutorService executor,
+                              int requests, int concurrency) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int index = i;
+            executor.execute(() -> {
+                long sent = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() / 100 != 2) {
+                        errors.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                } finally {
+                    latencies[index] = System.nanoTime() - sent;
+                    inFlight.release();
+                }
+            });
+        }
+        inFlight.acquire(concurrency);
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        return new Result(latencies, requests * 1e9 / elapsed, errors.get());
+    }
+
+    private record Result(long[] sortedLatencies, double throughput, int errors) {
+
+        double percentileMillis(int percentile) {
+            int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.project.taskservice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Redis is replaced by a map for the generations and a ConcurrentMapCache for L2
+class TwoLevelCacheTest {
+
+    private final Map<String, Long> redis = new ConcurrentHashMap<>();
+    private final ConcurrentMapCache l2 = new ConcurrentMapCache("tasks");
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(values.increment(anyString())).thenAnswer(invocation -> redis.merge(invocation.getArgument(0), 1L, Long::sum));
+        when(values.multiGet(anyList())).thenAnswer(invocation -> ((List<String>) invocation.getArgument(0)).stream()
+                .map(key -> String.valueOf(redis.get(key)))
+                .toList());
+        when(redisTemplate.expire(anyString(), any())).thenReturn(true);
+
+        cache = new TwoLevelCache("tasks", Caffeine.newBuilder().build(), l2, redisTemplate,
+                "cache-invalidation", "test", new SimpleMeterRegistry());
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> first = executor.submit(() -> cache.get(1L, () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                release.await();
+                return "task-1";
+            }));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<String> second = executor.submit(() -> cache.get(1L, () -> {
+                loads.incrementAndGet();
+                return "other";
+            }));
+            // another key is not held up by the running load
+            assertThat(cache.get(2L, () -> "task-2")).isEqualTo("task-2");
+
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("task-1");
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("task-1");
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(l2.get("1").get()).isEqualTo("task-1");
+    }
+
+    @Test
+    void loadRacingAClearDoesNotRepopulateL2() {
+        String loaded = cache.get(1L, () -> {
+            cache.clear();
+            return "stale";
+        });
+
+        assertThat(loaded).isEqualTo("stale");
+        assertThat(l2.get("1")).isNull();
+        assertThat(cache.get(1L, () -> "fresh")).isEqualTo("fresh");
+    }
+
+    @Test
+    void loadRacingAnEvictionDoesNotRepopulateL2() {
+        cache.get(1L, () -> {
+            cache.evict(1L);
+            return "stale";
+        });
+
+        assertThat(l2.get("1")).isNull();
+        assertThat(cache.get(1L, () -> "fresh")).isEqualTo("fresh");
+    }
+}
@@ -17,6 +17,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import user.model.User;
 
@@ -54,6 +55,21 @@ public class UserController {
         return ResponseEntity.ok(userService.checkExistingUser(id));
     }
 
+    @PostMapping("/check-existing")
+    public ResponseEntity<List<Long>> checkUsersExisting(@RequestBody List<Long> ids) {
+        log.info("Called checkUsersExisting(): count={}", ids.size());
+        return ResponseEntity.ok(userService.checkExistingUsers(ids));
+    }
+
+    @GetMapping("/private/ids")
+    public ResponseEntity<List<Long>> getUserIds(
+            @RequestParam(value = "afterId", defaultValue = "0") long afterId,
+            @RequestParam(value = "limit", defaultValue = "5000") int limit
+    ) {
+        log.info("Called getUserIds(): afterId={}, limit={}", afterId, limit);
+        return ResponseEntity.ok(userService.findUserIds(afterId, limit));
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping
     public ResponseEntity<List<User>> getAllUsers() {
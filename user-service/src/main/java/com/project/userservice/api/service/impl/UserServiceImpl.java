@@ -11,14 +11,19 @@ import com.project.userservice.utils.UserMapper;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.crossstore.ChangeSetPersister;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import user.kafka.UserEvent;
+import user.kafka.UserEventType;
 import user.model.User;
 import user.model.UserStatus;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,6 +36,7 @@ public class UserServiceImpl implements UserService {
     private final UserMapper mapper;
     private final JwtService jwtService;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     public User findUserById(Long id) {
         var user = userRepository.findById(id)
@@ -43,6 +49,28 @@ public class UserServiceImpl implements UserService {
         return userRepository.existsById(id);
     }
 
+    // answers for many ids with one "WHERE id IN (...)" query, only existing ids are returned
+    public List<Long> checkExistingUsers(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        if (ids.size() > 1000) {
+            throw new IllegalArgumentException("Cannot check more than 1000 users at once");
+        }
+
+        return userRepository.findExistingIds(ids);
+    }
+
+    // keyset page of user ids, used by other services to build their local user index
+    public List<Long> findUserIds(long afterId, int limit) {
+        if (limit < 1 || limit > 10_000) {
+            throw new IllegalArgumentException("limit must be between 1 and 10000");
+        }
+
+        return userRepository.findIdsAfter(afterId, Limit.of(limit));
+    }
+
     public List<User> findAllUsers() {
         return userRepository.findAll()
                 .stream()
@@ -55,6 +83,7 @@ public class UserServiceImpl implements UserService {
         userEntityToSave.setPassword(passwordEncoder.encode(userEntityToSave.getPassword()));
 
         var savedUser = userRepository.save(userEntityToSave);
+        publishUserEvent(savedUser.getId(), UserEventType.CREATED);
         return mapper.toDomainEntity(savedUser);
     }
 
@@ -74,6 +103,7 @@ public class UserServiceImpl implements UserService {
         user.setEmail(userToUpdate.getEmail());
 
         var updatedUser = userRepository.save(user);
+        publishUserEvent(updatedUser.getId(), UserEventType.UPDATED);
         return mapper.toDomainEntity(updatedUser);
     }
 
@@ -88,6 +118,7 @@ public class UserServiceImpl implements UserService {
 
         user.setUserStatus(UserStatus.DELETED);
         userRepository.save(user);
+        publishUserEvent(id, UserEventType.DELETED);
     }
 
     @Transactional
@@ -105,6 +136,7 @@ public class UserServiceImpl implements UserService {
 
         user.setUserStatus(UserStatus.BANNED);
         userRepository.save(user);
+        publishUserEvent(id, UserEventType.BANNED);
     }
 
     public User getUserByEmail(String email) throws ChangeSetPersister.NotFoundException {
@@ -129,6 +161,10 @@ public class UserServiceImpl implements UserService {
         throw new BadCredentialsException("Invalid refresh token");
     }
 
+    private void publishUserEvent(Long userId, UserEventType eventType) {
+        eventPublisher.publishEvent(new UserEvent(userId, eventType, LocalDateTime.now()));
+    }
+
     private UserEntity findByCredentials(UserCredentialsDto userCredentialsDto) {
         Optional<UserEntity> optionalUser = userRepository.findByEmail(userCredentialsDto.getEmail());
         if (optionalUser.isPresent()) {
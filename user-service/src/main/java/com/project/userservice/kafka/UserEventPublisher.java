@@ -0,0 +1,32 @@
+package com.project.userservice.kafka;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import user.kafka.UserEvent;
+
+/*
+        USER CHANGE FEED
+    events are published to "user-events" only after the user change is committed
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserEventPublisher {
+
+    public static final String TOPIC = "user-events";
+
+    private final KafkaTemplate<Long, UserEvent> kafkaTemplate;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(UserEvent event) {
+        kafkaTemplate.send(TOPIC, event.userId(), event)
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        log.error("Failed to publish user event: {}", event, e);
+                    }
+                });
+    }
+}
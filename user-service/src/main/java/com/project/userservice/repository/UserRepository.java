@@ -3,12 +3,15 @@ package com.project.userservice.repository;
 
 import com.project.userservice.repository.entity.UserEntity;
 import user.model.UserStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,6 +19,12 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
 
     Optional<UserEntity> findByEmail(String email);
 
+    @Query("select u.id from UserEntity u where u.id > :afterId order by u.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Limit limit);
+
+    @Query("select u.id from UserEntity u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
 
     @Deprecated
     @Modifying
@@ -32,6 +32,7 @@ public class SecurityConfig {
                                 "/users/registration",
                                 "/auth/**",
                                 "/users/private/**",
+                                "/users/check-existing",
                                 "/users/check-existing/**"
                         ).permitAll()
                         .requestMatchers("/**").authenticated()